@@ -0,0 +1,347 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.gui.ColorScheme;
+import org.jetuml.persistence.DeserializationException;
+import org.jetuml.persistence.PersistenceService;
+import org.jetuml.rendering.AwtTextMetrics;
+import org.jetuml.rendering.ExportPipeline;
+import org.jetuml.rendering.StringRenderer;
+import org.jetuml.rendering.SvgExportSink;
+import org.jetuml.rendering.TiledDiagramImage;
+
+import javafx.application.Platform;
+
+/**
+ * Entry point for rendering diagram files without opening the editor.
+ * 
+ * Usage: BatchRenderer [--png] [--awt-text] [--threads N] [--output DIRECTORY] PATTERN...
+ * 
+ * Each pattern is either the path of a diagram file or a glob such as 
+ * "docs/**&#47;*.jet", in which case all the files it matches are rendered.
+ * Each diagram is rendered as an SVG file with the same name, in the 
+ * output directory if there is one and next to the diagram file otherwise.
+ * With the --png option, diagrams are also rendered as PNG files, if the 
+ * JavaFX toolkit can be started. With the --awt-text option, text is measured
+ * with AWT fonts, so SVG images can be rendered without the native font 
+ * libraries of JavaFX.
+ * 
+ * The files are loaded and rendered by a fixed number of worker threads, 
+ * one per processor by default. The time taken to load and render each 
+ * file is reported on the standard output, in the order of the patterns.
+ */
+public final class BatchRenderer
+{
+	private static final String EXTENSION = ".jet";
+	private static final String WILDCARDS = "*?[{";
+	private static final String USAGE = 
+			"Usage: BatchRenderer [--png] [--awt-text] [--threads N] [--output DIRECTORY] PATTERN...";
+	
+	private final int aThreads;
+	private final Optional<Path> aOutput;
+	private final boolean aPng;
+	
+	private record Timing(long load, long svg, long png) {}
+	
+	/**
+	 * Creates a renderer that uses pThreads workers.
+	 * 
+	 * @param pThreads The number of worker threads.
+	 * @param pOutput The directory where to write the images, if any.
+	 * @param pPng True if diagrams are also rendered as PNG files, which requires
+	 *     the JavaFX toolkit to be started.
+	 * @pre pThreads > 0 && pOutput != null
+	 */
+	BatchRenderer(int pThreads, Optional<Path> pOutput, boolean pPng)
+	{
+		assert pThreads > 0 && pOutput != null;
+		aThreads = pThreads;
+		aOutput = pOutput;
+		aPng = pPng;
+	}
+	
+	/**
+	 * @param pArgs The options and patterns of the files to render.
+	 */
+	public static void main(String[] pArgs)
+	{
+		int threads = Runtime.getRuntime().availableProcessors();
+		Optional<Path> output = Optional.empty();
+		boolean png = false;
+		boolean awtText = false;
+		List<String> patterns = new ArrayList<>();
+		try
+		{
+			for( int i = 0; i < pArgs.length; i++ )
+			{
+				switch( pArgs[i] )
+				{
+				case "--png" -> png = true;
+				case "--awt-text" -> awtText = true;
+				case "--threads" -> threads = Integer.parseInt(pArgs[++i]);
+				case "--output" -> output = Optional.of(Path.of(pArgs[++i]));
+				default -> patterns.add(pArgs[i]);
+				}
+			}
+		}
+		catch( NumberFormatException | ArrayIndexOutOfBoundsException exception )
+		{
+			patterns.clear();
+		}
+		if( patterns.isEmpty() || threads < 1 )
+		{
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+		
+		if( awtText )
+		{
+			StringRenderer.setTextMetrics(new AwtTextMetrics());
+		}
+		if( png && !startToolkit() )
+		{
+			png = false;
+		}
+		int failures = 1;
+		try
+		{
+			if( output.isPresent() )
+			{
+				Files.createDirectories(output.get());
+			}
+			failures = new BatchRenderer(threads, output, png).render(expand(patterns), System.out);
+		}
+		catch( IOException exception )
+		{
+			System.err.println(exception.getMessage());
+		}
+		if( png )
+		{
+			Platform.exit();
+		}
+		System.exit(failures == 0 ? 0 : 1);
+	}
+	
+	private static boolean startToolkit()
+	{
+		try
+		{
+			Platform.startup(() -> {});
+			return true;
+		}
+		catch( RuntimeException | Error exception )
+		{
+			System.err.println("PNG images are not rendered: the JavaFX toolkit cannot be started (" 
+					+ exception.getMessage() + ")");
+			return false;
+		}
+	}
+	
+	/**
+	 * Returns the diagram files that match pPatterns, in the order of the patterns 
+	 * and then of the paths, without duplicates. A pattern without wildcards
+	 * is the path of a single file, which is returned even if it does not exist.
+	 * 
+	 * @param pPatterns The paths or globs of the files.
+	 * @return The paths of the matching files.
+	 * @throws IOException If a directory cannot be searched.
+	 * @pre pPatterns != null
+	 */
+	static List<Path> expand(List<String> pPatterns) throws IOException
+	{
+		assert pPatterns != null;
+		Set<Path> files = new LinkedHashSet<>();
+		for( String pattern : pPatterns )
+		{
+			int wildcard = firstWildcard(pattern);
+			if( wildcard < 0 )
+			{
+				files.add(Path.of(pattern));
+				continue;
+			}
+			// Only the directory that contains the first wildcard needs to be searched
+			int separator = Math.max(pattern.lastIndexOf('/', wildcard), 
+					pattern.lastIndexOf(File.separatorChar, wildcard));
+			Path root = Path.of(pattern.substring(0, separator + 1));
+			if( !Files.isDirectory(root) )
+			{
+				continue;
+			}
+			PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+			try( Stream<Path> paths = Files.walk(root) )
+			{
+				paths.filter(path -> Files.isRegularFile(path) && matcher.matches(path))
+					.sorted()
+					.forEach(files::add);
+			}
+		}
+		return new ArrayList<>(files);
+	}
+	
+	private static int firstWildcard(String pPattern)
+	{
+		for( int i = 0; i < pPattern.length(); i++ )
+		{
+			if( WILDCARDS.indexOf(pPattern.charAt(i)) >= 0 )
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Renders all of pFiles with the worker threads, and reports the time taken
+	 * for each file, or the reason it could not be rendered, to pReport.
+	 * 
+	 * @param pFiles The diagram files to render.
+	 * @param pReport Where to report the progress.
+	 * @return The number of files that could not be rendered.
+	 * @pre pFiles != null && pReport != null
+	 */
+	int render(List<Path> pFiles, PrintStream pReport)
+	{
+		assert pFiles != null && pReport != null;
+		long start = System.nanoTime();
+		ExecutorService workers = Executors.newFixedThreadPool(aThreads);
+		int failures = 0;
+		try
+		{
+			List<Future<Timing>> timings = new ArrayList<>();
+			for( Path file : pFiles )
+			{
+				timings.add(workers.submit(() -> render(file)));
+			}
+			for( int i = 0; i < pFiles.size(); i++ )
+			{
+				try
+				{
+					Timing timing = timings.get(i).get();
+					pReport.printf("%s: loaded in %d ms, SVG in %d ms%s%n", pFiles.get(i), timing.load(), 
+							timing.svg(), aPng ? String.format(", PNG in %d ms", timing.png()) : "");
+				}
+				catch( ExecutionException exception )
+				{
+					failures++;
+					pReport.printf("%s: FAILED (%s)%n", pFiles.get(i), exception.getCause());
+				}
+				catch( InterruptedException exception )
+				{
+					Thread.currentThread().interrupt();
+					return pFiles.size() - i + failures;
+				}
+			}
+		}
+		finally
+		{
+			workers.shutdownNow();
+		}
+		pReport.printf("%d of %d files rendered in %d ms%n", pFiles.size() - failures, pFiles.size(), 
+				millisecondsSince(start));
+		return failures;
+	}
+	
+	/*
+	 * The diagram is laid out once for both images. PNG images are drawn on 
+	 * the JavaFX application thread, which is the only one that can take 
+	 * snapshots of a canvas.
+	 */
+	private Timing render(Path pFile) throws IOException, DeserializationException, 
+		InterruptedException, ExecutionException
+	{
+		long start = System.nanoTime();
+		Diagram diagram = PersistenceService.read(pFile.toFile());
+		long load = millisecondsSince(start);
+		
+		start = System.nanoTime();
+		ExportPipeline pipeline = new ExportPipeline(DiagramType.newRendererInstanceFor(diagram));
+		try( Writer out = Files.newBufferedWriter(outputFile(pFile, ".svg"), StandardCharsets.UTF_8) )
+		{
+			pipeline.export(new SvgExportSink<>(out));
+		}
+		catch( UncheckedIOException exception )
+		{
+			throw exception.getCause();
+		}
+		long svg = millisecondsSince(start);
+		
+		long png = 0;
+		if( aPng )
+		{
+			start = System.nanoTime();
+			FutureTask<Boolean> task = new FutureTask<>(() -> 
+			{
+				try( OutputStream out = Files.newOutputStream(outputFile(pFile, ".png")) )
+				{
+					return ImageIO.write(new TiledDiagramImage(pipeline, ColorScheme.get().background()), "png", out);
+				}
+			});
+			Platform.runLater(task);
+			task.get();
+			png = millisecondsSince(start);
+		}
+		return new Timing(load, svg, png);
+	}
+	
+	private Path outputFile(Path pFile, String pExtension)
+	{
+		String name = pFile.getFileName().toString();
+		if( name.endsWith(EXTENSION) )
+		{
+			name = name.substring(0, name.length() - EXTENSION.length());
+		}
+		Path directory = aOutput.orElse(pFile.toAbsolutePath().getParent());
+		return directory.resolve(name + pExtension);
+	}
+	
+	private static long millisecondsSince(long pStart)
+	{
+		return (System.nanoTime() - pStart) / 1_000_000;
+	}
+}
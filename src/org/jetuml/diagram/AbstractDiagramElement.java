@@ -30,6 +30,10 @@ public abstract class AbstractDiagramElement implements DiagramElement
 {
 	private Properties aProperties;
 	
+	/* The diagram that has this element as a root node or as an edge, and
+	 * must be notified of its changes. Null if there is none. */
+	private Diagram aDiagram;
+	
 	/**
 	 * Initializes the properties for this object.
 	 */
@@ -48,6 +52,7 @@ public abstract class AbstractDiagramElement implements DiagramElement
 		{
 			AbstractDiagramElement clone = (AbstractDiagramElement) super.clone();
 			clone.buildProperties();
+			clone.aDiagram = null;
 			return clone;
 		}
 		catch(CloneNotSupportedException exception)
@@ -62,6 +67,62 @@ public abstract class AbstractDiagramElement implements DiagramElement
 		return aProperties;
 	}
 	
+	/*
+	 * Called by the diagram when this element becomes one of its root nodes
+	 * or edges, and with null when it stops being one.
+	 */
+	void setDiagram(Diagram pDiagram)
+	{
+		aDiagram = pDiagram;
+	}
+	
+	/**
+	 * Records that this element changed in a way described by pChange. Must be 
+	 * called by every method that changes an element after it is created.
+	 * 
+	 * @param pChange The kind of change.
+	 * @pre pChange != null
+	 */
+	protected void recordChange(DiagramChange pChange)
+	{
+		notifyChange(pChange, this);
+	}
+	
+	/**
+	 * Notifies the diagram that has this element as a root node or as an edge,
+	 * if there is one, that pElement changed in a way described by pChange.
+	 * 
+	 * @param pChange The kind of change.
+	 * @param pElement This element, or one of its descendants.
+	 * @pre pChange != null && pElement != null
+	 */
+	protected final void notifyChange(DiagramChange pChange, DiagramElement pElement)
+	{
+		assert pChange != null && pElement != null;
+		if( aDiagram != null )
+		{
+			aDiagram.elementChanged(pChange, pElement);
+		}
+	}
+	
+	/**
+	 * Notifies the diagram that has this element as an edge, if there is one, that
+	 * the edge was connected to different nodes, so that the diagram can find it
+	 * from its new nodes.
+	 * 
+	 * @param pPreviousStart The start node of the edge before it was reconnected.
+	 * @param pPreviousEnd The end node of the edge before it was reconnected.
+	 * @pre this instanceof Edge && pPreviousStart != null && pPreviousEnd != null
+	 */
+	protected final void notifyReconnected(Node pPreviousStart, Node pPreviousEnd)
+	{
+		assert this instanceof Edge && pPreviousStart != null && pPreviousEnd != null;
+		if( aDiagram != null )
+		{
+			aDiagram.edgeReconnected((Edge) this, pPreviousStart, pPreviousEnd);
+		}
+	}
+	
 	/**
 	 * Builds the properties object associated with this object.
 	 * Must be outside the constructor because of cloning.
@@ -21,9 +21,12 @@
 package org.jetuml.diagram;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.jetuml.diagram.nodes.CallNode;
 import org.jetuml.diagram.nodes.FieldNode;
@@ -45,6 +48,40 @@ public final class Diagram implements DiagramData
 	private final ArrayList<Node> aRootNodes;
 	private final ArrayList<Edge> aEdges;
 	private final DiagramType aType;
+	
+	/*
+	 * Maps each node to the edges that have it as start or end node, in the same 
+	 * relative order as in aEdges. Nodes without edges are not in the map. Edges 
+	 * reconnected while they are part of the diagram are indexed again, see edgeReconnected.
+	 */
+	private final Map<Node, List<Edge>> aAdjacency = new IdentityHashMap<>();
+	
+	/*
+	 * Identity sets of the root nodes and edges, for constant-time membership tests.
+	 * Child nodes are not tracked: their membership is determined through their parent.
+	 */
+	private final Set<Node> aRootNodeSet = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Set<Edge> aEdgeSet = Collections.newSetFromMap(new IdentityHashMap<>());
+	
+	/*
+	 * Maps each edge to its index in aEdges. Computed lazily, and discarded whenever
+	 * an edge is inserted or removed anywhere but at the end of aEdges. Null if invalid.
+	 */
+	private Map<Edge, Integer> aEdgePositions = null;
+	
+	/*
+	 * Incremented whenever a root node or an edge is added or removed.
+	 */
+	private int aModificationCount = 0;
+	
+	private final List<DiagramChangeHandler> aChangeHandlers = new ArrayList<>();
+	
+	/*
+	 * Number of nested batches of changes in progress, and the elements changed
+	 * during the outermost one by kind of change. The sets are reused across batches.
+	 */
+	private int aBatchDepth = 0;
+	private final Map<DiagramChange, Set<DiagramElement>> aBatchedChanges = new EnumMap<>(DiagramChange.class);
 
 	/**
 	 * Creates an empty diagram.
@@ -73,11 +110,16 @@ public final class Diagram implements DiagramData
 		{
 			Node nodeCopy = node.clone();
 			copy.aRootNodes.add(nodeCopy);
+			copy.aRootNodeSet.add(nodeCopy);
+			attach(nodeCopy, copy);
 			reassignEdges(copy.aEdges, node, nodeCopy);
 		}
 
 		// Reassign diagram
 		copy.aEdges.forEach(edge -> edge.connect(edge.start(), edge.end()));
+		copy.aEdges.forEach(edge -> copy.index(edge, copy.aEdges.size()));
+		copy.aEdgeSet.addAll(copy.aEdges);
+		copy.aEdges.forEach(edge -> attach(edge, copy));
 		return copy;
 	}
 
@@ -173,34 +215,34 @@ public final class Diagram implements DiagramData
 	public boolean contains(DiagramElement pElement)
 	{
 		assert pElement != null;
-		if( aEdges.contains(pElement) )
+		if( pElement instanceof Edge edge )
 		{
-			return true;
+			return aEdgeSet.contains(edge);
 		}
-		for( Node node : aRootNodes )
+		if( pElement instanceof Node node )
 		{
-			if( containsNode(node, pElement) )
-			{
-				return true;
-			}
+			return containsNode(node);
 		}
 		return false;
 	}
 
-	private boolean containsNode(Node pTest, DiagramElement pTarget)
+	/*
+	 * Walks up the parent chain of pNode until a root node of this diagram is found.
+	 * Parent links are maintained by the nodes when children are added or removed, so 
+	 * this does not require the diagram to track child nodes.
+	 */
+	private boolean containsNode(Node pNode)
 	{
-		if( pTest == pTarget )
+		Node node = pNode;
+		while( !aRootNodeSet.contains(node) )
 		{
-			return true;
-		}
-		for( Node node : pTest.getChildren() )
-		{
-			if( containsNode(node, pTarget) )
+			if( !node.hasParent() )
 			{
-				return true;
+				return false;
 			}
+			node = node.getParent();
 		}
-		return false;
+		return true;
 	}
 
 	/**
@@ -211,7 +253,7 @@ public final class Diagram implements DiagramData
 	public boolean containsAsRoot(Node pNode)
 	{
 		assert pNode != null;
-		return aRootNodes.contains(pNode);
+		return aRootNodeSet.contains(pNode);
 	}
 
 	/**
@@ -225,6 +267,141 @@ public final class Diagram implements DiagramData
 		return aType.getPrototypes();
 	}
 
+	/**
+	 * Returns a number that changes whenever root nodes or edges are added to or 
+	 * removed from this diagram. Comparing two values obtained from this method
+	 * tells whether the set of root nodes and edges, or their order, may have 
+	 * changed in the meantime. Changes to the nodes themselves, such as their 
+	 * position or their children, are not reflected.
+	 * 
+	 * @return The number of structural modifications made to this diagram.
+	 */
+	public int modificationCount()
+	{
+		return aModificationCount;
+	}
+	
+	/**
+	 * Adds a handler that is notified of the changes made to the elements of this
+	 * diagram: nodes moved, properties set, and elements added or removed. Changes
+	 * made to nodes and edges that are not part of this diagram are not reported.
+	 * 
+	 * @param pHandler A handler for changes to this diagram.
+	 * @pre pHandler != null
+	 */
+	public void addChangeHandler(DiagramChangeHandler pHandler)
+	{
+		assert pHandler != null;
+		aChangeHandlers.add(pHandler);
+	}
+	
+	/**
+	 * Removes a handler.
+	 * 
+	 * @param pHandler The handler to remove.
+	 */
+	public void removeChangeHandler(DiagramChangeHandler pHandler)
+	{
+		aChangeHandlers.remove(pHandler);
+	}
+	
+	/**
+	 * Runs pChanges as a batch: the handlers of this diagram are notified of 
+	 * the changes made by pChanges only once it completes, and of each changed 
+	 * element at most once per kind of change, in no particular order. Batches
+	 * can be nested, in which case the changes are reported at the end of the 
+	 * outermost batch. The changes made before pChanges throws an exception, if
+	 * it does, are also reported.
+	 * 
+	 * @param pChanges The code that changes the diagram.
+	 * @pre pChanges != null
+	 */
+	public void batchChanges(Runnable pChanges)
+	{
+		assert pChanges != null;
+		aBatchDepth++;
+		try
+		{
+			pChanges.run();
+		}
+		finally
+		{
+			aBatchDepth--;
+			if( aBatchDepth == 0 )
+			{
+				notifyBatchedChanges();
+			}
+		}
+	}
+	
+	/**
+	 * @return True if a batch of changes is in progress, in which case the 
+	 *     handlers of this diagram have not been notified of all the changes
+	 *     made to its elements yet.
+	 */
+	public boolean isBatchingChanges()
+	{
+		return aBatchDepth > 0;
+	}
+	
+	/*
+	 * Clears the pending changes before notifying the handlers, so that none is
+	 * reported twice if a handler throws an exception.
+	 */
+	private void notifyBatchedChanges()
+	{
+		Map<DiagramChange, List<DiagramElement>> changes = new EnumMap<>(DiagramChange.class);
+		for( Map.Entry<DiagramChange, Set<DiagramElement>> entry : aBatchedChanges.entrySet() )
+		{
+			if( !entry.getValue().isEmpty() )
+			{
+				changes.put(entry.getKey(), List.copyOf(entry.getValue()));
+				entry.getValue().clear();
+			}
+		}
+		changes.forEach((change, elements) -> elements.forEach(element -> notifyHandlers(change, element)));
+	}
+	
+	/*
+	 * Called by the root nodes and edges of this diagram when they or their descendants change.
+	 */
+	void elementChanged(DiagramChange pChange, DiagramElement pElement)
+	{
+		if( aChangeHandlers.isEmpty() )
+		{
+			return;
+		}
+		if( aBatchDepth > 0 )
+		{
+			aBatchedChanges.computeIfAbsent(pChange, 
+					change -> Collections.newSetFromMap(new IdentityHashMap<>())).add(pElement);
+		}
+		else
+		{
+			notifyHandlers(pChange, pElement);
+		}
+	}
+	
+	private void notifyHandlers(DiagramChange pChange, DiagramElement pElement)
+	{
+		for( DiagramChangeHandler handler : aChangeHandlers )
+		{
+			handler.diagramChanged(pChange, pElement);
+		}
+	}
+	
+	/*
+	 * Makes pElement notify pDiagram of its changes, or no diagram if pDiagram is null.
+	 * Elements that do not derive from AbstractDiagramElement cannot report their changes.
+	 */
+	private static void attach(DiagramElement pElement, Diagram pDiagram)
+	{
+		if( pElement instanceof AbstractDiagramElement element )
+		{
+			element.setDiagram(pDiagram);
+		}
+	}
+
 	/**
 	 * @param pNode The node to test for
 	 * @return All the edges connected to pNode
@@ -234,15 +411,7 @@ public final class Diagram implements DiagramData
 	public Iterable<Edge> edgesConnectedTo(Node pNode)
 	{
 		assert pNode != null && contains(pNode);
-		Collection<Edge> lReturn = new ArrayList<>();
-		for( Edge edge : aEdges )
-		{
-			if( edge.start() == pNode || edge.end() == pNode )
-			{
-				lReturn.add(edge);
-			}
-		}
-		return lReturn;
+		return List.copyOf(aAdjacency.getOrDefault(pNode, Collections.emptyList()));
 	}
 	
 	/**
@@ -252,17 +421,35 @@ public final class Diagram implements DiagramData
 	 * @param pNode The desired end node.
 	 * @param pOfType The desired edge type. Use Edge.class to get edges of any type.
 	 * @return An unmodifiable list of edges of type pOfType (or a subtype) that
-	 * have pNode as end node.
+	 * have pNode as end node, in the order in which they appear in the diagram.
 	 */
 	public List<Edge> edgesTo(Node pNode, Class<? extends Edge> pOfType)
 	{
 		assert pNode != null && pOfType != null;
-		return aEdges.stream()
+		return aAdjacency.getOrDefault(pNode, Collections.emptyList()).stream()
 				.filter(pOfType::isInstance)
 				.filter(edge -> edge.end() == pNode)
 				.toList();
 	}
 
+	/**
+	 * Returns all the edges in the diagram of a type assignable to pType,
+	 * and that have pNode as start node.
+	 * 
+	 * @param pNode The desired start node.
+	 * @param pOfType The desired edge type. Use Edge.class to get edges of any type.
+	 * @return An unmodifiable list of edges of type pOfType (or a subtype) that
+	 * have pNode as start node, in the order in which they appear in the diagram.
+	 */
+	public List<Edge> edgesFrom(Node pNode, Class<? extends Edge> pOfType)
+	{
+		assert pNode != null && pOfType != null;
+		return aAdjacency.getOrDefault(pNode, Collections.emptyList()).stream()
+				.filter(pOfType::isInstance)
+				.filter(edge -> edge.start() == pNode)
+				.toList();
+	}
+
 	/**
 	 * Adds pNode as a root node in this diagram. Callers of this method must ensure that the addition respects the
 	 * integrity of the diagram.
@@ -274,6 +461,10 @@ public final class Diagram implements DiagramData
 	{
 		assert pNode != null;
 		aRootNodes.add(pNode);
+		aRootNodeSet.add(pNode);
+		aModificationCount++;
+		attach(pNode, this);
+		elementChanged(DiagramChange.STRUCTURE_CHANGED, pNode);
 	}
 
 	/**
@@ -285,13 +476,17 @@ public final class Diagram implements DiagramData
 	 */
 	public void removeRootNode(Node pNode)
 	{
-		assert pNode != null && aRootNodes.contains(pNode);
+		assert pNode != null && aRootNodeSet.contains(pNode);
 		aRootNodes.remove(pNode);
+		aRootNodeSet.remove(pNode);
+		aModificationCount++;
+		attach(pNode, null);
+		elementChanged(DiagramChange.STRUCTURE_CHANGED, pNode);
 	}
 
 	/**
-	 * Adds pEdge to the diagram. pEdge should already be connected to its start and end nodes. The edge is added to the
-	 * end of the list of edges.
+	 * Adds pEdge to the diagram. pEdge should already be connected to its start and end nodes. The edge is added 
+	 * to the end of the list of edges.
 	 * 
 	 * @param pEdge The edge to add.
 	 * @pre pEdge != null && pEdge.getStart() != null && pEdge.getEnd() != null && pEdge.getGraph != null
@@ -300,6 +495,15 @@ public final class Diagram implements DiagramData
 	{
 		assert pEdge != null && pEdge.start() != null && pEdge.end() != null;
 		aEdges.add(pEdge);
+		aEdgeSet.add(pEdge);
+		if( aEdgePositions != null )
+		{
+			aEdgePositions.put(pEdge, aEdges.size() - 1);
+		}
+		index(pEdge, aEdges.size());
+		aModificationCount++;
+		attach(pEdge, this);
+		elementChanged(DiagramChange.STRUCTURE_CHANGED, pEdge);
 	}
 	
 	/**
@@ -313,6 +517,109 @@ public final class Diagram implements DiagramData
 	{
 		assert pEdge != null && pIndex >= 0 && pIndex <= aEdges.size();
 		aEdges.add(pIndex, pEdge);
+		aEdgeSet.add(pEdge);
+		if( pIndex < aEdges.size() - 1 )
+		{
+			aEdgePositions = null;
+		}
+		else if( aEdgePositions != null )
+		{
+			aEdgePositions.put(pEdge, pIndex);
+		}
+		index(pEdge, pIndex);
+		aModificationCount++;
+		attach(pEdge, this);
+		elementChanged(DiagramChange.STRUCTURE_CHANGED, pEdge);
+	}
+	
+	/*
+	 * Records pEdge in the adjacency list of its start and end nodes, given that pEdge was
+	 * just inserted at position pIndex in aEdges. To preserve the order of aEdges in the 
+	 * adjacency lists, edges inserted before the end of aEdges are inserted after all the 
+	 * edges of the node that precede them in aEdges. A value of pIndex equal or greater
+	 * than the size of aEdges indicates that the edge was appended.
+	 */
+	private void index(Edge pEdge, int pIndex)
+	{
+		indexForNode(pEdge, pEdge.start(), pIndex);
+		if( pEdge.end() != pEdge.start() )
+		{
+			indexForNode(pEdge, pEdge.end(), pIndex);
+		}
+	}
+	
+	/*
+	 * Appending is constant-time. Otherwise, pEdge is inserted after the closest edge 
+	 * of pNode that precedes it in aEdges, found by scanning aEdges backwards from
+	 * pIndex. The cost is then proportional to the distance between the two edges in 
+	 * aEdges, and to the number of edges of pNode. Edges are only inserted before the
+	 * end of aEdges when the removal of edges is undone, or when they are reconnected.
+	 */
+	private void indexForNode(Edge pEdge, Node pNode, int pIndex)
+	{
+		List<Edge> edges = aAdjacency.computeIfAbsent(pNode, key -> new ArrayList<>());
+		if( pIndex >= aEdges.size() - 1 )
+		{
+			edges.add(pEdge);
+			return;
+		}
+		for( int i = pIndex - 1; i >= 0; i-- )
+		{
+			Edge edge = aEdges.get(i);
+			if( edge.start() == pNode || edge.end() == pNode )
+			{
+				edges.add(positionOf(edge, edges) + 1, pEdge);
+				return;
+			}
+		}
+		edges.add(0, pEdge);
+	}
+	
+	private static int positionOf(Edge pEdge, List<Edge> pEdges)
+	{
+		int position = pEdges.size() - 1;
+		while( pEdges.get(position) != pEdge )
+		{
+			position--;
+		}
+		return position;
+	}
+	
+	/*
+	 * Called by edges of this diagram when they are connected to different nodes, 
+	 * to move them to the adjacency lists of their new start and end nodes.
+	 */
+	void edgeReconnected(Edge pEdge, Node pPreviousStart, Node pPreviousEnd)
+	{
+		assert aEdgeSet.contains(pEdge);
+		unindexForNode(pEdge, pPreviousStart);
+		unindexForNode(pEdge, pPreviousEnd);
+		index(pEdge, indexOf(pEdge));
+		aModificationCount++;
+		elementChanged(DiagramChange.STRUCTURE_CHANGED, pEdge);
+	}
+	
+	/*
+	 * Removes pEdge from the adjacency lists of its start and end nodes.
+	 */
+	private void unindex(Edge pEdge)
+	{
+		unindexForNode(pEdge, pEdge.start());
+		unindexForNode(pEdge, pEdge.end());
+	}
+	
+	private void unindexForNode(Edge pEdge, Node pNode)
+	{
+		List<Edge> edges = aAdjacency.get(pNode);
+		if( edges == null )
+		{
+			return;
+		}
+		edges.remove(pEdge);
+		if( edges.isEmpty() )
+		{
+			aAdjacency.remove(pNode);
+		}
 	}
 
 
@@ -325,7 +632,15 @@ public final class Diagram implements DiagramData
 	public int indexOf(Edge pEdge)
 	{
 		assert contains(pEdge);
-		return aEdges.indexOf(pEdge);
+		if( aEdgePositions == null )
+		{
+			aEdgePositions = new IdentityHashMap<>();
+			for( int i = 0; i < aEdges.size(); i++ )
+			{
+				aEdgePositions.put(aEdges.get(i), i);
+			}
+		}
+		return aEdgePositions.getOrDefault(pEdge, -1);
 	}
 
 	/**
@@ -336,8 +651,14 @@ public final class Diagram implements DiagramData
 	 */
 	public void removeEdge(Edge pEdge)
 	{
-		assert pEdge != null && aEdges.contains(pEdge);
+		assert pEdge != null && aEdgeSet.contains(pEdge);
 		aEdges.remove(pEdge);
+		aEdgeSet.remove(pEdge);
+		aEdgePositions = null;
+		unindex(pEdge);
+		aModificationCount++;
+		attach(pEdge, null);
+		elementChanged(DiagramChange.STRUCTURE_CHANGED, pEdge);
 	}
 
 	/**
@@ -363,7 +684,8 @@ public final class Diagram implements DiagramData
 			// Recursively reorder the node's parent
 			placeOnTop(parent);
 		}
-		else if( containsAsRoot(pNode) )
+		// Nodes already on top are left in place, to keep the modification count unchanged
+		else if( containsAsRoot(pNode) && aRootNodes.get(aRootNodes.size() - 1) != pNode )
 		{
 			removeRootNode(pNode);
 			addRootNode(pNode);
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.diagram;
+
+/**
+ * The kinds of changes that can be made to the elements of a diagram.
+ */
+public enum DiagramChange
+{
+	/** A node was moved, along with its descendants. */
+	MOVED,
+	
+	/** The value of a property of a node or edge was set. */
+	PROPERTY_CHANGED,
+	
+	/** A node or edge was added to or removed from the diagram, or a node gained or lost a parent. */
+	STRUCTURE_CHANGED
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.diagram;
+
+/**
+ * An object that can react to the changes made to the elements of a diagram.
+ * 
+ * @see Diagram#addChangeHandler(DiagramChangeHandler)
+ */
+public interface DiagramChangeHandler
+{
+	/**
+	 * Callback for a change to an element of a diagram. Handlers must not change 
+	 * the diagram in response.
+	 * 
+	 * @param pChange The kind of change.
+	 * @param pElement The element that changed. For a structure change, the node or edge 
+	 *     that was added or removed, or the node whose parent changed.
+	 */
+	void diagramChanged(DiagramChange pChange, DiagramElement pElement);
+}
\ No newline at end of file
@@ -27,7 +27,8 @@ package org.jetuml.diagram;
 public interface Edge extends DiagramElement
 {
    /**
-    * Connect this edge to two nodes.
+    * Connect this edge to two nodes. If the edge is part of a diagram,
+    * the diagram finds it from the new nodes from then on.
     * @param pStart the starting node
     * @param pEnd the end node
   	*/
@@ -62,6 +62,14 @@ public interface Node extends DiagramElement
      * @param pDeltaY the amount to translate in the y-direction
 	 */
 	void translate(int pDeltaX, int pDeltaY);
+	
+	/**
+	 * @return A number that changes whenever this node or one of its descendants
+	 *     changes in a way that can affect how it is drawn, such as being moved,
+	 *     having a property set, or gaining or losing a child. Two different changes 
+	 *     never result in the same number.
+	 */
+	int version();
 
 	/**
 	 * @return A clone of the node.
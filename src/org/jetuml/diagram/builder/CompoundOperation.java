@@ -23,8 +23,10 @@ package org.jetuml.diagram.builder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import org.jetuml.annotations.Composite;
+import org.jetuml.diagram.Diagram;
 
 /**
  * An operation that is composed of other operations, following
@@ -33,12 +35,36 @@ import org.jetuml.annotations.Composite;
  * Executing a compound operation executes all the sub-operations
  * in the order they were added. Undoing a compound operation
  * undoes all the sub-operation in the reverse order in which 
- * they were added.
+ * they were added. If the operation is created for a diagram,
+ * the changes it makes are reported to the handlers of that diagram
+ * as a single batch.
  */
 @Composite
 public class CompoundOperation implements DiagramOperation
 {
 	private List<DiagramOperation> aOperations = new ArrayList<>();
+	private final Optional<Diagram> aDiagram;
+	
+	/**
+	 * Creates an empty operation that does not batch its changes.
+	 */
+	public CompoundOperation()
+	{
+		aDiagram = Optional.empty();
+	}
+	
+	/**
+	 * Creates an empty operation whose changes to pDiagram, when it is
+	 * executed or undone, are reported as a single batch.
+	 * 
+	 * @param pDiagram The diagram changed by the operation.
+	 * @pre pDiagram != null
+	 */
+	public CompoundOperation(Diagram pDiagram)
+	{
+		assert pDiagram != null;
+		aDiagram = Optional.of(pDiagram);
+	}
 	
 	/**
 	 * Adds a sub-operation.
@@ -54,20 +80,38 @@ public class CompoundOperation implements DiagramOperation
 	@Override
 	public void execute()
 	{
-		for( DiagramOperation operation : aOperations)
+		batch(() ->
 		{
-			operation.execute();
-		}
+			for( DiagramOperation operation : aOperations)
+			{
+				operation.execute();
+			}
+		});
 	}
 
 	@Override
 	public void undo()
 	{
-		ArrayList<DiagramOperation> reverse = new ArrayList<>(aOperations);
-		Collections.reverse(reverse);
-		for( DiagramOperation operation : reverse)
+		batch(() ->
+		{
+			ArrayList<DiagramOperation> reverse = new ArrayList<>(aOperations);
+			Collections.reverse(reverse);
+			for( DiagramOperation operation : reverse)
+			{
+				operation.undo();
+			}
+		});
+	}
+	
+	private void batch(Runnable pOperations)
+	{
+		if( aDiagram.isPresent() )
+		{
+			aDiagram.get().batchChanges(pOperations);
+		}
+		else
 		{
-			operation.undo();
+			pOperations.run();
 		}
 	}
 	
@@ -26,6 +26,8 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -141,7 +143,7 @@ public abstract class DiagramBuilder
 	 */
 	public final DiagramOperation createAddElementsOperation(Iterable<DiagramElement> pElements)
 	{
-		CompoundOperation operation = new CompoundOperation();
+		CompoundOperation operation = new CompoundOperation(diagram());
 		for( DiagramElement element : pElements)
 		{
 			if( element instanceof Node node)
@@ -152,15 +154,15 @@ public abstract class DiagramBuilder
 			}
 			else if( element instanceof Edge edge)
 			{
-				/* We need to re-connect the edge to set the correct value for the
-				 * reference to the diagram, to cover the cases where elements might 
-				 * be added by being copied from one diagram and pasted into another.
+				/* We need to re-connect the edge before adding it, to cover the cases 
+				 * where elements might be added by being copied from one diagram and 
+				 * pasted into another. The diagram indexes the edge by its end points.
 				 */
 				operation.add(new SimpleOperation(
 						()-> 
 						{ 
-							aDiagramRenderer.diagram().addEdge(edge); 
 							edge.connect(edge.start(), edge.end());	
+							aDiagramRenderer.diagram().addEdge(edge); 
 						},
 						()-> aDiagramRenderer.diagram().removeEdge((Edge)element)));
 			}
@@ -203,24 +205,25 @@ public abstract class DiagramBuilder
 		}
 		if( pElement instanceof Node node)
 		{
-			List<Node> descendants = getNodeAndAllChildren(node);
-			for(Edge edge : aDiagramRenderer.diagram().edges())
+			Set<Edge> edges = new LinkedHashSet<>();
+			for( Node descendant : getNodeAndAllChildren(node) )
 			{
-				if(descendants.contains(edge.start() ) || descendants.contains(edge.end()))
+				aDiagramRenderer.diagram().edgesConnectedTo(descendant).forEach(edges::add);
+			}
+			for( Edge edge : edges )
+			{
+				result.add(edge);
+				// Special case that if we remove a note edge we must always 
+				// remove the point node as well.
+				if( edge instanceof NoteEdge )
 				{
-					result.add(edge);
-					// Special case that if we remove a note edge we must always 
-					// remove the point node as well.
-					if( edge instanceof NoteEdge )
+					if( edge.start() instanceof PointNode )
 					{
-						if( edge.start() instanceof PointNode )
-						{
-							result.add(edge.start());
-						}
-						if( edge.end() instanceof PointNode )
-						{
-							result.add(edge.end());
-						}
+						result.add(edge.start());
+					}
+					if( edge.end() instanceof PointNode )
+					{
+						result.add(edge.end());
 					}
 				}
 			}
@@ -287,6 +290,12 @@ public abstract class DiagramBuilder
 			}
 		}
 		Collections.sort(edges, (pEdge1, pEdge2) -> aDiagramRenderer.diagram().indexOf(pEdge2) - aDiagramRenderer.diagram().indexOf(pEdge1));
+		Map<Node, Integer> rootIndexes = new IdentityHashMap<>();
+		List<Node> rootNodes = aDiagramRenderer.diagram().rootNodes();
+		for( int i = 0; i < rootNodes.size(); i++ )
+		{
+			rootIndexes.put(rootNodes.get(i), i);
+		}
 		Collections.sort(nodes, new Comparator<Node>() 
 		{
 			@Override
@@ -300,8 +309,7 @@ public abstract class DiagramBuilder
 				}
 				else 
 				{
-					return aDiagramRenderer.diagram().rootNodes().indexOf(parent2) - 
-							aDiagramRenderer.diagram().rootNodes().indexOf(parent1);
+					return rootIndexes.getOrDefault(parent2, -1) - rootIndexes.getOrDefault(parent1, -1);
 				}
 			}
 		});
@@ -325,7 +333,7 @@ public abstract class DiagramBuilder
 		{
 			toDelete.addAll(getCoRemovals(element));
 		}
-		CompoundOperation result = new CompoundOperation();
+		CompoundOperation result = new CompoundOperation(diagram());
 		
 		for( DiagramElement element : tweakOrder(toDelete))
 		{
@@ -389,7 +397,7 @@ public abstract class DiagramBuilder
 		Node endNode = detectEndNode(pEdge, startNode, pEnd);   // Can be created as a result of the method call
 		Edge edge = obtainEdge(pEdge, pStart, pEnd);
 		
-		CompoundOperation addEdgeOperation = new CompoundOperation();
+		CompoundOperation addEdgeOperation = new CompoundOperation(diagram());
 		if(!diagram().allNodes().contains(endNode))
 		{
 			addEdgeOperation.add(new SimpleOperation(()-> aDiagramRenderer.diagram().addRootNode(endNode),
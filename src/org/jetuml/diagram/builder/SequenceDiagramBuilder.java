@@ -222,10 +222,8 @@ public class SequenceDiagramBuilder extends DiagramBuilder
 	
 	private Optional<Edge> getReturnEdge(Edge pEdge)
 	{
-		return renderer().diagram().edges().stream()
-			.filter(ReturnEdge.class::isInstance)
+		return renderer().diagram().edgesTo(pEdge.start(), ReturnEdge.class).stream()
 			.filter(edge -> edge.start() == pEdge.end())
-			.filter(edge -> edge.end() == pEdge.start())
 			.findFirst();
 	}
 	
@@ -240,14 +238,7 @@ public class SequenceDiagramBuilder extends DiagramBuilder
 		{
 			return false;
 		}
-		for( Edge edge : diagram().edges() )
-		{
-			if( edge.end() == pNode && edge.getClass() == ConstructorEdge.class )
-			{
-				return true;
-			}
-		}
-		return false;	
+		return !diagram().edgesTo(pNode, ConstructorEdge.class).isEmpty();
 	}
 	
 	/**
@@ -318,10 +309,8 @@ public class SequenceDiagramBuilder extends DiagramBuilder
 	private List<CallEdge> getCalls(Node pCaller)
 	{
 		assert pCaller != null;
-		return diagram().edges().stream()
-				.filter(CallEdge.class::isInstance)
+		return diagram().edgesFrom(pCaller, CallEdge.class).stream()
 				.map(CallEdge.class::cast)
-				.filter(edge -> edge.start() == pCaller)
 				.collect(toList());
 	}
 	
@@ -344,14 +333,7 @@ public class SequenceDiagramBuilder extends DiagramBuilder
 		{
 			return Optional.empty();	
 		}
-		for( Edge edge : diagram().edges() )
-		{
-			if( edge.end() == pNode && edge.getClass() == ConstructorEdge.class )
-			{
-				return Optional.of(edge);
-			}
-		}
-		return Optional.empty();	
+		return diagram().edgesTo(pNode, ConstructorEdge.class).stream().findFirst();
 	}
 
 	/**
@@ -381,13 +363,7 @@ public class SequenceDiagramBuilder extends DiagramBuilder
 				}
 				
 				// Add upstream edges of the child nodes
-				for( Edge edge: diagram().edges() )
-				{
-					if( edge.end() == child )
-					{
-						downstreamElements.add(edge);
-					}
-				}
+				downstreamElements.addAll(diagram().edgesTo(child, Edge.class));
 			}
 		}
 		else if( pEdge.getClass() == CallEdge.class )
@@ -36,8 +36,14 @@ public abstract class AbstractEdge extends AbstractDiagramElement implements Edg
 	public final void connect(Node pStart, Node pEnd)
 	{
 		assert pStart != null && pEnd != null;
+		Node previousStart = aStart;
+		Node previousEnd = aEnd;
 		aStart = pStart;
 		aEnd = pEnd;
+		if( previousStart != null && (previousStart != pStart || previousEnd != pEnd) )
+		{
+			notifyReconnected(previousStart, previousEnd);
+		}
 	}
 
 	@Override
@@ -20,6 +20,7 @@
  *******************************************************************************/
 package org.jetuml.diagram.edges;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.PropertyName;
 
 /**
@@ -66,12 +67,13 @@ public final class AggregationEdge extends ThreeLabelEdge
 	public void setType(Type pType)
 	{
 		aType = pType;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 	
 	@Override
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add(PropertyName.AGGREGATION_TYPE, () -> aType, pType -> aType = Type.valueOf((String) pType));
+		properties().add(PropertyName.AGGREGATION_TYPE, () -> aType, pType -> setType(Type.valueOf((String) pType)));
 	}
 }
@@ -20,6 +20,7 @@
  *******************************************************************************/
 package org.jetuml.diagram.edges;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.PropertyName;
 
 /**
@@ -42,6 +43,7 @@ public final class AssociationEdge extends ThreeLabelEdge
 	public void setDirectionality( Directionality pDirectionality )
 	{
 		aDirectionality = pDirectionality;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 	
 	/**
@@ -57,6 +59,6 @@ public final class AssociationEdge extends ThreeLabelEdge
 	{
 		super.buildProperties();
 		properties().add(PropertyName.DIRECTIONALITY, () -> aDirectionality, 
-				pDirectionality -> aDirectionality = Directionality.valueOf((String)pDirectionality ));
+				pDirectionality -> setDirectionality(Directionality.valueOf((String)pDirectionality )));
 	}
 }
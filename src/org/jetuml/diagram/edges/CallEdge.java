@@ -21,6 +21,7 @@
 
 package org.jetuml.diagram.edges;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.PropertyName;
 import org.jetuml.diagram.nodes.CallNode;
 
@@ -43,7 +44,7 @@ public class CallEdge extends SingleLabelEdge
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add(PropertyName.SIGNAL, () -> aSignal, pSignal -> aSignal = (boolean) pSignal);
+		properties().add(PropertyName.SIGNAL, () -> aSignal, pSignal -> setSignal((boolean) pSignal));
 	}
 	
 	/**
@@ -60,6 +61,7 @@ public class CallEdge extends SingleLabelEdge
 	public void setSignal(boolean pNewValue) 
 	{ 
 		aSignal = pNewValue; 
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 	
 	/**
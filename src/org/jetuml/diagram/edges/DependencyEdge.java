@@ -20,6 +20,7 @@
  *******************************************************************************/
 package org.jetuml.diagram.edges;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.PropertyName;
 
 /**
@@ -47,6 +48,7 @@ public final class DependencyEdge extends SingleLabelEdge
 	{
 		assert pDirectionality != null;
 		aDirectionality = pDirectionality;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 
 	/**
@@ -62,6 +64,6 @@ public final class DependencyEdge extends SingleLabelEdge
 	{
 		super.buildProperties();
 		properties().add(PropertyName.DIRECTIONALITY, () -> aDirectionality,
-				directionality -> aDirectionality = Directionality.valueOf((String) directionality));
+				directionality -> setDirectionality(Directionality.valueOf((String) directionality)));
 	}
 }
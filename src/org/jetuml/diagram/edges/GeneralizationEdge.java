@@ -20,6 +20,7 @@
  *******************************************************************************/
 package org.jetuml.diagram.edges;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.PropertyName;
 
 /**
@@ -67,12 +68,13 @@ public final class GeneralizationEdge extends AbstractEdge
 	public void setType(Type pType)
 	{
 		aType = pType;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 	
 	@Override
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add(PropertyName.GENERALIZATION_TYPE, () -> aType, pType -> aType = Type.valueOf((String) pType));
+		properties().add(PropertyName.GENERALIZATION_TYPE, () -> aType, pType -> setType(Type.valueOf((String) pType)));
 	}
 }
@@ -20,6 +20,7 @@
  *******************************************************************************/
 package org.jetuml.diagram.edges;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.PropertyName;
 
 /**
@@ -36,6 +37,7 @@ public abstract class SingleLabelEdge extends AbstractEdge
 	public void setMiddleLabel(String pNewValue)
 	{
 		aLabelText = pNewValue;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 
 	/**
@@ -51,6 +53,6 @@ public abstract class SingleLabelEdge extends AbstractEdge
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add(PropertyName.MIDDLE_LABEL, ()-> aLabelText, pLabel -> aLabelText = (String) pLabel );
+		properties().add(PropertyName.MIDDLE_LABEL, ()-> aLabelText, pLabel -> setMiddleLabel((String) pLabel) );
 	}
 }
@@ -20,6 +20,7 @@
  *******************************************************************************/
 package org.jetuml.diagram.edges;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.PropertyName;
 
 /**
@@ -36,6 +37,7 @@ public abstract class ThreeLabelEdge extends SingleLabelEdge
 	public void setStartLabel(String pLabel)
 	{
 		aStartLabel = pLabel;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 	
 	/**
@@ -44,6 +46,7 @@ public abstract class ThreeLabelEdge extends SingleLabelEdge
 	public void setEndLabel(String pLabel)
 	{
 		aEndLabel = pLabel;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 	
 	/**
@@ -66,7 +69,7 @@ public abstract class ThreeLabelEdge extends SingleLabelEdge
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().addAt(PropertyName.START_LABEL, ()-> aStartLabel, pLabel -> aStartLabel = (String) pLabel, 0);
-		properties().add(PropertyName.END_LABEL, ()-> aEndLabel, pLabel -> aEndLabel = (String) pLabel);
+		properties().addAt(PropertyName.START_LABEL, ()-> aStartLabel, pLabel -> setStartLabel((String) pLabel), 0);
+		properties().add(PropertyName.END_LABEL, ()-> aEndLabel, pLabel -> setEndLabel((String) pLabel));
 	}
 }
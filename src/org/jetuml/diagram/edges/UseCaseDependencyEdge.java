@@ -20,6 +20,7 @@
  *******************************************************************************/
 package org.jetuml.diagram.edges;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.PropertyName;
 
 /**
@@ -69,10 +70,20 @@ public final class UseCaseDependencyEdge extends AbstractEdge
 		return aType;
 	}
 	
+	/**
+	 * Sets the type of this dependency edge.
+	 * @param pType The desired type of dependency.
+	 */
+	public void setType(Type pType)
+	{
+		aType = pType;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
+	}
+	
 	@Override
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add(PropertyName.USE_CASE_DEPENDENCY_TYPE, () -> aType, pType -> aType = Type.valueOf((String)pType));
+		properties().add(PropertyName.USE_CASE_DEPENDENCY_TYPE, () -> aType, pType -> setType(Type.valueOf((String) pType)));
 	}
 }
@@ -23,8 +23,10 @@ package org.jetuml.diagram.nodes;
 import static java.util.Collections.emptyList;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jetuml.diagram.AbstractDiagramElement;
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.Node;
 import org.jetuml.geom.Point;
 
@@ -33,12 +35,17 @@ import org.jetuml.geom.Point;
  */
 public abstract class AbstractNode extends AbstractDiagramElement implements Node
 {
+	/* Numbers the changes to all nodes, so that no two changes result in the same version. */
+	private static final AtomicInteger CHANGES = new AtomicInteger();
+	
 	private Point aPosition = new Point(0, 0);
+	private int aVersion = CHANGES.incrementAndGet();
 	
 	@Override
 	public void translate(int pDeltaX, int pDeltaY)
 	{
 		aPosition = new Point( aPosition.x() + pDeltaX, aPosition.y() + pDeltaY );
+		recordChange(DiagramChange.MOVED);
 	}
 	
 	@Override
@@ -51,6 +58,36 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	public final void moveTo(Point pPoint)
 	{
 		aPosition = pPoint;
+		recordChange(DiagramChange.MOVED);
+	}
+	
+	@Override
+	public final int version()
+	{
+		return aVersion;
+	}
+	
+	/*
+	 * Also gives a new version to this node and to its ancestors, and notifies
+	 * the diagram through the root ancestor, which is the node it knows about.
+	 */
+	@Override
+	protected final void recordChange(DiagramChange pChange)
+	{
+		recordChange(pChange, this);
+	}
+	
+	private void recordChange(DiagramChange pChange, Node pNode)
+	{
+		aVersion = CHANGES.incrementAndGet();
+		if( hasParent() )
+		{
+			((AbstractNode) getParent()).recordChange(pChange, pNode);
+		}
+		else
+		{
+			notifyChange(pChange, pNode);
+		}
 	}
 
 	@Override
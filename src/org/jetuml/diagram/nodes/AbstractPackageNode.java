@@ -23,6 +23,7 @@ package org.jetuml.diagram.nodes;
 
 import java.util.Optional;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.Node;
 
 /**
@@ -45,12 +46,14 @@ public class AbstractPackageNode extends NamedNode
 	{
 		assert pNode instanceof PackageNode || pNode == null;
 		aContainer = Optional.of(pNode);
+		recordChange(DiagramChange.STRUCTURE_CHANGED);
 	}
 	
 	@Override
 	public void unlink()
 	{
 		assert hasParent();
+		recordChange(DiagramChange.STRUCTURE_CHANGED);
 		aContainer = Optional.empty();
 	}
 
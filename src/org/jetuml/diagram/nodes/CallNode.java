@@ -23,6 +23,7 @@ package org.jetuml.diagram.nodes;
 
 import java.util.Optional;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.Node;
 import org.jetuml.diagram.PropertyName;
 
@@ -53,6 +54,7 @@ public class CallNode extends AbstractNode
 	public void setOpenBottom(boolean pNewValue)
 	{ 
 		aOpenBottom = pNewValue; 
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 
 	@Override
@@ -66,7 +68,7 @@ public class CallNode extends AbstractNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add(PropertyName.OPEN_BOTTOM, () -> aOpenBottom, pOpen -> aOpenBottom = (boolean) pOpen);
+		properties().add(PropertyName.OPEN_BOTTOM, () -> aOpenBottom, pOpen -> setOpenBottom((boolean) pOpen));
 	}
 	
 	/**
@@ -92,12 +94,14 @@ public class CallNode extends AbstractNode
 		assert pNode != null;
 		assert pNode instanceof ImplicitParameterNode;
 		aImplicitParameter = Optional.of((ImplicitParameterNode) pNode);
+		recordChange(DiagramChange.STRUCTURE_CHANGED);
 	}
 	
 	@Override
 	public void unlink()
 	{
 		assert hasParent();
+		recordChange(DiagramChange.STRUCTURE_CHANGED);
 		aImplicitParameter = Optional.empty();
 	}
 
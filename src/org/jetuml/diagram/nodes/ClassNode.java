@@ -21,6 +21,7 @@
 
 package org.jetuml.diagram.nodes;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.PropertyName;
 
 /**
@@ -48,6 +49,7 @@ public final class ClassNode extends TypeNode
 	{
 		assert pNewValue != null;
 		aAttributes = pNewValue;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 
 	/**
@@ -64,6 +66,6 @@ public final class ClassNode extends TypeNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().addAt(PropertyName.ATTRIBUTES, () -> aAttributes, pAttributes -> aAttributes = (String)pAttributes, 1);
+		properties().addAt(PropertyName.ATTRIBUTES, () -> aAttributes, pAttributes -> setAttributes((String)pAttributes), 1);
 	}
 }
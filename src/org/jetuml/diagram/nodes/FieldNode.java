@@ -23,6 +23,7 @@ package org.jetuml.diagram.nodes;
 
 import java.util.Optional;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.Node;
 import org.jetuml.diagram.PropertyName;
 
@@ -49,6 +50,7 @@ public final class FieldNode extends NamedNode
 	public void setValue(String pNewValue)
 	{
 		aValue = pNewValue;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 
 	/**
@@ -72,12 +74,14 @@ public final class FieldNode extends NamedNode
 	{
 		assert pNode != null && pNode instanceof ObjectNode;
 		aObject = Optional.of((ObjectNode) pNode);		
+		recordChange(DiagramChange.STRUCTURE_CHANGED);
 	}
 	
 	@Override
 	public void unlink()
 	{
 		assert hasParent();
+		recordChange(DiagramChange.STRUCTURE_CHANGED);
 		aObject = Optional.empty();
 	}
 	
@@ -91,7 +95,7 @@ public final class FieldNode extends NamedNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add(PropertyName.VALUE, () -> aValue, pValue -> aValue = (String) pValue);
+		properties().add(PropertyName.VALUE, () -> aValue, pValue -> setValue((String) pValue));
 	}
 
 	@Override
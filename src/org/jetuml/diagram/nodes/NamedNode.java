@@ -21,6 +21,7 @@
 
 package org.jetuml.diagram.nodes;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.PropertyName;
 
 /**
@@ -37,6 +38,7 @@ public abstract class NamedNode extends AbstractNode
 	public void setName(String pName)
 	{
 		aName = pName;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 
 	/**
@@ -52,6 +54,6 @@ public abstract class NamedNode extends AbstractNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add(PropertyName.NAME, () -> aName, pName -> aName = (String)pName);
+		properties().add(PropertyName.NAME, () -> aName, pName -> setName((String)pName));
 	}
 }
@@ -21,6 +21,7 @@
 
 package org.jetuml.diagram.nodes;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.PropertyName;
 
 /**
@@ -39,6 +40,7 @@ public final class PackageDescriptionNode extends AbstractPackageNode
 	{
 		assert pContents != null;
 		aContents = pContents;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 	
 	/**
@@ -60,6 +62,6 @@ public final class PackageDescriptionNode extends AbstractPackageNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add(PropertyName.CONTENTS, () -> aContents, pContents -> aContents = (String)pContents);
+		properties().add(PropertyName.CONTENTS, () -> aContents, pContents -> setContents((String)pContents));
 	}
 }
@@ -23,6 +23,7 @@ package org.jetuml.diagram.nodes;
 
 import java.util.Optional;
 
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.Node;
 import org.jetuml.diagram.PropertyName;
 
@@ -44,6 +45,7 @@ public abstract class TypeNode extends NamedNode
 	{
 		assert pMethods != null;
 		aMethods = pMethods;
+		recordChange(DiagramChange.PROPERTY_CHANGED);
 	}
 	
 	/**
@@ -77,12 +79,14 @@ public abstract class TypeNode extends NamedNode
 	{
 		assert pNode instanceof PackageNode && pNode != null;
 		aContainer = Optional.of(pNode);
+		recordChange(DiagramChange.STRUCTURE_CHANGED);
 	}
 	
 	@Override
 	public void unlink()
 	{
 		assert hasParent();
+		recordChange(DiagramChange.STRUCTURE_CHANGED);
 		aContainer = Optional.empty();
 	}
 	
@@ -96,7 +100,7 @@ public abstract class TypeNode extends NamedNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add(PropertyName.METHODS, () -> aMethods, pMethods -> aMethods = (String)pMethods);
+		properties().add(PropertyName.METHODS, () -> aMethods, pMethods -> setMethods((String)pMethods));
 	}
 	
 	@Override
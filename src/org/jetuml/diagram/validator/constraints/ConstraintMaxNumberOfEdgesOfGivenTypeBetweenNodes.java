@@ -53,9 +53,9 @@ public final class ConstraintMaxNumberOfEdgesOfGivenTypeBetweenNodes implements
     {
         assert pEdge != null && pDiagram != null;
         int result = 0;
-        for( Edge edge : pDiagram.edges() )
+        for( Edge edge : pDiagram.edgesFrom(pEdge.start(), pEdge.getClass()) )
         {
-            if( edge.getClass() == pEdge.getClass() && edge.start() == pEdge.start() && edge.end() == pEdge.end() )
+            if( edge.getClass() == pEdge.getClass() && edge.end() == pEdge.end() )
             {
                 result++;
             }
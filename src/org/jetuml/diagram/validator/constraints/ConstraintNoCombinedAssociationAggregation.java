@@ -20,6 +20,8 @@
  *******************************************************************************/
 package org.jetuml.diagram.validator.constraints;
 
+import java.util.stream.Stream;
+
 import org.jetuml.diagram.Diagram;
 import org.jetuml.diagram.Edge;
 import org.jetuml.diagram.edges.AggregationEdge;
@@ -35,7 +37,10 @@ public final class ConstraintNoCombinedAssociationAggregation implements EdgeCon
     @Override
     public boolean satisfied(Edge pEdge, Diagram pDiagram)
     {
-        return pDiagram.edges().stream()
+        // All edges between the same nodes as pEdge, in any direction, either start or end at its start node
+        return Stream.concat(pDiagram.edgesFrom(pEdge.start(), Edge.class).stream(), 
+                        pDiagram.edgesTo(pEdge.start(), Edge.class).stream())
+                .distinct()
                 .filter(ConstraintNoCombinedAssociationAggregation::isAssociationOrAggregation)
                 .filter(edge -> isBetweenSameNodes(edge, pEdge))
                 .count() <= 1;
@@ -20,9 +20,6 @@ package org.jetuml.geom;
 import static java.lang.Math.acos;
 import static java.lang.Math.toDegrees;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.jetuml.annotations.Flyweight;
 import org.jetuml.annotations.Immutable;
 
@@ -37,7 +34,8 @@ import org.jetuml.annotations.Immutable;
 @Flyweight
 public final class Direction
 {
-	private static final Map<Integer, Direction> DIRECTIONS = new HashMap<>();
+	// All the directions are created up front, so that they can be shared by several threads.
+	private static final Direction[] DIRECTIONS = createDirections();
 	
 	// CSOFF: These need to be below the DIRECTION fields to avoid initialization errors
 	public static final Direction NORTH = fromAngle(0);
@@ -77,7 +75,17 @@ public final class Direction
 	public static Direction fromAngle(int pAngle)
 	{
 		assert pAngle >= 0 && pAngle < DEGREES_IN_CIRCLE;
-		return DIRECTIONS.computeIfAbsent(pAngle, Direction::new);
+		return DIRECTIONS[pAngle];
+	}
+	
+	private static Direction[] createDirections()
+	{
+		Direction[] directions = new Direction[DEGREES_IN_CIRCLE];
+		for( int angle = 0; angle < DEGREES_IN_CIRCLE; angle++ )
+		{
+			directions[angle] = new Direction(angle);
+		}
+		return directions;
 	}
 
 	/**
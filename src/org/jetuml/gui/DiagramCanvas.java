@@ -21,8 +21,13 @@
 package org.jetuml.gui;
 import static java.util.stream.Collectors.toList;
 
+import java.awt.image.RenderedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
@@ -56,38 +61,54 @@ import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
 import org.jetuml.rendering.AccessoriesRenderer;
+import org.jetuml.rendering.ExportPipeline;
 import org.jetuml.rendering.GraphicsRenderingContext;
+import org.jetuml.rendering.RasterExportSink;
 import org.jetuml.rendering.RenderingContext;
-import org.jetuml.rendering.SvgRenderingContext;
+import org.jetuml.rendering.SvgExportSink;
+import org.jetuml.rendering.TiledDiagramImage;
 
+import javafx.animation.AnimationTimer;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
 import javafx.scene.input.MouseEvent;
 
 /**
- * A canvas on which to view diagrams.
+ * A canvas on which to view diagrams. The canvas only shows the diagram. 
+ * It comes with a background layer, which shows the grid and must be placed 
+ * behind it, and an overlay layer, which shows the selection handles, the 
+ * rubberband and the lasso and must be placed in front of it. This way, 
+ * the grid is only painted when its preferences change, and the diagram does 
+ * not need to be painted again when only the selection tools change.
  */
 public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanPreferenceChangeHandler, IntegerPreferenceChangeHandler,
 StringPreferenceChangeHandler
 {	
-	private static final double LINE_WIDTH = 0.6;
 	/* The number of pixels to leave around a diagram when the canvas size
 	 * is automatically increased to accommodate a diagram larger than the 
 	 * preferred size. */
 	private static final int DIMENSION_BUFFER = 20;
 	private static final int GRID_SIZE = 10;
-	private static final int DIAGRAM_PADDING = 4;
 	private static final int CONNECT_THRESHOLD = 8;
+	/* The number of pixels added around damaged elements, because arrow heads 
+	 * and antialiasing are drawn slightly outside of their bounds. */
+	private static final int DAMAGE_MARGIN = 10;
+	/* The rendering context moves all coordinates by 0.5 pixels. Areas that are
+	 * cleared or clipped are moved back by this offset, so that they cover whole pixels, 
+	 * which clearRect requires to take effect within a clip. */
+	private static final double PIXEL_OFFSET = 0.5;
 	
 	private DiagramOperationProcessor aProcessor = new DiagramOperationProcessor();
 	private final DiagramBuilder aDiagramBuilder;
 	private final DiagramValidator aDiagramValidator;
 	private final DiagramTabToolBar aToolBar;
 	private MouseDraggedGestureHandler aHandler;
-	private final RenderingContext aRenderingContext;
-	private final AccessoriesRenderer aAccessoriesRenderer;
+	private final GraphicsRenderingContext aRenderingContext;
+	private final Canvas aBackgroundLayer = new Canvas();
+	private final Canvas aOverlayLayer = new Canvas();
+	private final RenderingContext aBackgroundContext;
+	private final AccessoriesRenderer aOverlayRenderer;
 	
 	private enum DragMode 
 	{ DRAG_NONE, DRAG_MOVE, DRAG_RUBBERBAND, DRAG_LASSO }
@@ -100,6 +121,28 @@ StringPreferenceChangeHandler
 	private List<DiagramElement> aSelected = new ArrayList<>();
 	private Optional<Line> aRubberband = Optional.empty();
 	private Optional<Rectangle> aLasso = Optional.empty();
+	/* The part of the canvas that can be seen, if known. */
+	private Optional<Rectangle> aVisibleRegion = Optional.empty();
+	/* The part of the canvas that needs to be painted again, if any. */
+	private Optional<Rectangle> aDamage = Optional.empty();
+	/* The modification count of the diagram when the entire panel was last painted, 
+	 * or -1 if it was never painted. */
+	private int aPaintedModificationCount = -1;
+	/* Whether the entire panel needs to be painted at the next pulse. */
+	private boolean aPanelRequested = false;
+	/* The edges moved since the last pulse, whose new area is only known once
+	 * the diagram is laid out. */
+	private final Set<Edge> aMovedEdges = Collections.newSetFromMap(new IdentityHashMap<>());
+	/* Paints the changes requested since the last pulse, so that bursts of events 
+	 * such as mouse drags cause at most one paint per frame. */
+	private final AnimationTimer aPainter = new AnimationTimer()
+	{
+		@Override
+		public void handle(long pNow)
+		{
+			paintRequested();
+		}
+	};
 	
 	/**
 	 * Constructs the canvas, assigns the diagram to it.
@@ -122,13 +165,40 @@ StringPreferenceChangeHandler
 		setHeight(dimension.height());
 		aDiagramBuilder.setCanvasDimension(new Dimension(width(), height()));
 		aRenderingContext = new GraphicsRenderingContext(getGraphicsContext2D());
-		aAccessoriesRenderer = new AccessoriesRenderer(aRenderingContext);
+		for( Canvas layer : List.of(aBackgroundLayer, aOverlayLayer) )
+		{
+			layer.setWidth(dimension.width());
+			layer.setHeight(dimension.height());
+			layer.setMouseTransparent(true);
+		}
+		aBackgroundContext = new GraphicsRenderingContext(aBackgroundLayer.getGraphicsContext2D());
+		aOverlayRenderer = new AccessoriesRenderer(new GraphicsRenderingContext(aOverlayLayer.getGraphicsContext2D()));
+		paintBackground();
 		aHandler = pHandler;
 		setOnMousePressed(this::mousePressed);
 		setOnMouseReleased(this::mouseReleased);
 		setOnMouseDragged(this::mouseDragged);
 	}
 	
+	/**
+	 * @return The layer that shows the background of the diagram, to be 
+	 *     placed behind this canvas. It has the same size as this canvas.
+	 */
+	public Canvas backgroundLayer()
+	{
+		return aBackgroundLayer;
+	}
+	
+	/**
+	 * @return The layer that shows the selection handles, the rubberband and
+	 *     the lasso, to be placed in front of this canvas. It has the same size 
+	 *     as this canvas and lets mouse events through.
+	 */
+	public Canvas overlayLayer()
+	{
+		return aOverlayLayer;
+	}
+	
 	private int width()
 	{
 		return (int) getWidth();
@@ -153,7 +223,8 @@ StringPreferenceChangeHandler
 				toBeRemoved.add(selected);
 			}
 		}
-		toBeRemoved.forEach( element -> removeFromSelection(element));            
+		// Removing elements from the diagram already requires painting the entire panel
+		aSelected.removeAll(toBeRemoved);
 	}
 	
 	/**
@@ -195,7 +266,6 @@ StringPreferenceChangeHandler
 		}
 		setSelectionTo(newElementList);
 		Clipboard.instance().copy(newElements);
-		paintPanel(); // TODO double-check if this is necessary since it's already called in setSelectionTo
 	}
 	
 	/**
@@ -222,7 +292,7 @@ StringPreferenceChangeHandler
 		if( edited.isPresent() )
 		{
 			PropertyEditorDialog dialog = new PropertyEditorDialog( ((EditorFrame) getScene().getRoot()).getDialogStage(), 
-					edited.get(), ()-> paintPanel());
+					edited.get(), ()-> repaintPanel());
 			
 			CompoundOperation operation = dialog.show();
 			if(!operation.isEmpty())
@@ -247,24 +317,237 @@ StringPreferenceChangeHandler
 	}
 	
 	/**
-	 * Paints the panel and all the graph elements in aDiagramView.
-	 * Called after the panel is resized.
+	 * Records the part of the canvas that can be seen, so that painting can skip 
+	 * the rest of the canvas, and requests a repaint of the panel if this part changed. 
+	 * 
+	 * @param pVisibleRegion The visible region, in the coordinates of the canvas. 
+	 *     It can extend beyond the canvas.
+	 * @pre pVisibleRegion != null
+	 */
+	public void setVisibleRegion(Rectangle pVisibleRegion)
+	{
+		assert pVisibleRegion != null;
+		if( !aVisibleRegion.equals(Optional.of(pVisibleRegion)) )
+		{
+			aVisibleRegion = Optional.of(pVisibleRegion);
+			repaintPanel();
+		}
+	}
+	
+	/*
+	 * The part of the canvas that can be seen, or the entire canvas if 
+	 * the visible region is not known.
+	 */
+	private Rectangle visibleArea()
+	{
+		Rectangle canvas = new Rectangle(0, 0, width(), height());
+		return aVisibleRegion.map(region -> intersection(region, canvas)).orElse(canvas);
+	}
+	
+	/*
+	 * The largest rectangle contained in both pFirst and pSecond, which 
+	 * has no area if they do not overlap.
+	 */
+	private static Rectangle intersection(Rectangle pFirst, Rectangle pSecond)
+	{
+		int x = Math.max(pFirst.x(), pSecond.x());
+		int y = Math.max(pFirst.y(), pSecond.y());
+		return new Rectangle(x, y, 
+				Math.max(Math.min(pFirst.maxX(), pSecond.maxX()) - x, 0), 
+				Math.max(Math.min(pFirst.maxY(), pSecond.maxY()) - y, 0));
+	}
+	
+	/*
+	 * Records that pArea, in addition to any area already damaged, 
+	 * needs to be painted again. Only the part of pArea near the visible area
+	 * is recorded, which keeps the coordinates of the damage within bounds 
+	 * when pArea covers the entire diagram. Any change to the visible area 
+	 * repaints the entire panel anyway.
+	 */
+	private void damage(Rectangle pArea)
+	{
+		Rectangle area = withMargin(intersection(pArea, withMargin(visibleArea())));
+		aDamage = Optional.of(aDamage.map(area::add).orElse(area));
+	}
+	
+	private static Rectangle withMargin(Rectangle pArea)
+	{
+		return new Rectangle(pArea.x() - DAMAGE_MARGIN, pArea.y() - DAMAGE_MARGIN, 
+				pArea.width() + 2 * DAMAGE_MARGIN, pArea.height() + 2 * DAMAGE_MARGIN);
+	}
+	
+	/*
+	 * Records that the area covered by pElement needs to be painted
+	 * again. Nothing is recorded if root nodes or edges were added or removed since
+	 * the entire panel was last painted, because this requires painting the entire 
+	 * panel again, and the geometry of new elements may not be known yet.
+	 */
+	private void damage(DiagramElement pElement)
+	{
+		if( !structureChanged() && diagram().contains(pElement) )
+		{
+			damage(aDiagramBuilder.renderer().getBounds(pElement));
+		}
+	}
+	
+	private boolean structureChanged()
+	{
+		return diagram().modificationCount() != aPaintedModificationCount;
+	}
+	
+	/*
+	 * Paints the damaged part of the canvas, if any, without drawing over 
+	 * the rest of the canvas. Paints the entire panel instead if root nodes or 
+	 * edges were added or removed since it was last painted.
+	 */
+	private void paintDamage()
+	{
+		if( structureChanged() )
+		{
+			paintPanel();
+			return;
+		}
+		if( aDamage.isEmpty() )
+		{
+			return;
+		}
+		Rectangle area = intersection(aDamage.get(), visibleArea());
+		aDamage = Optional.empty();
+		GraphicsContext context = getGraphicsContext2D();
+		context.save();
+		context.beginPath();
+		context.rect(area.x() - PIXEL_OFFSET, area.y() - PIXEL_OFFSET, area.width(), area.height());
+		context.clip();
+		paint(area);
+		context.restore();
+		aRenderingContext.resetState();
+	}
+	
+	/*
+	 * Requests that the entire panel be painted at the next pulse.
+	 */
+	private void repaintPanel()
+	{
+		aPanelRequested = true;
+		aPainter.start();
+	}
+	
+	/*
+	 * Requests that the damaged part of the canvas be painted at the next pulse.
+	 */
+	private void repaintDamage()
+	{
+		aPainter.start();
+	}
+	
+	/*
+	 * Requests that the overlay layer be painted at the next pulse.
+	 */
+	private void repaintOverlay()
+	{
+		aPainter.start();
+	}
+	
+	/*
+	 * Requests that the areas covered by pElements before and after a move be painted
+	 * at the next pulse, as well as the area where the layout of the diagram changes
+	 * as a result. 
+	 */
+	private void repaintMove(List<DiagramElement> pElements)
+	{
+		for( DiagramElement element : pElements )
+		{
+			if( element instanceof Edge edge )
+			{
+				aMovedEdges.add(edge);
+			}
+			else
+			{
+				damage(element);
+			}
+		}
+		aPainter.start();
+	}
+	
+	/*
+	 * Paints the changes requested since the last paint, if any, followed by the 
+	 * overlay layer. The area covered by moved edges and the area where the layout 
+	 * changed are only known once the diagram is laid out, so the layout is brought
+	 * up to date first and all the damage is painted in a single pass.
+	 */
+	private void paintRequested()
+	{
+		aPainter.stop();
+		if( aPanelRequested || structureChanged() )
+		{
+			paintPanel();
+			return;
+		}
+		if( aDamage.isPresent() || !aMovedEdges.isEmpty() )
+		{
+			aDiagramBuilder.renderer().updateLayout();
+			aMovedEdges.forEach(this::damage);
+			aMovedEdges.clear();
+			aDiagramBuilder.renderer().getLayoutChanges().ifPresent(this::damage);
+			paintDamage();
+		}
+		paintOverlay();
+	}
+	
+	/**
+	 * Paints the panel and all the graph elements in aDiagramView
+	 * that can be seen. Called after the panel is resized, and after 
+	 * changes to the diagram that can affect any part of it.
+	 * Unlike the changes made through the canvas, which are painted
+	 * once per pulse, the panel is painted immediately.
 	 */
 	public void paintPanel()
+	{
+		aPanelRequested = false;
+		aMovedEdges.clear();
+		aDamage = Optional.empty();
+		aPaintedModificationCount = diagram().modificationCount();
+		paint(visibleArea());
+		paintOverlay();
+	}
+	
+	/*
+	 * Paints the graph elements in pArea over a transparent background, 
+	 * so that the background layer shows through. Even when pArea is empty, 
+	 * the renderer brings the layout of the diagram up to date.
+	 */
+	private void paint(Rectangle pArea)
+	{
+		getGraphicsContext2D().clearRect(pArea.x() - PIXEL_OFFSET, pArea.y() - PIXEL_OFFSET, 
+				pArea.width(), pArea.height());
+		aDiagramBuilder.renderer().draw(aRenderingContext, pArea);
+	}
+	
+	/*
+	 * Paints the entire background layer.
+	 */
+	private void paintBackground()
 	{
 		Rectangle area = new Rectangle(0, 0, width(), height());
-		aRenderingContext.drawRectangle(area, ColorScheme.get().background(), 
+		aBackgroundContext.drawRectangle(area, ColorScheme.get().background(), 
 				ColorScheme.get().background(), Optional.empty());
 		if(UserPreferences.instance().getBoolean(BooleanPreference.showGrid)) 
 		{
-			aAccessoriesRenderer.drawGrid(area);
+			new AccessoriesRenderer(aBackgroundContext).drawGrid(area);
 		}
-		aDiagramBuilder.renderer().draw(aRenderingContext);
+	}
+	
+	/*
+	 * Paints the entire overlay layer, which only shows the selection tools.
+	 */
+	private void paintOverlay()
+	{
+		aOverlayLayer.getGraphicsContext2D().clearRect(-1, -1, width() + 2, height() + 2);
 		synchronizeSelectionModel();
 		drawHandlesOnSelectedEdges();
 		drawHandlesOnSelectedNodes();
-		aRubberband.ifPresent( rubberband -> aAccessoriesRenderer.drawRubberband(rubberband));
-		aLasso.ifPresent( lasso -> aAccessoriesRenderer.drawLasso(lasso));
+		aRubberband.ifPresent( rubberband -> aOverlayRenderer.drawRubberband(rubberband));
+		aLasso.ifPresent( lasso -> aOverlayRenderer.drawLasso(lasso));
 	}
 	
 	private void drawHandlesOnSelectedEdges()
@@ -272,7 +555,7 @@ StringPreferenceChangeHandler
 		aSelected.stream()
 		.filter(Edge.class::isInstance)
 		.map(Edge.class::cast)
-		.forEach(edge -> aAccessoriesRenderer.drawHandles(aDiagramBuilder.renderer().getConnectionPoints(edge)));
+		.forEach(edge -> aOverlayRenderer.drawHandles(aDiagramBuilder.renderer().getConnectionPoints(edge)));
 	}
 	
 	private void drawHandlesOnSelectedNodes()
@@ -280,7 +563,7 @@ StringPreferenceChangeHandler
 		aSelected.stream()
 		.filter(Node.class::isInstance)
 		.map(Node.class::cast)
-		.forEach(node -> aAccessoriesRenderer.drawHandles(aDiagramBuilder.renderer().getBounds(node)));
+		.forEach(node -> aOverlayRenderer.drawHandles(aDiagramBuilder.renderer().getBounds(node)));
 	}
 	
 	/**
@@ -293,7 +576,7 @@ StringPreferenceChangeHandler
 		if( aProcessor.canUndo() )
 		{
 			aProcessor.undoLastExecutedOperation();
-			paintPanel();
+			repaintPanel();
 		}
 	}
 	
@@ -307,14 +590,14 @@ StringPreferenceChangeHandler
 		if( aProcessor.canRedo() )
 		{
 			aProcessor.redoLastUndoneOperation();
-			paintPanel();
+			repaintPanel();
 		}
 	}
 	
 	@Override
 	public void selectionModelChanged()
 	{
-		paintPanel();		
+		repaintOverlay();
 	}
 	
 	/**
@@ -332,7 +615,7 @@ StringPreferenceChangeHandler
 	{
 		aProcessor.executeNewOperation(aDiagramBuilder.createRemoveElementsOperation(aSelected));
 		clearSelection();
-		paintPanel();
+		repaintPanel();
 	}
 	
 	/**
@@ -354,7 +637,7 @@ StringPreferenceChangeHandler
 		clearSelection();
 		aDiagramBuilder.diagram().rootNodes().forEach(this::internalAddToSelection);
 		aDiagramBuilder.diagram().edges().forEach(this::internalAddToSelection);
-		paintPanel();
+		repaintOverlay();
 	}
 	
 	/**
@@ -377,15 +660,20 @@ StringPreferenceChangeHandler
 		}
 		// Place the modified nodes on the top
 		selectedNodes.forEach(node -> diagram().placeOnTop(node));
-		paintPanel();
+		repaintPanel();
 	}
 
 	@Override
 	public void booleanPreferenceChanged(BooleanPreference pPreference)
 	{
-		if( pPreference == BooleanPreference.showGrid || pPreference == BooleanPreference.darkMode )
+		if( pPreference == BooleanPreference.showGrid )
 		{
-			paintPanel();
+			paintBackground();
+		}
+		else if( pPreference == BooleanPreference.darkMode )
+		{
+			paintBackground();
+			repaintPanel();
 		}
 	}
 	
@@ -394,7 +682,7 @@ StringPreferenceChangeHandler
 	{
 		if( pPreference == IntegerPreference.fontSize )
 		{
-			paintPanel();
+			repaintPanel();
 		}
 	}
 	
@@ -403,7 +691,7 @@ StringPreferenceChangeHandler
 	{
 		if( pPreference == StringPreference.fontName )
 		{
-			paintPanel();
+			repaintPanel();
 		}
 	}
 	
@@ -507,6 +795,7 @@ StringPreferenceChangeHandler
 			for(Node pSelected: selectedNodes()) 
 			{
 				diagram().placeOnTop(pSelected);
+				damage(pSelected);
 			}
 			aDragMode = DragMode.DRAG_MOVE;
 			aMoveTracker.start(aSelected);
@@ -578,7 +867,7 @@ StringPreferenceChangeHandler
 		{
 			setSelection(newNode);
 			diagram().placeOnTop(newNode);
-			paintPanel();
+			repaintPanel();
 			if( UserPreferences.instance().getBoolean(BooleanPreference.autoEditNode))
 			{
 				editSelected();
@@ -603,6 +892,8 @@ StringPreferenceChangeHandler
 
 	private void mousePressed(MouseEvent pEvent)
 	{
+		// Finding the elements under the mouse relies on the layout of the last paint
+		paintRequested();
 		if( pEvent.isSecondaryButtonDown() )
 		{
 			aToolBar.showPopup(pEvent.getScreenX(), pEvent.getScreenY());
@@ -618,7 +909,7 @@ StringPreferenceChangeHandler
 		Point point = getMousePoint(pEvent);
 		aLastMousePoint = new Point(point.x(), point.y()); 
 		aMouseDownPoint = aLastMousePoint;
-		paintPanel();
+		repaintDamage();
 	}
 
 	private void mouseReleased(MouseEvent pEvent)
@@ -675,11 +966,12 @@ StringPreferenceChangeHandler
 				dy += GRID_SIZE;
 			}
 			
+			List<DiagramElement> affected = elementsAffectedByMove();
 			for(Node selected : selectedNodes())
 			{
 				selected.translate(dx, dy);
 			}
-			paintPanel();
+			repaintMove(affected);
 		}
 	}
 	
@@ -700,7 +992,7 @@ StringPreferenceChangeHandler
 			else
 			{
 				setSelection(newEdge);
-				paintPanel();
+				repaintPanel();
 			}
 		}
 		deactivateRubberband();
@@ -713,7 +1005,7 @@ StringPreferenceChangeHandler
 		{
 			aProcessor.storeAlreadyExecutedOperation(operation);
 		}
-		paintPanel();
+		repaintDamage();
 	}
 
 	private void mouseDragged(MouseEvent pEvent)
@@ -754,6 +1046,7 @@ StringPreferenceChangeHandler
 		
 		int dx = pMousePoint.x() - aLastMousePoint.x();
 		int dy = pMousePoint.y() - aLastMousePoint.y();
+		List<DiagramElement> affected = elementsAffectedByMove();
 		
 		// Perform the move without painting it
 		selectedNodes().forEach(selected -> selected.translate(dx, dy));
@@ -767,7 +1060,38 @@ StringPreferenceChangeHandler
 		selectedNodes().forEach(selected -> selected.translate(dxCorrection, dyCorrection));
 		
 		aLastMousePoint = pMousePoint; 
-		paintPanel();
+		repaintMove(affected);
+	}
+	
+	/*
+	 * Returns the elements whose geometry can change when the selected nodes move, 
+	 * after damaging the area they cover before the move: the selected nodes, their 
+	 * ancestors, whose bounds depend on them, their descendants, which move with them,
+	 * and the edges attached to any of these nodes.
+	 */
+	private List<DiagramElement> elementsAffectedByMove()
+	{
+		Set<Node> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+		for( Node node : selectedNodes() )
+		{
+			for( Node ancestor = node; ancestor.hasParent(); ancestor = ancestor.getParent() )
+			{
+				nodes.add(ancestor.getParent());
+			}
+			addWithDescendants(node, nodes);
+		}
+		Set<Edge> edges = Collections.newSetFromMap(new IdentityHashMap<>());
+		nodes.forEach(node -> diagram().edgesConnectedTo(node).forEach(edges::add));
+		List<DiagramElement> result = new ArrayList<>(nodes);
+		result.addAll(edges);
+		result.forEach(this::damage);
+		return result;
+	}
+	
+	private static void addWithDescendants(Node pNode, Set<Node> pNodes)
+	{
+		pNodes.add(pNode);
+		pNode.getChildren().forEach(child -> addWithDescendants(child, pNodes));
 	}
 	
 	/**
@@ -776,30 +1100,42 @@ StringPreferenceChangeHandler
 	 */
 	public Image createImage()
 	{
-		Rectangle bounds = aDiagramBuilder.renderer().getBounds();
-		Canvas canvas = new Canvas(bounds.width() + DIAGRAM_PADDING * 2, 
-				bounds.height() + DIAGRAM_PADDING *2);
-		GraphicsContext context = canvas.getGraphicsContext2D();
-		context.setLineWidth(LINE_WIDTH);
-		context.setFill(ColorScheme.get().background());
-		context.fillRect(0, 0, width(), height());
-		context.translate(-bounds.x()+DIAGRAM_PADDING, -bounds.y()+DIAGRAM_PADDING);
-		aDiagramBuilder.renderer().draw(new GraphicsRenderingContext(context));
-		WritableImage image = new WritableImage(bounds.width() + DIAGRAM_PADDING * 2, 
-				bounds.height() + DIAGRAM_PADDING *2);
-		canvas.snapshot(null, image);
-		createSvgImage();
-		return image;
+		return new ExportPipeline(aDiagramBuilder.renderer())
+				.export(new RasterExportSink(ColorScheme.get().background()));
 	}
-
+	
+	/**
+	 * Creates an image of an entire diagram, with a border around, that is 
+	 * rendered in tiles as its pixels are read. This image is meant to be
+	 * written to a file on the JavaFX application thread.
+	 * 
+	 * @return An image of the diagram.
+	 */
+	public RenderedImage createTiledImage()
+	{
+		return new TiledDiagramImage(new ExportPipeline(aDiagramBuilder.renderer()), 
+				ColorScheme.get().background());
+	}
+	
 	/**
-	 * @return A string that contains an SVG description of the rendered diagram.
+	 * Writes an SVG description of the rendered diagram to pOutput, one element 
+	 * at a time, without building it in memory.
+	 * 
+	 * @param pOutput The destination of the SVG image.
+	 * @throws IOException If there is a problem writing to pOutput.
+	 * @pre pOutput != null
 	 */
-	public String createSvgImage()
+	public void writeSvgImage(Appendable pOutput) throws IOException
 	{
-		SvgRenderingContext context = new SvgRenderingContext(aDiagramBuilder.renderer().getBounds());
-		aDiagramBuilder.renderer().draw(context);
-		return context.create();
+		assert pOutput != null;
+		try
+		{
+			new ExportPipeline(aDiagramBuilder.renderer()).export(new SvgExportSink<>(pOutput));
+		}
+		catch(UncheckedIOException exception)
+		{
+			throw exception.getCause();
+		}
 	}
 	
 	/**
@@ -823,26 +1159,9 @@ StringPreferenceChangeHandler
 	private void activateLasso()
 	{
 		aLasso = Optional.of(computeLasso());
-		aDiagramBuilder.diagram().rootNodes().forEach( node -> selectNode(node, aLasso.get()));
-		aDiagramBuilder.diagram().edges().forEach( edge -> selectEdge(edge, aLasso.get()));
-		paintPanel();
-	}
-	
-	private void selectNode(Node pNode, Rectangle pLasso)
-	{
-		if(pLasso.contains(aDiagramBuilder.renderer().getBounds(pNode)))
-		{
-			internalAddToSelection(pNode);
-		}
-		pNode.getChildren().forEach(child -> selectNode(child, pLasso));
-	}
-	
-	private void selectEdge(Edge pEdge, Rectangle pLasso )
-	{
-		if(pLasso.contains(aDiagramBuilder.renderer().getBounds(pEdge)))
-		{
-			internalAddToSelection(pEdge);
-		}		
+		aDiagramBuilder.renderer().nodesWithin(aLasso.get()).forEach(this::internalAddToSelection);
+		aDiagramBuilder.renderer().edgesWithin(aLasso.get()).forEach(this::internalAddToSelection);
+		repaintOverlay();
 	}
 	
 	/**
@@ -851,7 +1170,7 @@ StringPreferenceChangeHandler
 	private void deactivateLasso()
 	{
 		aLasso = Optional.empty();
-		paintPanel();
+		repaintOverlay();
 	}
 	
 	/**
@@ -863,7 +1182,7 @@ StringPreferenceChangeHandler
 	{
 		assert pLine != null;
 		aRubberband = Optional.of(pLine);
-		paintPanel();
+		repaintOverlay();
 	}
 	
 	/**
@@ -872,7 +1191,7 @@ StringPreferenceChangeHandler
 	private void deactivateRubberband()
 	{
 		aRubberband = Optional.empty();
-		paintPanel();
+		repaintOverlay();
 	}
 	
 	/**
@@ -887,7 +1206,7 @@ StringPreferenceChangeHandler
 		assert pNewSelection != null;
 		clearSelection();
 		pNewSelection.forEach(this::internalAddToSelection);
-		paintPanel();
+		repaintOverlay();
 	}
 	
 	/**
@@ -904,7 +1223,7 @@ StringPreferenceChangeHandler
 	{
 		assert pElement != null;
 		internalAddToSelection(pElement);
-		paintPanel();
+		repaintOverlay();
 	}
 	
 	private void internalAddToSelection(DiagramElement pElement)
@@ -962,12 +1281,11 @@ StringPreferenceChangeHandler
 	}
 	
 	/**
-	 * Removes all selections and triggers a notification.
+	 * Removes all selections. The change is painted by the caller.
 	 */
 	private void clearSelection()
 	{
 		aSelected.clear();
-		paintPanel();
 	}
 	
 	/**
@@ -1005,7 +1323,7 @@ StringPreferenceChangeHandler
 	{
 		assert pElement != null;
 		aSelected.remove(pElement);
-		paintPanel();
+		repaintOverlay();
 	}
 	
 	/**
@@ -1017,8 +1335,8 @@ StringPreferenceChangeHandler
 	private void setSelection(DiagramElement pElement)
 	{
 		assert pElement != null;
-		aSelected.clear();
+		clearSelection();
 		aSelected.add(pElement);
-		paintPanel();
+		repaintOverlay();
 	}
 }
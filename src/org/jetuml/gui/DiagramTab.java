@@ -24,7 +24,9 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static org.jetuml.application.ApplicationResources.RESOURCES;
 
+import java.awt.image.RenderedImage;
 import java.io.File;
+import java.io.IOException;
 import java.util.Optional;
 
 import org.jetuml.application.UserPreferences;
@@ -80,10 +82,10 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		BorderPane layout = new BorderPane();
 		layout.setRight(sideBar);
 
-		// We put the diagram in a fixed-size StackPane for the sole purpose of being able to
-		// decorate it with CSS. The StackPane needs to have a fixed size so the border fits the 
-		// canvas and not the parent container.
-		StackPane pane = new StackPane(aDiagramCanvas);
+		// We put the layers of the diagram in a fixed-size StackPane, which stacks them and makes it
+		// possible to decorate them with CSS. The StackPane needs to have a fixed size so the border 
+		// fits the canvas and not the parent container.
+		StackPane pane = new StackPane(aDiagramCanvas.backgroundLayer(), aDiagramCanvas, aDiagramCanvas.overlayLayer());
 		final int buffer = 12; // (border insets + border width + 1)*2
 		pane.setMaxSize(aDiagramCanvas.getWidth() + buffer, aDiagramCanvas.getHeight() + buffer);
 		final String cssDefault = "-fx-border-color: grey; -fx-border-insets: 4;"
@@ -108,6 +110,13 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		scroll.setFitToHeight(true);
 		layout.setCenter(scroll);
 		
+		// Scrolling, zooming, and resizing the window change the part of the canvas
+		// that can be seen, which is the only part the canvas paints.
+		aDiagramCanvas.localToSceneTransformProperty().addListener((observable, oldValue, newValue) -> 
+				updateVisibleRegion(scroll));
+		scroll.layoutBoundsProperty().addListener((observable, oldValue, newValue) -> 
+				updateVisibleRegion(scroll));
+		
 		setTitle();
 		setContent(layout);
 		
@@ -325,6 +334,20 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		return (ScrollPane)((BorderPane)getContent()).getCenter();
 	}
 	
+	/*
+	 * Tells the canvas which part of it can be seen through pScrollPane. The bounds 
+	 * of the scroll pane, which include its scroll bars, are a conservative approximation
+	 * of its viewport that remains correct when the canvas is zoomed and centered.
+	 */
+	private void updateVisibleRegion(ScrollPane pScrollPane)
+	{
+		Bounds bounds = aDiagramCanvas.sceneToLocal(pScrollPane.localToScene(pScrollPane.getLayoutBounds()));
+		int x = (int) Math.floor(bounds.getMinX());
+		int y = (int) Math.floor(bounds.getMinY());
+		aDiagramCanvas.setVisibleRegion(new Rectangle(x, y, 
+				(int) Math.ceil(bounds.getMaxX()) - x, (int) Math.ceil(bounds.getMaxY()) - y));
+	}
+	
 	private ViewportProjection getViewportProjection()
 	{
 		ScrollPane scrollPane = (ScrollPane)((BorderPane)getContent()).getCenter();
@@ -392,10 +415,21 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 	}
 	
 	/**
-	 * @return An SVG representation of this canvas.
+	 * @return An image of this canvas that is rendered as it is written.
+	 */
+	public RenderedImage createTiledImage()
+	{
+		return aDiagramCanvas.createTiledImage();
+	}
+	
+	/**
+	 * Writes an SVG representation of this canvas to pOutput.
+	 * 
+	 * @param pOutput The destination of the SVG image.
+	 * @throws IOException If there is a problem writing to pOutput.
 	 */
-	public String createSvgImage()
+	public void writeSvgImage(Appendable pOutput) throws IOException
 	{
-		return aDiagramCanvas.createSvgImage();
+		aDiagramCanvas.writeSvgImage(pOutput);
 	}
 }	        
@@ -22,14 +22,13 @@ package org.jetuml.gui;
 
 import static org.jetuml.application.ApplicationResources.RESOURCES;
 
-import java.awt.Color;
-import java.awt.Graphics2D;
-import java.awt.Transparency;
-import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -54,7 +53,6 @@ import org.jetuml.gui.tips.TipDialog;
 import org.jetuml.persistence.DeserializationException;
 import org.jetuml.persistence.PersistenceService;
 
-import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonType;
@@ -590,31 +588,14 @@ public class EditorFrame extends BorderPane implements BooleanPreferenceChangeHa
 		{
 			if ("svg".equals(format))
 			{
-				out.write(frame.createSvgImage().getBytes(StandardCharsets.UTF_8));
+				Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+				frame.writeSvgImage(writer);
+				writer.flush();
 			}
 			else
 			{
-				BufferedImage image = getBufferedImage(frame); 
-				if("jpg".equals(format))	// to correct the display of JPEG/JPG images (removes red hue)
-				{
-					BufferedImage imageRGB = new BufferedImage(image.getWidth(), image.getHeight(), Transparency.OPAQUE);
-					Graphics2D graphics = imageRGB.createGraphics();
-					graphics.drawImage(image, 0,  0, null);
-					ImageIO.write(imageRGB, format, out);
-					graphics.dispose();
-				}
-				else if("bmp".equals(format))	// to correct the BufferedImage type
-				{
-					BufferedImage imageRGB = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
-					Graphics2D graphics = imageRGB.createGraphics();
-					graphics.drawImage(image, 0, 0, Color.WHITE, null);
-					ImageIO.write(imageRGB, format, out);
-					graphics.dispose();
-				}
-				else
-				{
-					ImageIO.write(image, format, out);
-				}
+				// The image is opaque, which JPEG and BMP require
+				ImageIO.write(frame.createTiledImage(), format, out);
 			}
 		} 
 		catch(IOException exception) 
@@ -653,11 +634,6 @@ public class EditorFrame extends BorderPane implements BooleanPreferenceChangeHa
 		return fileChooser;
 	}
 
-	private static BufferedImage getBufferedImage(DiagramTab pDiagramTab) 
-	{
-		return SwingFXUtils.fromFXImage(pDiagramTab.createImage(), null);
-	}
-	
 	private int getNumberOfUsavedDiagrams()
 	{
 		return (int) tabs().stream()
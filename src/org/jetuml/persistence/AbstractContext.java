@@ -20,6 +20,7 @@
  *******************************************************************************/
 package org.jetuml.persistence;
 
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -35,7 +36,9 @@ import org.jetuml.diagram.Node;
  */
 public abstract class AbstractContext implements Iterable<Node>
 {
-	protected final Map<Node, Integer> aNodes = new LinkedHashMap<>();
+	private final Map<Node, Integer> aNodes = new LinkedHashMap<>();
+	/* Reverse of aNodes, so that lookups by id do not require a scan of aNodes. */
+	private final Map<Integer, Node> aIds = new HashMap<>();
 	private final Diagram aDiagram;
 	
 	/**
@@ -58,6 +61,42 @@ public abstract class AbstractContext implements Iterable<Node>
 		return aDiagram;
 	}
 	
+	/**
+	 * Associates pNode with pId. If pNode was already associated with a 
+	 * different identifier, the previous identifier is discarded.
+	 * 
+	 * @param pNode The node to add.
+	 * @param pId The identifier to associate with pNode.
+	 * @pre pNode != null
+	 */
+	protected void add(Node pNode, int pId)
+	{
+		assert pNode != null;
+		Integer previous = aNodes.put(pNode, pId);
+		if( previous != null && previous != pId && aIds.get(previous) == pNode )
+		{
+			aIds.remove(previous);
+		}
+		aIds.put(pId, pNode);
+	}
+	
+	/**
+	 * @return The number of nodes in the context.
+	 */
+	protected int size()
+	{
+		return aNodes.size();
+	}
+	
+	/**
+	 * @param pId The identifier to search for.
+	 * @return The node associated with pId, or null if there is none.
+	 */
+	protected Node nodeFor(int pId)
+	{
+		return aIds.get(pId);
+	}
+	
 	/**
 	 * @param pNode The node to check.
 	 * @return The id for the node.
@@ -77,7 +116,7 @@ public abstract class AbstractContext implements Iterable<Node>
 	 */
 	public boolean idExists(int pId)
 	{
-		return aNodes.containsValue(pId);
+		return aIds.containsKey(pId);
 	}
 	
 	@Override
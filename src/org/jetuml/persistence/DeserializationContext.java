@@ -20,8 +20,6 @@
  *******************************************************************************/
 package org.jetuml.persistence;
 
-import java.util.Map;
-
 import org.jetuml.diagram.Diagram;
 import org.jetuml.diagram.Node;
 
@@ -54,7 +52,7 @@ public class DeserializationContext extends AbstractContext
 	public void addNode(Node pNode, int pId)
 	{
 		assert pNode != null;
-		aNodes.put(pNode, pId);
+		add(pNode, pId);
 	}
 	
 	/**
@@ -65,10 +63,6 @@ public class DeserializationContext extends AbstractContext
 	public Node getNode(int pId)
 	{
 		assert idExists(pId);
-		return aNodes.entrySet().stream()
-			.filter(entry -> entry.getValue() == pId)
-			.map(Map.Entry::getKey)
-			.findFirst()
-			.get();
+		return nodeFor(pId);
 	}
 }
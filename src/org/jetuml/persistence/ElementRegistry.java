@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.persistence;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.jetuml.diagram.DiagramElement;
+import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.Node;
+import org.jetuml.diagram.edges.AggregationEdge;
+import org.jetuml.diagram.edges.AssociationEdge;
+import org.jetuml.diagram.edges.CallEdge;
+import org.jetuml.diagram.edges.ConstructorEdge;
+import org.jetuml.diagram.edges.DependencyEdge;
+import org.jetuml.diagram.edges.GeneralizationEdge;
+import org.jetuml.diagram.edges.NoteEdge;
+import org.jetuml.diagram.edges.ObjectCollaborationEdge;
+import org.jetuml.diagram.edges.ObjectReferenceEdge;
+import org.jetuml.diagram.edges.ReturnEdge;
+import org.jetuml.diagram.edges.StateTransitionEdge;
+import org.jetuml.diagram.edges.UseCaseAssociationEdge;
+import org.jetuml.diagram.edges.UseCaseDependencyEdge;
+import org.jetuml.diagram.edges.UseCaseGeneralizationEdge;
+import org.jetuml.diagram.nodes.ActorNode;
+import org.jetuml.diagram.nodes.CallNode;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.diagram.nodes.FieldNode;
+import org.jetuml.diagram.nodes.FinalStateNode;
+import org.jetuml.diagram.nodes.ImplicitParameterNode;
+import org.jetuml.diagram.nodes.InitialStateNode;
+import org.jetuml.diagram.nodes.InterfaceNode;
+import org.jetuml.diagram.nodes.NoteNode;
+import org.jetuml.diagram.nodes.ObjectNode;
+import org.jetuml.diagram.nodes.PackageDescriptionNode;
+import org.jetuml.diagram.nodes.PackageNode;
+import org.jetuml.diagram.nodes.PointNode;
+import org.jetuml.diagram.nodes.StateNode;
+import org.jetuml.diagram.nodes.UseCaseNode;
+
+/**
+ * Creates new nodes and edges from the type name under which they
+ * are serialized, which is the simple name of their class. Using 
+ * an explicit table of constructors avoids having to load and 
+ * instantiate classes through reflection.
+ */
+final class ElementRegistry
+{
+	private static final Map<String, Supplier<Node>> NODES = createTable(List.of(
+			ActorNode::new,
+			CallNode::new,
+			ClassNode::new,
+			FieldNode::new,
+			FinalStateNode::new,
+			ImplicitParameterNode::new,
+			InitialStateNode::new,
+			InterfaceNode::new,
+			NoteNode::new,
+			ObjectNode::new,
+			PackageDescriptionNode::new,
+			PackageNode::new,
+			PointNode::new,
+			StateNode::new,
+			UseCaseNode::new));
+	
+	private static final Map<String, Supplier<Edge>> EDGES = createTable(List.of(
+			AggregationEdge::new,
+			AssociationEdge::new,
+			CallEdge::new,
+			ConstructorEdge::new,
+			DependencyEdge::new,
+			GeneralizationEdge::new,
+			NoteEdge::new,
+			ObjectCollaborationEdge::new,
+			ObjectReferenceEdge::new,
+			ReturnEdge::new,
+			StateTransitionEdge::new,
+			UseCaseAssociationEdge::new,
+			UseCaseDependencyEdge::new,
+			UseCaseGeneralizationEdge::new));
+	
+	private ElementRegistry() {}
+	
+	/*
+	 * The type names are obtained from instances rather than written as literals,
+	 * so that they are guaranteed to match the names written by JsonEncoder.
+	 */
+	private static <T extends DiagramElement> Map<String, Supplier<T>> createTable(List<Supplier<T>> pConstructors)
+	{
+		Map<String, Supplier<T>> table = new HashMap<>();
+		for( Supplier<T> constructor : pConstructors )
+		{
+			table.put(constructor.get().getClass().getSimpleName(), constructor);
+		}
+		return table;
+	}
+	
+	/**
+	 * @param pType The serialized type name of a node.
+	 * @return A new node of type pType, or empty if there is no such type of node.
+	 */
+	static Optional<Node> createNode(String pType)
+	{
+		return Optional.ofNullable(NODES.get(pType)).map(Supplier::get);
+	}
+	
+	/**
+	 * @param pType The serialized type name of an edge.
+	 * @return A new edge of type pType, or empty if there is no such type of edge.
+	 */
+	static Optional<Edge> createEdge(String pType)
+	{
+		return Optional.ofNullable(EDGES.get(pType)).map(Supplier::get);
+	}
+}
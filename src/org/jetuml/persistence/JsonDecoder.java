@@ -20,6 +20,11 @@
  *******************************************************************************/
 package org.jetuml.persistence;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.jetuml.application.Version;
 import org.jetuml.diagram.Diagram;
 import org.jetuml.diagram.DiagramType;
@@ -31,12 +36,19 @@ import org.jetuml.persistence.DeserializationException.Category;
 import org.jetuml.persistence.json.JsonArray;
 import org.jetuml.persistence.json.JsonException;
 import org.jetuml.persistence.json.JsonObject;
+import org.jetuml.persistence.json.JsonParsingException;
+import org.jetuml.persistence.json.JsonReader;
+import org.jetuml.persistence.json.JsonToken;
 
 /**
  * Converts a JSONObject to a diagram. Instances of this class are intended to be
  * used as a single-use wrapper around a JSON object that is to be decoded, as such
  * new JsonDecoder(pInputObject).decode()
  * 
+ * A decoder can also be created on a JsonReader, in which case the nodes and edges
+ * are created as they are read, without building the JsonObject for the
+ * entire diagram. Only the JSON object of an individual node or edge is built at a time.
+ * 
  * The version information stored in a diagram file is purposefully discarded 
  * as JetUML no longer migrates versions. Storing and handling version numbers
  * is deemed not to be worth the complexity. In very rare cases were an decoding
@@ -45,9 +57,6 @@ import org.jetuml.persistence.json.JsonObject;
  */
 public final class JsonDecoder
 {
-	private static final String PREFIX_NODES = "org.jetuml.diagram.nodes.";
-	private static final String PREFIX_EDGES = "org.jetuml.diagram.edges.";
-	
 	private static final String PROPERTY_DIAGRAM = "diagram";
 	private static final String PROPERTY_NODES = "nodes";
 	private static final String PROPERTY_EDGES = "edges";
@@ -61,9 +70,14 @@ public final class JsonDecoder
 	private static final String PROPERTY_END = "end";
 
 	/* 
-	 * The object that will be decoded.
+	 * The object that will be decoded, or null if decoding from aReader.
 	 */
 	private final JsonObject aInputObject;
+	
+	/*
+	 * The reader to decode from, or null if decoding aInputObject.
+	 */
+	private final JsonReader aReader;
 	private DeserializationContext aContext; // Wraps the diagram
 	
 	/**
@@ -74,16 +88,34 @@ public final class JsonDecoder
 	{
 		assert pInputObject != null;
 		aInputObject = pInputObject;
+		aReader = null;
+	}
+	
+	/**
+	 * @param pReader A reader positioned at the start of the JSON 
+	 * object that encodes the diagram.
+	 * @pre pReader != null;
+	 */
+	public JsonDecoder(JsonReader pReader) 
+	{
+		assert pReader != null;
+		aInputObject = null;
+		aReader = pReader;
 	}
 
 	/**
-	 * @param pDiagram A JSON object that encodes the diagram.
 	 * @return The decoded diagram.
 	 * @throws DeserializationException If it's not possible to decode the
 	 * object into a valid diagram.
+	 * @throws JsonParsingException If decoding from a reader and its input
+	 * is not valid JSON.
 	 */
 	public Diagram decode()
 	{
+		if( aReader != null )
+		{
+			return decodeFromReader();
+		}
 		extractVersion();
 		extractDiagram();
 		try
@@ -103,12 +135,19 @@ public final class JsonDecoder
 	}
 	
 	private void extractVersion()
+	{
+		checkVersion(extractString(PROPERTY_VERSION));
+	}
+	
+	/*
+	 * We make sure that the version number can be parse as an integrity check on the 
+	 * diagram file, but we do not store the information.
+	 */
+	private static void checkVersion(String pVersion)
 	{
 		try
 		{
-			// We make sure that the version number can be parse as an integrity check on the 
-			// diagram file, but we do not store the information.
-			Version.parse(extractString(PROPERTY_VERSION));
+			Version.parse(pVersion);
 		}
 		catch(IllegalArgumentException exception)
 		{
@@ -117,14 +156,19 @@ public final class JsonDecoder
 	}
 	
 	private void extractDiagram()
+	{
+		createContext(extractString(PROPERTY_DIAGRAM));
+	}
+	
+	private void createContext(String pDiagramName)
 	{
 		try
 		{
-			aContext = new DeserializationContext(new Diagram(DiagramType.fromName(extractString(PROPERTY_DIAGRAM))));
+			aContext = new DeserializationContext(new Diagram(DiagramType.fromName(pDiagramName)));
 		}
 		catch(IllegalArgumentException exception)
 		{
-			throw new DeserializationException(Category.STRUCTURAL, "Invalid diagram type: " + extractString(PROPERTY_DIAGRAM));
+			throw new DeserializationException(Category.STRUCTURAL, "Invalid diagram type: " + pDiagramName);
 		}
 	}
 	
@@ -141,10 +185,16 @@ public final class JsonDecoder
 		}
 		catch(JsonException exception)
 		{
-			throw new DeserializationException(Category.STRUCTURAL, String.format("Cannot obtain value of property '%s'", pPropertyName));
+			throw missingProperty(pPropertyName);
 		}
 	}
 	
+	private static DeserializationException missingProperty(String pPropertyName)
+	{
+		return new DeserializationException(Category.STRUCTURAL, 
+				String.format("Cannot obtain value of property '%s'", pPropertyName));
+	}
+	
 	/*
 	 * Extracts a JsonArray value for the given property name, and raises
 	 * a structural DeserializationException if the property is not found
@@ -158,7 +208,7 @@ public final class JsonDecoder
 		}
 		catch(JsonException exception)
 		{
-			throw new DeserializationException(Category.STRUCTURAL, String.format("Cannot obtain value of property '%s'", pPropertyName));
+			throw missingProperty(pPropertyName);
 		}
 	}
 	
@@ -173,22 +223,36 @@ public final class JsonDecoder
 		{
 			try
 			{
-				JsonObject object = nodes.getJsonObject(i);
-				Class<?> nodeClass = Class.forName(PREFIX_NODES + object.getString(PROPERTY_TYPE));
-				Node node = (Node) nodeClass.getDeclaredConstructor().newInstance();
-				node.moveTo(new Point(object.getInt(PROPERTY_X), object.getInt(PROPERTY_Y)));
-				for( Property property : node.properties() )
-				{
-					property.set(object.get(property.name().external()));
-				}
-				aContext.addNode(node, object.getInt(PROPERTY_ID));
+				decodeNode(nodes.getJsonObject(i));
 			}
-			catch(ReflectiveOperationException | JsonException exception)
+			catch(JsonException exception)
 			{
 				throw new DeserializationException(Category.STRUCTURAL, "Cannot instantiate serialized object", exception);
 			}
 		}
 	}
+	
+	/*
+	 * Creates the node encoded by pObject and adds it to the context.
+	 */
+	private void decodeNode(JsonObject pObject)
+	{
+		try
+		{
+			Node node = ElementRegistry.createNode(pObject.getString(PROPERTY_TYPE))
+					.orElseThrow(JsonDecoder::cannotInstantiate);
+			node.moveTo(new Point(pObject.getInt(PROPERTY_X), pObject.getInt(PROPERTY_Y)));
+			for( Property property : node.properties() )
+			{
+				property.set(pObject.get(property.name().external()));
+			}
+			aContext.addNode(node, pObject.getInt(PROPERTY_ID));
+		}
+		catch(JsonException exception)
+		{
+			throw new DeserializationException(Category.STRUCTURAL, "Cannot instantiate serialized object", exception);
+		}
+	}
 
 	/*
 	 * Discovers the root nodes and stores them in the diagram.
@@ -216,23 +280,31 @@ public final class JsonDecoder
 			JsonObject object = nodes.getJsonObject(i);
 			if( object.hasProperty(PROPERTY_CHILDREN) )
 			{
-				Node node = aContext.getNode(object.getInt(PROPERTY_ID));
-				JsonArray children = object.getJsonArray(PROPERTY_CHILDREN);
-				for( int j = 0; j < children.size(); j++ )
-				{
-					int childNodeId = children.getInt(j);
-					if( !aContext.idExists(childNodeId))
-					{
-						throw new DeserializationException(Category.STRUCTURAL, "Invalid node id found in children nodes");
-					}
-					Node childNode = aContext.getNode(childNodeId);
-					if( !node.allowsAsChild(childNode) )
-					{
-						throw new DeserializationException(Category.STRUCTURAL, "Invalid parent-child relation");
-					}
-					node.addChild(aContext.getNode(childNodeId));
-				}
+				restoreChildren(object);
+			}
+		}
+	}
+	
+	/*
+	 * Adds the children listed in pObject to the node it encodes. 
+	 */
+	private void restoreChildren(JsonObject pObject)
+	{
+		Node node = aContext.getNode(pObject.getInt(PROPERTY_ID));
+		JsonArray children = pObject.getJsonArray(PROPERTY_CHILDREN);
+		for( int j = 0; j < children.size(); j++ )
+		{
+			int childNodeId = children.getInt(j);
+			if( !aContext.idExists(childNodeId))
+			{
+				throw new DeserializationException(Category.STRUCTURAL, "Invalid node id found in children nodes");
 			}
+			Node childNode = aContext.getNode(childNodeId);
+			if( !node.allowsAsChild(childNode) )
+			{
+				throw new DeserializationException(Category.STRUCTURAL, "Invalid parent-child relation");
+			}
+			node.addChild(childNode);
 		}
 	}
 
@@ -245,29 +317,173 @@ public final class JsonDecoder
 		JsonArray edges = extractArray(PROPERTY_EDGES);
 		for( int i = 0; i < edges.size(); i++ )
 		{
-			try
+			decodeEdge(edges.getJsonObject(i));
+		}
+	}
+	
+	/*
+	 * Creates the edge encoded by pObject and adds it to the diagram. 
+	 * Assumes the context has been initialized with all the nodes.
+	 */
+	private void decodeEdge(JsonObject pObject)
+	{
+		Edge edge = ElementRegistry.createEdge(pObject.getString(PROPERTY_TYPE))
+				.orElseThrow(JsonDecoder::cannotInstantiate);
+		for( Property property : edge.properties() )
+		{
+			property.set(pObject.get(property.name().external()));
+		}
+		int startNodeId = pObject.getInt(PROPERTY_START);
+		int endNodeId = pObject.getInt(PROPERTY_END);
+		if( !aContext.idExists(startNodeId) || !aContext.idExists(endNodeId))
+		{
+			throw new DeserializationException(Category.STRUCTURAL, "At least one edge vertex cannot be found");
+		}
+		edge.connect(aContext.getNode(startNodeId), aContext.getNode(endNodeId));
+		aContext.diagram().addEdge(edge);
+	}
+	
+	private static DeserializationException cannotInstantiate()
+	{
+		return new DeserializationException(Category.STRUCTURAL, "Cannot instantiate serialized object");
+	}
+	
+	/*
+	 * Decodes the diagram from aReader. The top-level properties, and the properties
+	 * of each element, can appear in any order. Nodes are created as soon as the type
+	 * of diagram is known, and edges as soon as all nodes are created. Elements that
+	 * cannot be created yet are kept until they can. With the files written by 
+	 * JsonEncoder, this is only the case for nodes with children, whose children
+	 * are restored once all nodes are known.
+	 */
+	private Diagram decodeFromReader()
+	{
+		Set<String> properties = new HashSet<>();
+		List<JsonObject> pendingNodes = new ArrayList<>();
+		List<JsonObject> parentNodes = new ArrayList<>();
+		List<JsonObject> pendingEdges = new ArrayList<>();
+		try
+		{
+			aReader.beginObject();
+			while( aReader.hasNext() )
 			{
-				JsonObject object = edges.getJsonObject(i);
-				Class<?> edgeClass = Class.forName(PREFIX_EDGES + object.getString(PROPERTY_TYPE));
-				Edge edge = (Edge) edgeClass.getDeclaredConstructor().newInstance();
-
-				for( Property property : edge.properties() )
+				String property = aReader.nextName();
+				if( !properties.add(property) )
+				{
+					throw new JsonParsingException(aReader.position());
+				}
+				if( property.equals(PROPERTY_VERSION) )
+				{
+					checkVersion(readString(PROPERTY_VERSION));
+				}
+				else if( property.equals(PROPERTY_DIAGRAM) )
 				{
-					property.set(object.get(property.name().external()));
+					createContext(readString(PROPERTY_DIAGRAM));
+					pendingNodes.forEach(this::decodeNode);
+					pendingNodes.clear();
 				}
-				int startNodeId = object.getInt(PROPERTY_START);
-				int endNodeId = object.getInt(PROPERTY_END);
-				if( !aContext.idExists(startNodeId) || !aContext.idExists(endNodeId))
+				else if( property.equals(PROPERTY_NODES) )
 				{
-					throw new DeserializationException(Category.STRUCTURAL, "At least one edge vertex cannot be found");
+					beginArray(PROPERTY_NODES);
+					while( aReader.hasNext() )
+					{
+						JsonObject node = readElement();
+						if( aContext == null )
+						{
+							pendingNodes.add(node);
+						}
+						else
+						{
+							decodeNode(node);
+						}
+						if( node.hasProperty(PROPERTY_CHILDREN) )
+						{
+							parentNodes.add(node);
+						}
+					}
+					aReader.endArray();
+				}
+				else if( property.equals(PROPERTY_EDGES) )
+				{
+					beginArray(PROPERTY_EDGES);
+					while( aReader.hasNext() )
+					{
+						JsonObject edge = readElement();
+						if( aContext == null || !properties.contains(PROPERTY_NODES) )
+						{
+							pendingEdges.add(edge);
+						}
+						else
+						{
+							decodeEdge(edge);
+						}
+					}
+					aReader.endArray();
+				}
+				else
+				{
+					aReader.skipValue();
 				}
-				edge.connect(aContext.getNode(startNodeId), aContext.getNode(endNodeId));
-				aContext.diagram().addEdge(edge);
 			}
-			catch (ReflectiveOperationException exception)
+			aReader.endObject();
+			
+			for( String property : List.of(PROPERTY_VERSION, PROPERTY_DIAGRAM, PROPERTY_NODES, PROPERTY_EDGES))
 			{
-				throw new DeserializationException(Category.STRUCTURAL, "Cannot instantiate serialized object", exception);
+				if( !properties.contains(property) )
+				{
+					throw missingProperty(property);
+				}
 			}
+			parentNodes.forEach(this::restoreChildren);
+			restoreRootNodes();
+			pendingEdges.forEach(this::decodeEdge);
+			return aContext.diagram();
+		}
+		catch( JsonParsingException exception )
+		{
+			throw exception;
+		}
+		catch( JsonException exception )
+		{
+			throw new DeserializationException(Category.STRUCTURAL, exception.getMessage());
+		}
+	}
+	
+	/*
+	 * Reads a string value for the given property name, and raises
+	 * a structural DeserializationException if the value is not a string.
+	 */
+	private String readString(String pPropertyName)
+	{
+		if( aReader.peek() != JsonToken.STRING )
+		{
+			throw missingProperty(pPropertyName);
+		}
+		return aReader.nextString();
+	}
+	
+	/*
+	 * Starts reading the array value of the given property, and raises
+	 * a structural DeserializationException if the value is not an array.
+	 */
+	private void beginArray(String pPropertyName)
+	{
+		if( aReader.peek() != JsonToken.BEGIN_ARRAY )
+		{
+			throw missingProperty(pPropertyName);
+		}
+		aReader.beginArray();
+	}
+	
+	/*
+	 * Reads the JSON object that encodes a single node or edge. 
+	 */
+	private JsonObject readElement()
+	{
+		if( aReader.peek() != JsonToken.BEGIN_OBJECT )
+		{
+			throw cannotInstantiate();
 		}
+		return (JsonObject) aReader.nextValue();
 	}
 }
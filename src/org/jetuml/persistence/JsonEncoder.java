@@ -20,14 +20,17 @@
  *******************************************************************************/
 package org.jetuml.persistence;
 
+import java.io.StringWriter;
+
 import org.jetuml.JetUML;
 import org.jetuml.diagram.Diagram;
 import org.jetuml.diagram.Edge;
 import org.jetuml.diagram.Node;
 import org.jetuml.diagram.Properties;
 import org.jetuml.diagram.Property;
-import org.jetuml.persistence.json.JsonArray;
 import org.jetuml.persistence.json.JsonObject;
+import org.jetuml.persistence.json.JsonParser;
+import org.jetuml.persistence.json.JsonWriter;
 
 /**
  * Converts a graph to JSON notation. The notation includes:
@@ -35,6 +38,9 @@ import org.jetuml.persistence.json.JsonObject;
  * * The graph type
  * * An array of node encodings
  * * An array of edge encodings
+ * 
+ * The encoding is written directly to a JsonWriter, without building 
+ * the JSON object, which can also be obtained by parsing it.
  */
 public final class JsonEncoder
 {
@@ -42,86 +48,108 @@ public final class JsonEncoder
 	
 	/**
 	 * @param pDiagram The diagram to serialize.
-	 * @return A JSON object that encodes the diagram.
+	 * @return A JSON object that encodes the diagram, obtained by parsing
+	 *     the encoding written by encode(Diagram, JsonWriter).
+	 * @pre pDiagram != null
 	 */
 	public static JsonObject encode(Diagram pDiagram)
 	{
 		assert pDiagram != null;
 		
-		JsonObject object = new JsonObject();
-		object.put("version", JetUML.VERSION.toString());
-		object.put("diagram", pDiagram.getName());
-		SerializationContext context = new SerializationContext(pDiagram);
-		object.put("nodes", encodeNodes(context));
-		object.put("edges", encodeEdges(context));
-		return object;
+		StringWriter output = new StringWriter();
+		encode(pDiagram, new JsonWriter(output));
+		return JsonParser.parse(output.toString());
 	}
 	
-	private static JsonArray encodeNodes(SerializationContext pContext)
+	/**
+	 * Writes the encoding of pDiagram to pWriter.
+	 * 
+	 * @param pDiagram The diagram to serialize.
+	 * @param pWriter The writer to write the encoding to.
+	 * @pre pDiagram != null && pWriter != null
+	 */
+	public static void encode(Diagram pDiagram, JsonWriter pWriter)
 	{
-		JsonArray nodes = new JsonArray();
-		for( Node node : pContext ) 
+		assert pDiagram != null && pWriter != null;
+		
+		pWriter.beginObject();
+		pWriter.name("version");
+		pWriter.value(JetUML.VERSION.toString());
+		pWriter.name("diagram");
+		pWriter.value(pDiagram.getName());
+		SerializationContext context = new SerializationContext(pDiagram);
+		pWriter.name("nodes");
+		pWriter.beginArray();
+		for( Node node : context )
 		{
-			nodes.add(encodeNode(node, pContext));
+			writeNode(node, context, pWriter);
 		}
-		return nodes;
+		pWriter.endArray();
+		pWriter.name("edges");
+		pWriter.beginArray();
+		for( Edge edge : context.diagram().edges() )
+		{
+			writeEdge(edge, context, pWriter);
+		}
+		pWriter.endArray();
+		pWriter.endObject();
 	}
 	
-	private static JsonObject encodeNode(Node pNode, SerializationContext pContext)
+	private static void writeNode(Node pNode, SerializationContext pContext, JsonWriter pWriter)
 	{
-		JsonObject object = toJSONObject(pNode.properties());
-		object.put("id", pContext.getId(pNode));
-		object.put("type", pNode.getClass().getSimpleName());
-		object.put("x", pNode.position().x());
-		object.put("y", pNode.position().y());
+		pWriter.beginObject();
+		writeProperties(pNode.properties(), pWriter);
+		pWriter.name("id");
+		pWriter.value(pContext.getId(pNode));
+		pWriter.name("type");
+		pWriter.value(pNode.getClass().getSimpleName());
+		pWriter.name("x");
+		pWriter.value(pNode.position().x());
+		pWriter.name("y");
+		pWriter.value(pNode.position().y());
 		if( pNode.getChildren().size() > 0 )
 		{
-			object.put("children", encodeChildren(pNode, pContext));
+			pWriter.name("children");
+			pWriter.beginArray();
+			pNode.getChildren().forEach(child -> pWriter.value(pContext.getId(child)));
+			pWriter.endArray();
 		}
-		return object;
+		pWriter.endObject();
 	}
 	
-	private static JsonArray encodeChildren(Node pNode, SerializationContext pContext)
+	private static void writeEdge(Edge pEdge, SerializationContext pContext, JsonWriter pWriter)
 	{
-		JsonArray children = new JsonArray();
-		pNode.getChildren().forEach(child -> children.add(pContext.getId(child)));
-		return children;
-	}
-	
-	private static JsonArray encodeEdges(AbstractContext pContext)
-	{
-		JsonArray edges = new JsonArray();
-		for( Edge edge : pContext.diagram().edges() ) 
-		{
-			JsonObject object = toJSONObject(edge.properties());
-			object.put("type", edge.getClass().getSimpleName());
-			object.put("start", pContext.getId(edge.start()));
-			object.put("end", pContext.getId(edge.end()));
-			
-			edges.add(object);
-		}
-		return edges;
+		pWriter.beginObject();
+		writeProperties(pEdge.properties(), pWriter);
+		pWriter.name("type");
+		pWriter.value(pEdge.getClass().getSimpleName());
+		pWriter.name("start");
+		pWriter.value(pContext.getId(pEdge.start()));
+		pWriter.name("end");
+		pWriter.value(pContext.getId(pEdge.end()));
+		pWriter.endObject();
 	}
 	
-	private static JsonObject toJSONObject(Properties pProperties)
+	private static void writeProperties(Properties pProperties, JsonWriter pWriter)
 	{
-		JsonObject object = new JsonObject();
 		for( Property property : pProperties )
 		{
 			Object value = property.get();
 			if( value instanceof String || value instanceof Enum )
 			{
-				object.put(property.name().external(), value.toString());
+				pWriter.name(property.name().external());
+				pWriter.value(value.toString());
 			}
-			else if( value instanceof Integer)
+			else if( value instanceof Integer integer )
 			{
-				object.put(property.name().external(), value);
+				pWriter.name(property.name().external());
+				pWriter.value(integer.intValue());
 			}
-			else if( value instanceof Boolean)
+			else if( value instanceof Boolean bool )
 			{
-				object.put(property.name().external(), value);
+				pWriter.name(property.name().external());
+				pWriter.value(bool.booleanValue());
 			}
 		}
-		return object;
 	}
 }
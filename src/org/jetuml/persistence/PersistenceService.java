@@ -20,11 +20,10 @@
  *******************************************************************************/
 package org.jetuml.persistence;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.Optional;
@@ -35,7 +34,8 @@ import org.jetuml.diagram.validator.DiagramValidator;
 import org.jetuml.diagram.validator.Violation;
 import org.jetuml.persistence.DeserializationException.Category;
 import org.jetuml.persistence.json.JsonException;
-import org.jetuml.persistence.json.JsonParser;
+import org.jetuml.persistence.json.JsonReader;
+import org.jetuml.persistence.json.JsonWriter;
 
 /**
  * Services for saving and loading Diagram objects. The files are encoded
@@ -57,10 +57,14 @@ public final class PersistenceService
 	public static void save(Diagram pDiagram, File pFile) throws IOException
 	{
 		assert pDiagram != null && pFile != null;
-		try( PrintWriter out = new PrintWriter(
-				new OutputStreamWriter(new FileOutputStream(pFile), StandardCharsets.UTF_8)))
+		try( BufferedWriter out = Files.newBufferedWriter(pFile.toPath(), StandardCharsets.UTF_8) )
 		{
-			out.println(JsonEncoder.encode(pDiagram).toString());
+			JsonEncoder.encode(pDiagram, new JsonWriter(out));
+			out.newLine();
+		}
+		catch(UncheckedIOException exception)
+		{
+			throw exception.getCause();
 		}
 	}
 	
@@ -76,10 +80,9 @@ public final class PersistenceService
 	public static Diagram read(File pFile) throws IOException, DeserializationException
 	{
 		assert pFile != null;
-		try
+		try( JsonReader reader = new JsonReader(Files.newBufferedReader(pFile.toPath(), StandardCharsets.UTF_8)) )
 		{
-			String inputLine = Files.readString(pFile.toPath(), StandardCharsets.UTF_8);
-			Diagram diagram = new JsonDecoder(JsonParser.parse(inputLine)).decode();
+			Diagram diagram = new JsonDecoder(reader).decode();
 			DiagramValidator validator = DiagramType.newValidatorInstanceFor(diagram);
 			Optional<Violation> violation = validator.validate();
 			if( violation.isPresent() )
@@ -99,5 +102,9 @@ public final class PersistenceService
 		{
 			throw new DeserializationException(Category.SYNTACTIC, exception.getMessage());
 		}
+		catch(UncheckedIOException exception)
+		{
+			throw exception.getCause();
+		}
 	}
 }
@@ -0,0 +1,595 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.persistence.json;
+
+import static java.lang.Character.isISOControl;
+import static java.lang.Character.isWhitespace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Reads a JSON document one token at a time from a character stream,
+ * without building the JsonObject tree for the whole document. The input
+ * is read through a fixed-size character window that is reused, so the memory
+ * needed is independent of the size of the document. This reader supports the
+ * same subset of the ECMA-404 2nd edition (December 2017) standard as JsonParser.
+ *
+ * Errors in the JSON text are reported with a JsonParsingException that
+ * indicates the position of the last character read. Errors reading
+ * from the underlying stream are reported with an UncheckedIOException.
+ */
+public final class JsonReader implements Closeable
+{
+	private static final int WINDOW_SIZE = 8192;
+	private static final int NUMBER_OF_UNICODE_DIGITS = 4;
+	private static final int RADIX_HEXADECIMAL = 16;
+	private static final CharacterEscapes CHARACTER_ESCAPES = new CharacterEscapes();
+
+	private static final char CHAR_START_OBJECT = '{';
+	private static final char CHAR_END_OBJECT = '}';
+	private static final char CHAR_START_ARRAY = '[';
+	private static final char CHAR_END_ARRAY = ']';
+	private static final char CHAR_COMMA = ',';
+	private static final char CHAR_COLON = ':';
+	private static final char CHAR_QUOTE = '"';
+	private static final char CHAR_ESCAPE = '\\';
+	private static final char CHAR_UNICODE_ESCAPE = 'u';
+	private static final char CHAR_MINUS = '-';
+	private static final char CHAR_ZERO = '0';
+	private static final char CHAR_NINE = '9';
+	private static final String TRUE = Boolean.TRUE.toString();
+	private static final String FALSE = Boolean.FALSE.toString();
+
+	/*
+	 * The states of the scopes of the document being read.
+	 */
+	private static final int SCOPE_DOCUMENT_EMPTY = 0;
+	private static final int SCOPE_DOCUMENT_DONE = 1;
+	private static final int SCOPE_OBJECT_EMPTY = 2;
+	private static final int SCOPE_OBJECT_NAME = 3; // A name was read, but not its value
+	private static final int SCOPE_OBJECT_NONEMPTY = 4;
+	private static final int SCOPE_ARRAY_EMPTY = 5;
+	private static final int SCOPE_ARRAY_NONEMPTY = 6;
+
+	private final Reader aReader;
+	private final char[] aWindow = new char[WINDOW_SIZE];
+	private int aLimit = 0;  // Number of valid characters in the window
+	private int aIndex = 0;  // Index of the next character to read in the window
+	private int aOffset = 0; // Number of characters read before the start of the window
+	private final StringBuilder aBuilder = new StringBuilder();
+
+	private int[] aScopes = new int[32];
+	private int aDepth = 1; // aScopes[0] is SCOPE_DOCUMENT_EMPTY
+	private JsonToken aPeeked = null;
+
+	/**
+	 * Creates a reader for the JSON document in pReader. The
+	 * reader does its own buffering.
+	 *
+	 * @param pReader The source of the JSON text.
+	 * @pre pReader != null
+	 */
+	public JsonReader(Reader pReader)
+	{
+		assert pReader != null;
+		aReader = pReader;
+	}
+
+	/**
+	 * @return The position of the last character read, with the
+	 * same convention as for JsonParsingException.
+	 */
+	public int position()
+	{
+		return aOffset + aIndex - 1;
+	}
+
+	/**
+	 * @return The type of the next token, without consuming it.
+	 * @throws JsonParsingException if the next token is not valid JSON.
+	 */
+	public JsonToken peek()
+	{
+		if( aPeeked != null )
+		{
+			return aPeeked;
+		}
+		int scope = aScopes[aDepth - 1];
+		if( scope == SCOPE_DOCUMENT_DONE )
+		{
+			aPeeked = JsonToken.END_DOCUMENT;
+		}
+		else if( scope == SCOPE_DOCUMENT_EMPTY )
+		{
+			aScopes[aDepth - 1] = SCOPE_DOCUMENT_DONE;
+			aPeeked = peekValue();
+		}
+		else if( scope == SCOPE_OBJECT_EMPTY || scope == SCOPE_OBJECT_NONEMPTY )
+		{
+			aPeeked = peekName(scope == SCOPE_OBJECT_NONEMPTY);
+		}
+		else if( scope == SCOPE_OBJECT_NAME )
+		{
+			skipBlanks();
+			consume(CHAR_COLON);
+			aScopes[aDepth - 1] = SCOPE_OBJECT_NONEMPTY;
+			aPeeked = peekValue();
+		}
+		else
+		{
+			aPeeked = peekArrayElement(scope == SCOPE_ARRAY_NONEMPTY);
+		}
+		return aPeeked;
+	}
+
+	private JsonToken peekName(boolean pNonEmpty)
+	{
+		skipBlanks();
+		if( peekCharacter() == CHAR_END_OBJECT )
+		{
+			return JsonToken.END_OBJECT;
+		}
+		if( pNonEmpty )
+		{
+			consume(CHAR_COMMA);
+			skipBlanks();
+		}
+		if( peekCharacter() != CHAR_QUOTE )
+		{
+			throw new JsonParsingException(position() + 1);
+		}
+		aScopes[aDepth - 1] = SCOPE_OBJECT_NAME;
+		return JsonToken.NAME;
+	}
+
+	private JsonToken peekArrayElement(boolean pNonEmpty)
+	{
+		skipBlanks();
+		if( peekCharacter() == CHAR_END_ARRAY )
+		{
+			return JsonToken.END_ARRAY;
+		}
+		if( pNonEmpty )
+		{
+			consume(CHAR_COMMA);
+		}
+		aScopes[aDepth - 1] = SCOPE_ARRAY_NONEMPTY;
+		return peekValue();
+	}
+
+	/*
+	 * Determines the type of the value that starts at the next non-blank character.
+	 */
+	private JsonToken peekValue()
+	{
+		skipBlanks();
+		int next = peekCharacter();
+		if( next == CHAR_START_OBJECT )
+		{
+			return JsonToken.BEGIN_OBJECT;
+		}
+		else if( next == CHAR_START_ARRAY )
+		{
+			return JsonToken.BEGIN_ARRAY;
+		}
+		else if( next == CHAR_QUOTE )
+		{
+			return JsonToken.STRING;
+		}
+		else if( next == TRUE.charAt(0) || next == FALSE.charAt(0) )
+		{
+			return JsonToken.BOOLEAN;
+		}
+		else if( next == CHAR_MINUS || isDigit(next) )
+		{
+			return JsonToken.NUMBER;
+		}
+		throw new JsonParsingException(position() + 1);
+	}
+
+	/**
+	 * @return True if the current object or array has another element.
+	 */
+	public boolean hasNext()
+	{
+		JsonToken next = peek();
+		return next != JsonToken.END_OBJECT && next != JsonToken.END_ARRAY && next != JsonToken.END_DOCUMENT;
+	}
+
+	/**
+	 * Consumes the start of an object.
+	 *
+	 * @throws JsonParsingException if the next token is not the start of an object.
+	 */
+	public void beginObject()
+	{
+		expect(JsonToken.BEGIN_OBJECT);
+		consume(CHAR_START_OBJECT);
+		push(SCOPE_OBJECT_EMPTY);
+	}
+
+	/**
+	 * Consumes the end of the current object.
+	 *
+	 * @throws JsonParsingException if the next token is not the end of an object.
+	 */
+	public void endObject()
+	{
+		expect(JsonToken.END_OBJECT);
+		consume(CHAR_END_OBJECT);
+		aDepth--;
+	}
+
+	/**
+	 * Consumes the start of an array.
+	 *
+	 * @throws JsonParsingException if the next token is not the start of an array.
+	 */
+	public void beginArray()
+	{
+		expect(JsonToken.BEGIN_ARRAY);
+		consume(CHAR_START_ARRAY);
+		push(SCOPE_ARRAY_EMPTY);
+	}
+
+	/**
+	 * Consumes the end of the current array.
+	 *
+	 * @throws JsonParsingException if the next token is not the end of an array.
+	 */
+	public void endArray()
+	{
+		expect(JsonToken.END_ARRAY);
+		consume(CHAR_END_ARRAY);
+		aDepth--;
+	}
+
+	/**
+	 * @return The next property name.
+	 * @throws JsonParsingException if the next token is not a property name.
+	 */
+	public String nextName()
+	{
+		expect(JsonToken.NAME);
+		return readString();
+	}
+
+	/**
+	 * @return The next string value.
+	 * @throws JsonParsingException if the next token is not a string.
+	 */
+	public String nextString()
+	{
+		expect(JsonToken.STRING);
+		return readString();
+	}
+
+	/**
+	 * @return The next integer value.
+	 * @throws JsonParsingException if the next token is not a valid integer.
+	 */
+	public int nextInt()
+	{
+		expect(JsonToken.NUMBER);
+		aBuilder.setLength(0);
+		if( peekCharacter() == CHAR_MINUS )
+		{
+			aBuilder.append(nextCharacter());
+		}
+		while( isDigit(peekCharacter()) )
+		{
+			aBuilder.append(nextCharacter());
+		}
+		if( illegalNumber(aBuilder) )
+		{
+			throw new JsonParsingException(position());
+		}
+		try
+		{
+			return Integer.parseInt(aBuilder, 0, aBuilder.length(), 10);
+		}
+		catch(NumberFormatException exception)
+		{
+			throw new JsonParsingException(position());
+		}
+	}
+
+	/**
+	 * @return The next boolean value.
+	 * @throws JsonParsingException if the next token is not a valid boolean.
+	 */
+	public boolean nextBoolean()
+	{
+		expect(JsonToken.BOOLEAN);
+		String literal = peekCharacter() == TRUE.charAt(0) ? TRUE : FALSE;
+		for( int i = 0; i < literal.length(); i++ )
+		{
+			if( nextCharacter() != literal.charAt(i) )
+			{
+				throw new JsonParsingException(position());
+			}
+		}
+		return literal.equals(TRUE);
+	}
+
+	/**
+	 * Reads the next value. Values that are objects or arrays are
+	 * read completely into a JsonObject or JsonArray, so this method
+	 * should only be used for values known to be small.
+	 *
+	 * @return The next value, as a String, Integer, Boolean, JsonObject, or JsonArray.
+	 * @throws JsonParsingException if the next token is not the start of a valid value.
+	 */
+	public Object nextValue()
+	{
+		JsonToken next = peek();
+		if( next == JsonToken.STRING )
+		{
+			return nextString();
+		}
+		else if( next == JsonToken.NUMBER )
+		{
+			return nextInt();
+		}
+		else if( next == JsonToken.BOOLEAN )
+		{
+			return nextBoolean();
+		}
+		else if( next == JsonToken.BEGIN_ARRAY )
+		{
+			JsonArray array = new JsonArray();
+			beginArray();
+			while( hasNext() )
+			{
+				array.add(nextValue());
+			}
+			endArray();
+			return array;
+		}
+		else if( next == JsonToken.BEGIN_OBJECT )
+		{
+			JsonObject object = new JsonObject();
+			beginObject();
+			while( hasNext() )
+			{
+				String name = nextName();
+				if( object.hasProperty(name) )
+				{
+					throw new JsonParsingException(position());
+				}
+				object.put(name, nextValue());
+			}
+			endObject();
+			return object;
+		}
+		throw new JsonParsingException(position() + 1);
+	}
+
+	/**
+	 * Consumes the next value, including all its nested values,
+	 * without building any object.
+	 *
+	 * @throws JsonParsingException if the next token is not the start of a valid value.
+	 */
+	public void skipValue()
+	{
+		JsonToken next = peek();
+		if( next == JsonToken.BEGIN_ARRAY )
+		{
+			beginArray();
+			while( hasNext() )
+			{
+				skipValue();
+			}
+			endArray();
+		}
+		else if( next == JsonToken.BEGIN_OBJECT )
+		{
+			beginObject();
+			while( hasNext() )
+			{
+				nextName();
+				skipValue();
+			}
+			endObject();
+		}
+		else if( next == JsonToken.STRING || next == JsonToken.NUMBER || next == JsonToken.BOOLEAN )
+		{
+			nextValue();
+		}
+		else
+		{
+			throw new JsonParsingException(position() + 1);
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		aReader.close();
+	}
+
+	private void expect(JsonToken pToken)
+	{
+		if( peek() != pToken )
+		{
+			throw new JsonParsingException(position() + 1);
+		}
+		aPeeked = null;
+	}
+
+	private void push(int pScope)
+	{
+		if( aDepth == aScopes.length )
+		{
+			aScopes = Arrays.copyOf(aScopes, aDepth * 2);
+		}
+		aScopes[aDepth] = pScope;
+		aDepth++;
+	}
+
+	/*
+	 * Reads a string starting with the opening quote, and leaves the
+	 * position at the closing quote.
+	 */
+	private String readString()
+	{
+		consume(CHAR_QUOTE);
+		aBuilder.setLength(0);
+		while( true )
+		{
+			char next = nextCharacter();
+			if( next == CHAR_QUOTE )
+			{
+				return aBuilder.toString();
+			}
+			else if( isISOControl(next) )
+			{
+				throw new JsonParsingException(position());
+			}
+			else if( next == CHAR_ESCAPE )
+			{
+				aBuilder.append(readEscape());
+			}
+			else
+			{
+				aBuilder.append(next);
+			}
+		}
+	}
+
+	/*
+	 * Reads the part of an escape sequence that follows the escape character.
+	 */
+	private char readEscape()
+	{
+		char next = nextCharacter();
+		if( CHARACTER_ESCAPES.isSymbol(next) )
+		{
+			return CHARACTER_ESCAPES.getCodePoint(next);
+		}
+		else if( next == CHAR_UNICODE_ESCAPE )
+		{
+			int value = 0;
+			for( int i = 0; i < NUMBER_OF_UNICODE_DIGITS; i++ )
+			{
+				int digit = Character.digit(nextCharacter(), RADIX_HEXADECIMAL);
+				if( digit < 0 )
+				{
+					throw new JsonParsingException(position());
+				}
+				value = value * RADIX_HEXADECIMAL + digit;
+			}
+			return (char) value;
+		}
+		throw new JsonParsingException(position());
+	}
+
+	private static boolean isDigit(int pCharacter)
+	{
+		return pCharacter >= CHAR_ZERO && pCharacter <= CHAR_NINE;
+	}
+
+	/*
+	 * Same rules as JsonIntegerParser.
+	 */
+	private static boolean illegalNumber(CharSequence pNumber)
+	{
+		if( pNumber.length() == 0 )
+		{
+			return true;
+		}
+		if( pNumber.length() >= 2 && pNumber.charAt(0) == CHAR_MINUS && pNumber.charAt(1) == CHAR_ZERO )
+		{
+			return true;
+		}
+		return pNumber.length() >= 2 && pNumber.charAt(0) == CHAR_ZERO && isDigit(pNumber.charAt(1));
+	}
+
+	/*
+	 * Ensures there is at least one character to read in the window, reading more
+	 * from the input if necessary. Returns false if the end of the input is reached.
+	 */
+	private boolean fill()
+	{
+		if( aIndex < aLimit )
+		{
+			return true;
+		}
+		try
+		{
+			int read = 0;
+			while( read == 0 )
+			{
+				read = aReader.read(aWindow, 0, aWindow.length);
+			}
+			aOffset += aLimit;
+			aIndex = 0;
+			aLimit = Math.max(read, 0);
+			return read > 0;
+		}
+		catch(IOException exception)
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/*
+	 * Returns the next character without consuming it, or -1 if there are no more.
+	 */
+	private int peekCharacter()
+	{
+		if( !fill() )
+		{
+			return -1;
+		}
+		return aWindow[aIndex];
+	}
+
+	private char nextCharacter()
+	{
+		if( !fill() )
+		{
+			throw new JsonParsingException(position());
+		}
+		return aWindow[aIndex++];
+	}
+
+	private void consume(char pCharacter)
+	{
+		if( nextCharacter() != pCharacter )
+		{
+			throw new JsonParsingException(position());
+		}
+	}
+
+	private void skipBlanks()
+	{
+		while( fill() && isWhitespace(aWindow[aIndex]) )
+		{
+			aIndex++;
+		}
+	}
+}
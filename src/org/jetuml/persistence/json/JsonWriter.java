@@ -19,17 +19,49 @@
  *******************************************************************************/
 package org.jetuml.persistence.json;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
 /**
- * An object able to write a JSON value to its String representation.
+ * An object able to write JSON values. The static method write
+ * serializes a complete JSON value to its String representation.
+ * 
+ * Instances of this class instead write a JSON document as a sequence 
+ * of calls to beginObject, name, value, endObject, etc., directly to 
+ * an underlying Writer, without building the corresponding JSON values. 
+ * The memory used is proportional to the depth of the document, not 
+ * to its size. Calls that would produce invalid JSON raise a JsonException. 
+ * Errors writing to the underlying stream are reported with an 
+ * UncheckedIOException.
  */
-public final class JsonWriter
+public final class JsonWriter implements Closeable
 {
 	private static final Map<Class<?>, Function<Object, String>> WRITERS = new IdentityHashMap<>();
 	
+	private static final char CHAR_START_OBJECT = '{';
+	private static final char CHAR_END_OBJECT = '}';
+	private static final char CHAR_START_ARRAY = '[';
+	private static final char CHAR_END_ARRAY = ']';
+	private static final char CHAR_COMMA = ',';
+	private static final char CHAR_COLON = ':';
+	
+	/*
+	 * The states of the scopes of the document being written.
+	 */
+	private static final int SCOPE_DOCUMENT_EMPTY = 0;
+	private static final int SCOPE_DOCUMENT_DONE = 1;
+	private static final int SCOPE_OBJECT_EMPTY = 2;
+	private static final int SCOPE_OBJECT_NAME = 3; // A name was written, but not its value
+	private static final int SCOPE_OBJECT_NONEMPTY = 4;
+	private static final int SCOPE_ARRAY_EMPTY = 5;
+	private static final int SCOPE_ARRAY_NONEMPTY = 6;
+	
 	static
 	{
 		WRITERS.put(Boolean.class, Object::toString);
@@ -39,7 +71,23 @@ public final class JsonWriter
 		WRITERS.put(JsonArray.class, JsonArrayParser::writeJsonArray);
 	}
 	
-	private JsonWriter() {}
+	private final Writer aWriter;
+	private final StringBuilder aBuilder = new StringBuilder();
+	private int[] aScopes = new int[32];
+	private int aDepth = 1; // aScopes[0] is SCOPE_DOCUMENT_EMPTY
+	
+	/**
+	 * Creates a writer that writes a JSON document to pWriter. 
+	 * The writer does not do any buffering.
+	 * 
+	 * @param pWriter The destination of the JSON text.
+	 * @pre pWriter != null
+	 */
+	public JsonWriter(Writer pWriter)
+	{
+		assert pWriter != null;
+		aWriter = pWriter;
+	}
 	
 	/**
 	 * @param pJsonValue A value to serialize.
@@ -52,4 +100,207 @@ public final class JsonWriter
 		JsonValueValidator.validateType(pJsonValue);
 		return WRITERS.get(pJsonValue.getClass()).apply(pJsonValue);
 	}
+	
+	/**
+	 * Starts a new object.
+	 */
+	public void beginObject()
+	{
+		beforeValue();
+		push(SCOPE_OBJECT_EMPTY);
+		write(CHAR_START_OBJECT);
+	}
+	
+	/**
+	 * Ends the current object.
+	 */
+	public void endObject()
+	{
+		end(SCOPE_OBJECT_EMPTY, SCOPE_OBJECT_NONEMPTY, CHAR_END_OBJECT);
+	}
+	
+	/**
+	 * Starts a new array.
+	 */
+	public void beginArray()
+	{
+		beforeValue();
+		push(SCOPE_ARRAY_EMPTY);
+		write(CHAR_START_ARRAY);
+	}
+	
+	/**
+	 * Ends the current array.
+	 */
+	public void endArray()
+	{
+		end(SCOPE_ARRAY_EMPTY, SCOPE_ARRAY_NONEMPTY, CHAR_END_ARRAY);
+	}
+	
+	/**
+	 * Writes the name of the next property of the current object.
+	 * 
+	 * @param pName The name of the property.
+	 * @pre pName != null
+	 */
+	public void name(String pName)
+	{
+		assert pName != null;
+		int scope = aScopes[aDepth - 1];
+		if( scope == SCOPE_OBJECT_NONEMPTY )
+		{
+			write(CHAR_COMMA);
+		}
+		else if( scope != SCOPE_OBJECT_EMPTY )
+		{
+			throw new JsonException("Property name not expected");
+		}
+		aScopes[aDepth - 1] = SCOPE_OBJECT_NAME;
+		writeString(pName);
+		write(CHAR_COLON);
+	}
+	
+	/**
+	 * Writes a string value.
+	 * 
+	 * @param pValue The value to write.
+	 * @pre pValue != null
+	 */
+	public void value(String pValue)
+	{
+		assert pValue != null;
+		beforeValue();
+		writeString(pValue);
+	}
+	
+	/**
+	 * Writes an integer value.
+	 * 
+	 * @param pValue The value to write.
+	 */
+	public void value(int pValue)
+	{
+		beforeValue();
+		write(Integer.toString(pValue));
+	}
+	
+	/**
+	 * Writes a boolean value.
+	 * 
+	 * @param pValue The value to write.
+	 */
+	public void value(boolean pValue)
+	{
+		beforeValue();
+		write(Boolean.toString(pValue));
+	}
+	
+	/**
+	 * Flushes the underlying writer.
+	 */
+	public void flush()
+	{
+		try
+		{
+			aWriter.flush();
+		}
+		catch(IOException exception)
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+	
+	@Override
+	public void close() throws IOException
+	{
+		aWriter.close();
+	}
+	
+	/*
+	 * Updates the state of the current scope before a value is written,
+	 * and writes the separator with the previous value if necessary.
+	 */
+	private void beforeValue()
+	{
+		int scope = aScopes[aDepth - 1];
+		if( scope == SCOPE_DOCUMENT_EMPTY )
+		{
+			aScopes[aDepth - 1] = SCOPE_DOCUMENT_DONE;
+		}
+		else if( scope == SCOPE_OBJECT_NAME )
+		{
+			aScopes[aDepth - 1] = SCOPE_OBJECT_NONEMPTY;
+		}
+		else if( scope == SCOPE_ARRAY_EMPTY )
+		{
+			aScopes[aDepth - 1] = SCOPE_ARRAY_NONEMPTY;
+		}
+		else if( scope == SCOPE_ARRAY_NONEMPTY )
+		{
+			write(CHAR_COMMA);
+		}
+		else
+		{
+			throw new JsonException("Value not expected");
+		}
+	}
+	
+	private void end(int pEmptyScope, int pNonEmptyScope, char pCharacter)
+	{
+		int scope = aScopes[aDepth - 1];
+		if( scope != pEmptyScope && scope != pNonEmptyScope )
+		{
+			throw new JsonException("Nesting problem");
+		}
+		aDepth--;
+		write(pCharacter);
+	}
+	
+	private void push(int pScope)
+	{
+		if( aDepth == aScopes.length )
+		{
+			aScopes = Arrays.copyOf(aScopes, aDepth * 2);
+		}
+		aScopes[aDepth] = pScope;
+		aDepth++;
+	}
+	
+	private void writeString(String pString)
+	{
+		aBuilder.setLength(0);
+		JsonStringParser.appendJsonString(pString, aBuilder);
+		try
+		{
+			aWriter.append(aBuilder);
+		}
+		catch(IOException exception)
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+	
+	private void write(String pString)
+	{
+		try
+		{
+			aWriter.write(pString);
+		}
+		catch(IOException exception)
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+	
+	private void write(char pCharacter)
+	{
+		try
+		{
+			aWriter.write(pCharacter);
+		}
+		catch(IOException exception)
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
 }
@@ -17,11 +17,18 @@
  ******************************************************************************/
 package org.jetuml.rendering;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramChange;
+import org.jetuml.diagram.DiagramChangeHandler;
 import org.jetuml.diagram.DiagramElement;
 import org.jetuml.diagram.DiagramType;
 import org.jetuml.diagram.Edge;
@@ -44,18 +51,55 @@ import javafx.scene.canvas.Canvas;
 
 /**
  * Default implementation of the rendering operations.
+ * 
+ * To find the elements at a point or in an area without testing every element,
+ * the renderer keeps a spatial index of the root nodes and of the edges. The index
+ * is built on demand, and kept up to date through the change handlers of the diagram:
+ * the entries of the elements that changed, and of the edges connected to them, are
+ * updated before the next query. Elements are added or removed by rebuilding the index.
+ * Specialized renderers also report the elements whose geometry changes with the 
+ * layout of the diagram. Queries thus reflect the current position and properties
+ * of the elements, and the layout of the diagram as of the last rendering pass.
+ * While a batch of changes is in progress, the index is not used.
  */
-public abstract class AbstractDiagramRenderer implements DiagramRenderer
+public abstract class AbstractDiagramRenderer implements DiagramRenderer, DiagramChangeHandler
 {
+	/* Width and height, in pixels, of the cells of the spatial index. */
+	private static final int INDEX_CELL_SIZE = 100;
+	
+	/* Number of pixels added around the bounds of indexed elements, because points 
+	 * slightly outside the bounds of edges and point nodes can still hit them. */
+	private static final int HIT_MARGIN = 10;
+	
+	/* Number of pixels added around the visible region when culling elements, because
+	 * the bounds of some elements do not include all their decorations, such as arrow heads. */
+	private static final int CULLING_MARGIN = 10;
+	
+	/* An area that covers the entire diagram. */
+	protected static final Rectangle EVERYWHERE = 
+			new Rectangle(Integer.MIN_VALUE / 2, Integer.MIN_VALUE / 2, Integer.MAX_VALUE, Integer.MAX_VALUE);
+	
 	private final IdentityHashMap<Class<? extends DiagramElement>, DiagramElementRenderer> aRenderers = new IdentityHashMap<>();
 	private final Diagram aDiagram;
 	
+	/* Null when they need to be rebuilt. */
+	private SpatialIndex<Node> aNodeIndex;
+	private SpatialIndex<Edge> aEdgeIndex;
+	private int aIndexedFontVersion;
+	
+	/* The elements whose entries in the index must be updated before the next query. */
+	private final Set<DiagramElement> aChangedElements = Collections.newSetFromMap(new IdentityHashMap<>());
+	
 	/*
 	 * Add renderers for elements that are present in all diagrams. 
 	 */
 	protected AbstractDiagramRenderer(Diagram pDiagram)
 	{
 		aDiagram = pDiagram;
+		if( pDiagram != null )
+		{
+			pDiagram.addChangeHandler(this);
+		}
 		addElementRenderer(NoteNode.class, new NoteNodeRenderer(this));
 		addElementRenderer(PointNode.class, new PointNodeRenderer(this));
 		addElementRenderer(NoteEdge.class, new NoteEdgeRenderer(this));
@@ -81,29 +125,270 @@ public abstract class AbstractDiagramRenderer implements DiagramRenderer
 	}
 
 	/**
-	 * Activates all the NodeStorages of the NodeViewers present in the renderer.
+	 * Draws pNode and its descendants that satisfy pVisible. The descendants of
+	 * a node that is not visible are still considered, because they can extend 
+	 * outside the bounds of their parent.
+	 * 
+	 * @param pNode The node to draw.
+	 * @param pContext The rendering context where the node should be drawn.
+	 * @param pVisible The condition for drawing each node.
 	 */
-	protected void activateNodeStorages()
+	protected void drawNode(Node pNode, RenderingContext pContext, Predicate<DiagramElement> pVisible)
 	{
-		aRenderers.values().stream().filter(renderer -> NodeRenderer.class.isAssignableFrom(renderer.getClass()))
-				.map(NodeRenderer.class::cast).forEach(NodeRenderer::activateNodeStorage);
+		if( pVisible.test(pNode) )
+		{
+			draw(pNode, pContext);
+		}
+		pNode.getChildren().forEach(node -> drawNode(node, pContext, pVisible));
 	}
-
+	
 	/**
-	 * Deactivates and clears all the NodeStorages of the NodeViewers present in the renderer.
+	 * Discards the spatial index, so that the next query rebuilds it from 
+	 * the current geometry of the diagram. Renderers must call this method 
+	 * whenever their layout changes the bounds of most elements.
 	 */
-	protected void deactivateAndClearNodeStorages()
+	protected void invalidateIndex()
 	{
-		aRenderers.values().stream().filter(renderer -> NodeRenderer.class.isAssignableFrom(renderer.getClass()))
-				.map(NodeRenderer.class::cast).forEach(NodeRenderer::deactivateAndClearNodeStorage);
+		aNodeIndex = null;
+		aEdgeIndex = null;
+		aChangedElements.clear();
 	}
-
-	protected void drawNode(Node pNode, RenderingContext pContext)
+	
+	/**
+	 * Marks the entry of pElement in the spatial index as out of date, so that 
+	 * the next query updates it. Renderers must call this method whenever their 
+	 * layout changes the bounds of an element.
+	 * 
+	 * @param pElement The element whose bounds changed.
+	 * @pre pElement != null
+	 */
+	protected void invalidateIndex(DiagramElement pElement)
+	{
+		assert pElement != null;
+		if( aNodeIndex != null || aEdgeIndex != null )
+		{
+			aChangedElements.add(pElement);
+		}
+	}
+	
+	/**
+	 * Keeps the spatial index up to date. Renderers that keep other information
+	 * derived from the diagram can extend this method.
+	 */
+	@Override
+	public void diagramChanged(DiagramChange pChange, DiagramElement pElement)
+	{
+		if( pChange == DiagramChange.STRUCTURE_CHANGED )
+		{
+			invalidateIndex();
+		}
+		else
+		{
+			invalidateIndex(pElement);
+		}
+	}
+	
+	/**
+	 * Returns an area outside of which pElement cannot contain any point, or 
+	 * Optional.empty() if no such area can be computed, in which case the element
+	 * is tested for every query. By default, the bounds of the element with a margin.
+	 * 
+	 * @param pElement The element to obtain the area of.
+	 * @return The area that can contain points of pElement, if it is bounded.
+	 * @pre pElement != null
+	 */
+	protected Optional<Rectangle> hitBounds(DiagramElement pElement)
+	{
+		assert pElement != null;
+		Rectangle bounds = getBounds(pElement);
+		return Optional.of(new Rectangle(bounds.x() - HIT_MARGIN, bounds.y() - HIT_MARGIN, 
+				bounds.width() + 2 * HIT_MARGIN, bounds.height() + 2 * HIT_MARGIN));
+	}
+	
+	/*
+	 * The hit bounds of pNode and all its descendants, or empty if any of them
+	 * is unbounded.
+	 */
+	private Optional<Rectangle> subtreeHitBounds(Node pNode)
 	{
-		draw(pNode, pContext);
-		pNode.getChildren().forEach(node -> drawNode(node, pContext));
+		Optional<Rectangle> result = hitBounds(pNode);
+		for( Node child : pNode.getChildren() )
+		{
+			if( result.isEmpty() )
+			{
+				return result;
+			}
+			Optional<Rectangle> childBounds = subtreeHitBounds(child);
+			result = childBounds.isEmpty() ? childBounds : Optional.of(result.get().add(childBounds.get()));
+		}
+		return result;
 	}
 	
+	/*
+	 * Updates the entries of the changed elements in the indexes that are built. 
+	 * A change to a node can change the bounds of its root node and of the edges 
+	 * connected to any node in the tree of that root. As a precaution, the indexes 
+	 * are discarded if a changed element is no longer in the diagram.
+	 */
+	private void validateIndex()
+	{
+		if( aIndexedFontVersion != StringRenderer.fontVersion() )
+		{
+			invalidateIndex();
+			aIndexedFontVersion = StringRenderer.fontVersion();
+		}
+		if( aChangedElements.isEmpty() )
+		{
+			return;
+		}
+		Set<Node> changedRoots = Collections.newSetFromMap(new IdentityHashMap<>());
+		Set<Edge> changedEdges = Collections.newSetFromMap(new IdentityHashMap<>());
+		for( DiagramElement element : aChangedElements )
+		{
+			if( element instanceof Node node )
+			{
+				changedRoots.add(root(node));
+			}
+			else
+			{
+				changedEdges.add((Edge) element);
+			}
+		}
+		aChangedElements.clear();
+		if( !changedRoots.stream().allMatch(aDiagram::containsAsRoot) || 
+				!changedEdges.stream().allMatch(aDiagram::contains) )
+		{
+			invalidateIndex();
+			return;
+		}
+		if( aNodeIndex != null )
+		{
+			for( Node root : changedRoots )
+			{
+				subtreeHitBounds(root).ifPresentOrElse(bounds -> aNodeIndex.update(root, bounds), 
+						() -> aNodeIndex.updateUnbounded(root));
+			}
+		}
+		if( aEdgeIndex != null )
+		{
+			changedRoots.forEach(root -> collectConnectedEdges(root, changedEdges));
+			for( Edge edge : changedEdges )
+			{
+				hitBounds(edge).ifPresentOrElse(bounds -> aEdgeIndex.update(edge, bounds), 
+						() -> aEdgeIndex.updateUnbounded(edge));
+			}
+		}
+	}
+	
+	private SpatialIndex<Node> nodeIndex()
+	{
+		validateIndex();
+		if( aNodeIndex == null )
+		{
+			aNodeIndex = new SpatialIndex<>(INDEX_CELL_SIZE);
+			for( Node node : aDiagram.rootNodes() )
+			{
+				subtreeHitBounds(node).ifPresentOrElse(bounds -> aNodeIndex.add(node, bounds), 
+						() -> aNodeIndex.addUnbounded(node));
+			}
+		}
+		return aNodeIndex;
+	}
+	
+	private SpatialIndex<Edge> edgeIndex()
+	{
+		validateIndex();
+		if( aEdgeIndex == null )
+		{
+			aEdgeIndex = new SpatialIndex<>(INDEX_CELL_SIZE);
+			for( Edge edge : aDiagram.edges() )
+			{
+				hitBounds(edge).ifPresentOrElse(bounds -> aEdgeIndex.add(edge, bounds), 
+						() -> aEdgeIndex.addUnbounded(edge));
+			}
+		}
+		return aEdgeIndex;
+	}
+	
+	/**
+	 * @param pNode A node.
+	 * @return The node without parent among pNode and its ancestors.
+	 * @pre pNode != null
+	 */
+	protected static Node root(Node pNode)
+	{
+		assert pNode != null;
+		Node result = pNode;
+		while( result.hasParent() )
+		{
+			result = result.getParent();
+		}
+		return result;
+	}
+	
+	/**
+	 * Adds the edges connected to pNode or to one of its descendants to pResult.
+	 * 
+	 * @param pNode A node in the diagram.
+	 * @param pResult The set of edges to add to.
+	 * @pre pNode != null && pResult != null
+	 */
+	protected void collectConnectedEdges(Node pNode, Set<Edge> pResult)
+	{
+		assert pNode != null && pResult != null;
+		aDiagram.edgesConnectedTo(pNode).forEach(pResult::add);
+		pNode.getChildren().forEach(child -> collectConnectedEdges(child, pResult));
+	}
+	
+	/*
+	 * The root nodes whose hit bounds intersect pArea, in diagram order. All the root
+	 * nodes while a batch of changes is in progress, because the index can then be out of date.
+	 */
+	private List<Node> rootNodesIntersecting(Rectangle pArea)
+	{
+		if( aDiagram.isBatchingChanges() )
+		{
+			return aDiagram.rootNodes();
+		}
+		return nodeIndex().elementsIntersecting(pArea);
+	}
+	
+	private List<Node> rootNodesAt(Point pPoint)
+	{
+		if( aDiagram.isBatchingChanges() )
+		{
+			return aDiagram.rootNodes();
+		}
+		return nodeIndex().elementsAt(pPoint);
+	}
+	
+	private List<Edge> edgesIntersecting(Rectangle pArea)
+	{
+		if( aDiagram.isBatchingChanges() )
+		{
+			return aDiagram.edges();
+		}
+		return edgeIndex().elementsIntersecting(pArea);
+	}
+	
+	private List<Edge> edgesAt(Point pPoint)
+	{
+		if( aDiagram.isBatchingChanges() )
+		{
+			return aDiagram.edges();
+		}
+		return edgeIndex().elementsAt(pPoint);
+	}
+	
+	private void collectNodesWithin(Node pNode, Rectangle pArea, List<Node> pResult)
+	{
+		if( pArea.contains(getBounds(pNode)) )
+		{
+			pResult.add(pNode);
+		}
+		pNode.getChildren().forEach(child -> collectNodesWithin(child, pArea, pResult));
+	}
+
 	protected Optional<Node> deepFindNode(Node pNode, Point pPoint)
 	{
 		assert pNode != null && pPoint != null;
@@ -156,10 +441,37 @@ public abstract class AbstractDiagramRenderer implements DiagramRenderer
 	public void draw(RenderingContext pContext)
 	{
 		assert pContext != null;
-		activateNodeStorages();
-		aDiagram.rootNodes().forEach(node -> drawNode(node, pContext));
+		updateLayout();
+		aDiagram.rootNodes().forEach(node -> drawNode(node, pContext, element -> true));
 		aDiagram.edges().forEach(edge -> draw(edge, pContext));
-		deactivateAndClearNodeStorages();
+	}
+	
+	@Override
+	public void draw(RenderingContext pContext, Rectangle pVisibleRegion)
+	{
+		assert pContext != null && pVisibleRegion != null;
+		Rectangle region = new Rectangle(pVisibleRegion.x() - CULLING_MARGIN, pVisibleRegion.y() - CULLING_MARGIN,
+				pVisibleRegion.width() + 2 * CULLING_MARGIN, pVisibleRegion.height() + 2 * CULLING_MARGIN);
+		updateLayout();
+		Predicate<DiagramElement> visible = element -> getBounds(element).intersects(region);
+		rootNodesIntersecting(region).forEach(node -> drawNode(node, pContext, visible));
+		edgesIntersecting(region).stream().filter(visible).forEach(edge -> draw(edge, pContext));
+	}
+
+	/*
+	 * By default, the geometry of all elements follows from the position of the nodes.
+	 */
+	@Override
+	public void updateLayout()
+	{}
+	
+	/*
+	 * By default, the geometry of all elements follows from the position of the nodes.
+	 */
+	@Override
+	public Optional<Rectangle> getLayoutChanges()
+	{
+		return Optional.empty();
 	}
 
 	@Override
@@ -172,7 +484,7 @@ public abstract class AbstractDiagramRenderer implements DiagramRenderer
 	public Optional<Edge> edgeAt(Point pPoint)
 	{
 		assert pPoint != null;
-		return aDiagram.edges().stream()
+		return edgesAt(pPoint).stream()
 				.filter(edge -> contains(edge, pPoint))
 				.findFirst();
 	}
@@ -181,12 +493,30 @@ public abstract class AbstractDiagramRenderer implements DiagramRenderer
 	public Optional<Node> nodeAt(Point pPoint)
 	{
 		assert pPoint != null;
-		return aDiagram.rootNodes().stream()
+		return rootNodesAt(pPoint).stream()
 				.map(node -> deepFindNode(node, pPoint))
 				.filter(Optional::isPresent)
 				.map(Optional::get)
 				.reduce((first, second) -> second);
 	}
+	
+	@Override
+	public List<Node> nodesWithin(Rectangle pArea)
+	{
+		assert pArea != null;
+		List<Node> result = new ArrayList<>();
+		rootNodesIntersecting(pArea).forEach(node -> collectNodesWithin(node, pArea, result));
+		return result;
+	}
+	
+	@Override
+	public List<Edge> edgesWithin(Rectangle pArea)
+	{
+		assert pArea != null;
+		return edgesIntersecting(pArea).stream()
+				.filter(edge -> pArea.contains(getBounds(edge)))
+				.toList();
+	}
 
 	@Override
 	public boolean contains(DiagramElement pElement, Point pPoint)
@@ -53,21 +53,15 @@ public class AccessoriesRenderer
 	}
 	
 	/**
-     * Draws this grid inside a rectangle.
+     * Draws this grid inside a rectangle. The lines of the grid are aligned on 
+     * multiples of the grid size, so that the grid drawn in any part of the 
+     * canvas matches the grid drawn over the entire canvas.
      * @param pBounds the bounding rectangle
      */
 	public void drawGrid(Rectangle pBounds)
 	{
 		assert pBounds != null;
-		
-		for (int x = pBounds.x(); x < pBounds.maxX(); x += GRID_SIZE)
-		{
-			aContext.strokeLine(x, pBounds.y(), x, pBounds.maxY(), ColorScheme.get().grid(), LineStyle.SOLID);
-		}
-		for (int y = pBounds.y(); y < pBounds.maxY(); y += GRID_SIZE)
-		{
-			aContext.strokeLine(pBounds.x(), y, pBounds.maxX(), y, ColorScheme.get().grid(), LineStyle.SOLID);
-		}
+		aContext.drawGrid(pBounds, GRID_SIZE, ColorScheme.get().grid());
 	}
 	
 	/**
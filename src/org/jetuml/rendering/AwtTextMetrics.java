@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+
+import org.jetuml.geom.Dimension;
+import org.jetuml.geom.GeomUtils;
+
+/**
+ * Measures text with the metrics of the AWT font that has the same family, 
+ * style and size, so that diagrams can be laid out in a JVM without the 
+ * JavaFX toolkit. The dimensions can differ by a few pixels from the ones 
+ * of the text drawn on the canvas.
+ */
+public final class AwtTextMetrics implements TextMetrics
+{
+	private static final FontRenderContext FONT_RENDER_CONTEXT = new FontRenderContext(null, true, true);
+	
+	// The last font converted, because the same fonts are measured over and over. 
+	private FontDescription aFont;
+	private java.awt.Font aAwtFont;
+	
+	@Override
+	public Dimension getDimension(String pString, FontDescription pFont)
+	{
+		assert pString != null && pFont != null;
+		java.awt.Font font = awtFont(pFont);
+		String[] lines = pString.split("\n", -1);
+		double width = 0;
+		for( String line : lines )
+		{
+			width = Math.max(width, font.getStringBounds(line, FONT_RENDER_CONTEXT).getWidth());
+		}
+		double height = lines.length * lineMetrics(font).getHeight();
+		return new Dimension(GeomUtils.round(width), GeomUtils.round(height));
+	}
+	
+	@Override
+	public int getBaselineOffset(FontDescription pFont)
+	{
+		assert pFont != null;
+		return GeomUtils.round(lineMetrics(awtFont(pFont)).getAscent());
+	}
+	
+	private static LineMetrics lineMetrics(java.awt.Font pFont)
+	{
+		return pFont.getLineMetrics("|", FONT_RENDER_CONTEXT);
+	}
+	
+	private java.awt.Font awtFont(FontDescription pFont)
+	{
+		if( !pFont.equals(aFont) )
+		{
+			int awtStyle = java.awt.Font.PLAIN;
+			if( pFont.bold() )
+			{
+				awtStyle |= java.awt.Font.BOLD;
+			}
+			if( pFont.italic() )
+			{
+				awtStyle |= java.awt.Font.ITALIC;
+			}
+			aAwtFont = new java.awt.Font(pFont.family(), awtStyle, 1).deriveFont((float) pFont.size());
+			aFont = pFont;
+		}
+		return aAwtFont;
+	}
+}
@@ -23,14 +23,21 @@ package org.jetuml.rendering;
 import static java.util.stream.Collectors.toList;
 import static org.jetuml.rendering.EdgePriority.priorityOf;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramChange;
+import org.jetuml.diagram.DiagramElement;
 import org.jetuml.diagram.DiagramType;
 import org.jetuml.diagram.Edge;
 import org.jetuml.diagram.Node;
@@ -58,14 +65,39 @@ import org.jetuml.rendering.nodes.TypeNodeRenderer;
 
 /**
  * The renderer for class diagrams.
+ * 
+ * The paths of the edges are planned by a layout and kept in an EdgeStorage. 
+ * When the diagram is drawn, only the paths that the changes since the previous 
+ * layout can affect are planned again, in a way that gives the same paths as 
+ * a complete layout. The changes are reported by the change handlers of the diagram.
  */
 public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 {
 	private static final int TWENTY_PIXELS = 20;
 	private static final int TEN_PIXELS = 10;
 	
+	/* The passes of the layout, in the order in which they plan the paths of edges. */
+	private static final List<EdgePriority> PASSES = List.of(EdgePriority.INHERITANCE, 
+			EdgePriority.IMPLEMENTATION, EdgePriority.AGGREGATION, EdgePriority.COMPOSITION, 
+			EdgePriority.ASSOCIATION, EdgePriority.DEPENDENCY, EdgePriority.SELF_EDGE);
+	
 	private final EdgeStorage aEdgeStorage = new EdgeStorage();
 	
+	/* True once the edges in aEdgeStorage were laid out. */
+	private boolean aLaidOut = false;
+	
+	/* The edges planned by each pass of the last layout, in diagram order, and the 
+	 * version of the font preferences at that time. Null until the first layout. */
+	private Map<EdgePriority, List<Edge>> aLaidOutEdges = null;
+	private int aLaidOutFontVersion;
+	
+	/* The nodes and edges that changed since the last layout. */
+	private final Set<Node> aChangedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Set<Edge> aChangedEdges = Collections.newSetFromMap(new IdentityHashMap<>());
+	
+	/* The area where the last layout changed the paths of edges. */
+	private Optional<Rectangle> aLayoutChanges = Optional.empty();
+	
 	/**
 	 * @param pDiagram The diagram being rendered.
 	 */
@@ -85,19 +117,17 @@ public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 		addElementRenderer(AggregationEdge.class, storedEdgeViewer);
 	}
 
+	/*
+	 * Edges that have not been laid out yet cannot be bounded, but do not contain any point.
+	 */
 	@Override
-	public void draw(RenderingContext pContext)
+	protected Optional<Rectangle> hitBounds(DiagramElement pElement)
 	{
-		//draw and store nodes 
-		activateNodeStorages();
-		diagram().rootNodes().forEach(node -> drawNode(node, pContext));
-		
-		//plan edge paths using Layouter
-		layout();
-		
-		//draw edges using plan from EdgeStorage
-		diagram().edges().forEach(edge -> draw(edge, pContext));
-		deactivateAndClearNodeStorages();
+		if( pElement instanceof Edge edge && EdgePriority.isStoredEdge(edge) && !aEdgeStorage.contains(edge) )
+		{
+			return Optional.empty();
+		}
+		return super.hitBounds(pElement);
 	}
 	
 	@Override
@@ -106,7 +136,7 @@ public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 		// When getBounds(pDiagram) is called to open an existing class diagram
 		// file, aEdgeStorage is initially empty and needs to be filled to
 		// compute the diagram bounds.
-		if( aEdgeStorage.isEmpty() )
+		if( !aLaidOut )
 		{
 			layout();
 		}
@@ -130,6 +160,252 @@ public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 		layoutSegmentedEdges(EdgePriority.ASSOCIATION);
 		layoutDependencyEdges();
 		layoutSelfEdges();
+		aLaidOut = true;
+		aLaidOutEdges = edgesByPass();
+		aLaidOutFontVersion = StringRenderer.fontVersion();
+		aChangedNodes.clear();
+		aChangedEdges.clear();
+		aLayoutChanges = Optional.of(EVERYWHERE);
+		invalidateIndex();
+	}
+	
+	@Override
+	public Optional<Rectangle> getLayoutChanges()
+	{
+		return aLayoutChanges;
+	}
+	
+	/**
+	 * Plans again the EdgePaths that a complete layout would plan differently
+	 * because of the changes to the diagram since the last layout, and keeps the
+	 * other EdgePaths. The passes of the layout plan the edges in a fixed order, 
+	 * and each edge is planned from its nodes and from the EdgePaths planned before
+	 * it, so the result is the same as that of a complete layout. A pass is 
+	 * affected if one of its edges was added, removed or changed, or is connected
+	 * to a node in the tree of a node that changed. The affected passes are planned 
+	 * again from their first edge, except for the dependency and self-edge passes,
+	 * which plan edges one at a time and are planned again from their first affected
+	 * edge. All the following passes are planned again. When no EdgePath is kept, 
+	 * the layout is complete.
+	 */
+	@Override
+	public void updateLayout()
+	{
+		assert diagram().getType() == DiagramType.CLASS;
+		aLayoutChanges = Optional.empty();
+		if( aLaidOutEdges == null || aLaidOutFontVersion != StringRenderer.fontVersion() || 
+				diagram().isBatchingChanges() )
+		{
+			layout();
+			return;
+		}
+		if( aChangedNodes.isEmpty() && aChangedEdges.isEmpty() )
+		{
+			return;
+		}
+		Set<Edge> affectedEdges = affectedEdges();
+		aChangedNodes.clear();
+		aChangedEdges.clear();
+		Map<EdgePriority, List<Edge>> edges = edgesByPass();
+		int kept = 0;
+		for( EdgePriority pass : PASSES )
+		{
+			List<Edge> previous = aLaidOutEdges.get(pass);
+			List<Edge> current = edges.get(pass);
+			int unchanged = unchangedPrefix(previous, current, affectedEdges);
+			if( unchanged < previous.size() || unchanged < current.size() )
+			{
+				int first = EdgePriority.isSegmented(pass) ? 0 : unchanged;
+				if( kept + first == 0 )
+				{
+					layout();
+				}
+				else
+				{
+					layoutFrom(edges, pass, first, kept + first);
+				}
+				return;
+			}
+			kept += previous.size();
+		}
+		aLaidOutEdges = edges;
+	}
+	
+	/*
+	 * Plans again the EdgePaths of the edges in pEdges from position pFirst of pass
+	 * pPass onwards, after removing the EdgePaths planned from that position by the
+	 * last layout. The pKept EdgePaths planned before that position are kept. When
+	 * most EdgePaths are planned again, the layout changes are reported everywhere, 
+	 * as for a complete layout, instead of computing the bounds of all these edges.
+	 */
+	private void layoutFrom(Map<EdgePriority, List<Edge>> pEdges, EdgePriority pPass, int pFirst, int pKept)
+	{
+		List<Edge> previous = edgesFrom(aLaidOutEdges, pPass, pFirst);
+		List<Edge> current = edgesFrom(pEdges, pPass, pFirst);
+		boolean mostEdges = previous.size() > pKept;
+		Optional<Rectangle> previousArea = mostEdges ? Optional.empty() : boundsOf(previous);
+		if( mostEdges )
+		{
+			keepOnly(edgesBefore(aLaidOutEdges, pPass, pFirst));
+		}
+		else
+		{
+			previous.forEach(aEdgeStorage::remove);
+		}
+		for( EdgePriority pass : PASSES.subList(PASSES.indexOf(pPass), PASSES.size()) )
+		{
+			List<Edge> edges = pEdges.get(pass);
+			layoutPass(pass, pass == pPass ? edges.subList(pFirst, edges.size()) : edges);
+		}
+		aLaidOutEdges = pEdges;
+		if( mostEdges )
+		{
+			aLayoutChanges = Optional.of(EVERYWHERE);
+			invalidateIndex();
+			return;
+		}
+		current.forEach(this::invalidateIndex);
+		Optional<Rectangle> currentArea = boundsOf(current);
+		aLayoutChanges = previousArea.map(area -> currentArea.map(area::add).orElse(area)).or(() -> currentArea);
+	}
+	
+	private void layoutPass(EdgePriority pPass, List<Edge> pEdges)
+	{
+		if( EdgePriority.isSegmented(pPass) )
+		{
+			layoutSegmentedEdges(pPass, pEdges);
+		}
+		else if( pPass == EdgePriority.DEPENDENCY )
+		{
+			layoutDependencyEdges(pEdges);
+		}
+		else
+		{
+			layoutSelfEdges(pEdges);
+		}
+	}
+	
+	/*
+	 * The edges of pEdges from position pFirst of pass pPass onwards, in planning order.
+	 */
+	private static List<Edge> edgesFrom(Map<EdgePriority, List<Edge>> pEdges, EdgePriority pPass, int pFirst)
+	{
+		List<Edge> result = new ArrayList<>();
+		for( EdgePriority pass : PASSES.subList(PASSES.indexOf(pPass), PASSES.size()) )
+		{
+			List<Edge> edges = pEdges.get(pass);
+			result.addAll(pass == pPass ? edges.subList(pFirst, edges.size()) : edges);
+		}
+		return result;
+	}
+	
+	/*
+	 * The edges of pEdges before position pFirst of pass pPass, in planning order.
+	 */
+	private static List<Edge> edgesBefore(Map<EdgePriority, List<Edge>> pEdges, EdgePriority pPass, int pFirst)
+	{
+		List<Edge> result = new ArrayList<>();
+		for( EdgePriority pass : PASSES.subList(0, PASSES.indexOf(pPass)) )
+		{
+			result.addAll(pEdges.get(pass));
+		}
+		result.addAll(pEdges.get(pPass).subList(0, pFirst));
+		return result;
+	}
+	
+	/*
+	 * Keeps only the EdgePaths of pKept in storage. Removing EdgePaths one at a time 
+	 * is slow when there are many of them, so the storage is instead cleared and the
+	 * EdgePaths of pKept are stored again, in the planning order in which they were
+	 * first stored, which gives the same storage.
+	 */
+	private void keepOnly(List<Edge> pKept)
+	{
+		List<EdgePath> paths = pKept.stream().map(aEdgeStorage::getEdgePath).toList();
+		aEdgeStorage.clearStorage();
+		for( int i = 0; i < pKept.size(); i++ )
+		{
+			aEdgeStorage.store(pKept.get(i), paths.get(i));
+		}
+	}
+	
+	/*
+	 * The number of edges at the start of pCurrent that are also at the same
+	 * position in pPrevious, and are not in pAffected.
+	 */
+	private static int unchangedPrefix(List<Edge> pPrevious, List<Edge> pCurrent, Set<Edge> pAffected)
+	{
+		int result = 0;
+		while( result < pPrevious.size() && result < pCurrent.size() && 
+				pPrevious.get(result) == pCurrent.get(result) && !pAffected.contains(pCurrent.get(result)) )
+		{
+			result++;
+		}
+		return result;
+	}
+	
+	/*
+	 * The area covered by the edges in pEdges that are laid out and still in the diagram, if any.
+	 */
+	private Optional<Rectangle> boundsOf(List<Edge> pEdges)
+	{
+		return pEdges.stream()
+				.filter(edge -> aEdgeStorage.contains(edge) && diagram().contains(edge))
+				.map(this::getBounds)
+				.reduce(Rectangle::add);
+	}
+	
+	/*
+	 * The changed edges, and the edges connected to a node in the tree of a changed node, 
+	 * whose bounds can change with it.
+	 */
+	private Set<Edge> affectedEdges()
+	{
+		Set<Edge> result = Collections.newSetFromMap(new IdentityHashMap<>());
+		result.addAll(aChangedEdges);
+		Set<Node> roots = Collections.newSetFromMap(new IdentityHashMap<>());
+		aChangedNodes.forEach(node -> roots.add(root(node)));
+		roots.forEach(root -> collectConnectedEdges(root, result));
+		return result;
+	}
+	
+	/*
+	 * The edges of the diagram planned by each pass, in diagram order.
+	 */
+	private Map<EdgePriority, List<Edge>> edgesByPass()
+	{
+		Map<EdgePriority, List<Edge>> result = new EnumMap<>(EdgePriority.class);
+		PASSES.forEach(pass -> result.put(pass, new ArrayList<>()));
+		for( Edge edge : diagram().edges() )
+		{
+			List<Edge> edges = result.get(priorityOf(edge));
+			if( edges != null )
+			{
+				edges.add(edge);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Keeps track of the nodes and edges that changed since the last layout.
+	 */
+	@Override
+	public void diagramChanged(DiagramChange pChange, DiagramElement pElement)
+	{
+		super.diagramChanged(pChange, pElement);
+		if( aLaidOutEdges == null )
+		{
+			return;
+		}
+		if( pElement instanceof Edge edge )
+		{
+			aChangedEdges.add(edge);
+		}
+		else
+		{
+			aChangedNodes.add((Node) pElement);
+		}
 	}
 	
 	/**
@@ -140,10 +416,23 @@ public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 	 * @pre EdgePriority.isSegmented(pEdgePriority)
 	 */
 	private void layoutSegmentedEdges(EdgePriority pEdgePriority)
+	{
+		layoutSegmentedEdges(pEdgePriority, diagram().edges());
+	}
+	
+	/**
+	 * Plans the EdgePaths for the segmented edges in pEdges with EdgePriority 
+	 * pEdgePriority.
+	 * @param pEdgePriority the edge priority level 
+	 * @param pEdges the edges to plan
+	 * @pre pDiagram.getType() == DiagramType.CLASS
+	 * @pre EdgePriority.isSegmented(pEdgePriority)
+	 */
+	private void layoutSegmentedEdges(EdgePriority pEdgePriority, List<Edge> pEdges)
 	{
 		assert diagram().getType() == DiagramType.CLASS;
 		assert EdgePriority.isSegmented(pEdgePriority);
-		List<Edge> edgesToProcess = diagram().edges().stream()
+		List<Edge> edgesToProcess = pEdges.stream()
 				.filter(edge -> priorityOf(edge) == pEdgePriority)
 				.sorted(Comparator.comparing(edge -> edge.start().position().x()))
 				.collect(toList());
@@ -176,9 +465,18 @@ public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 	 * Plans the EdgePaths for Dependency Edges.
 	 */
 	private void layoutDependencyEdges()
+	{
+		layoutDependencyEdges(diagram().edges());
+	}
+	
+	/**
+	 * Plans the EdgePaths for the Dependency Edges in pEdges.
+	 * @param pEdges the edges to plan
+	 */
+	private void layoutDependencyEdges(List<Edge> pEdges)
 	{
 		assert diagram().getType() == DiagramType.CLASS;
-		for(Edge edge : diagram().edges())
+		for(Edge edge : pEdges)
 		{
 			if(priorityOf(edge)==EdgePriority.DEPENDENCY)
 			{   //Determine the start and end connection points
@@ -196,7 +494,16 @@ public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 	 */
 	private void layoutSelfEdges()
 	{
-		List<Edge> selfEdges = diagram().edges().stream()
+		layoutSelfEdges(diagram().edges());
+	}
+	
+	/**
+	 * Plans the EdgePaths for the self-edges in pEdges.
+	 * @param pEdges the edges to plan
+	 */
+	private void layoutSelfEdges(List<Edge> pEdges)
+	{
+		List<Edge> selfEdges = pEdges.stream()
 			.filter(edge -> priorityOf(edge) == EdgePriority.SELF_EDGE)
 			.collect(toList());
 		for(Edge edge : selfEdges)
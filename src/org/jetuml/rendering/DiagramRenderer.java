@@ -20,6 +20,7 @@
  ******************************************************************************/
 package org.jetuml.rendering;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.jetuml.diagram.Diagram;
@@ -39,8 +40,8 @@ import javafx.scene.canvas.Canvas;
  * intended to be specialized by subclasses that correspond to different diagram
  * types. 
  * 
- * A rendering pass starts with a call to draw(...). This results in the complete
- * geometry of the diagram being computed, and some of the computations being cached.
+ * A rendering pass starts with a call to draw(...). This results in the geometry
+ * of the diagram being brought up to date, and some of the computations being cached.
  * Subsequent calls to query method will use the cached computations. 
  * 
  * A single instance of each specialized renderer is needed as long as the geometry
@@ -57,6 +58,34 @@ public interface DiagramRenderer
 	 */
 	void draw(RenderingContext pContext);
 	
+	/**
+	 * Brings the geometry of the diagram up to date, but only draws onto the 
+	 * graphics context the elements whose bounds intersect pVisibleRegion.
+	 * 
+	 * @param pContext The rendering context where the diagram should be drawn.
+	 * @param pVisibleRegion The area of the diagram that can be seen.
+	 * @pre pContext != null && pVisibleRegion != null
+	 */
+	void draw(RenderingContext pContext, Rectangle pVisibleRegion);
+	
+	/**
+	 * Brings the parts of the geometry of the diagram that do not follow from the
+	 * position of the nodes alone, for example the paths of edges, up to date with
+	 * the changes to the diagram since the last layout. Both versions of draw start 
+	 * with this layout, which can be done beforehand to find the area it changes.
+	 */
+	void updateLayout();
+	
+	/**
+	 * Returns the area where the last layout changed the geometry of the 
+	 * diagram in ways that do not follow from the position of the nodes alone, 
+	 * for example by planning the paths of edges again. This area can cover the 
+	 * entire diagram.
+	 * 
+	 * @return The area where the layout changed, or Optional.empty() if it did not change.
+	 */
+	Optional<Rectangle> getLayoutChanges();
+	
 	/**
      * Draws the element.
      * @param pElement The element to draw.
@@ -83,6 +112,26 @@ public interface DiagramRenderer
      */
 	Optional<Node> nodeAt(Point pPoint);
 	
+	/**
+	 * Returns all the nodes, at any depth, whose bounds are entirely within pArea.
+	 * Nodes are listed in the order of the diagram, with each node before its children.
+	 * 
+	 * @param pArea The area to look into.
+	 * @return The nodes inside pArea.
+	 * @pre pArea != null
+	 */
+	List<Node> nodesWithin(Rectangle pArea);
+	
+	/**
+	 * Returns all the edges whose bounds are entirely within pArea, 
+	 * in the order of the diagram.
+	 * 
+	 * @param pArea The area to look into.
+	 * @return The edges inside pArea.
+	 * @pre pArea != null
+	 */
+	List<Edge> edgesWithin(Rectangle pArea);
+	
 	/**
 	 * Gets the smallest rectangle enclosing the diagram.
 	 * 
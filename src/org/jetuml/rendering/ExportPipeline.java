@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import org.jetuml.geom.Rectangle;
+
+/**
+ * Exports a diagram to any number of sinks. The diagram is laid out once, 
+ * when the pipeline is created, and each export only draws it in the
+ * rendering context of its sink. The bounds of the nodes and the paths
+ * of the edges computed for the first export are reused by the next ones.
+ * 
+ * The diagram must not change while it is exported.
+ */
+public final class ExportPipeline
+{
+	private final DiagramRenderer aRenderer;
+	private final Rectangle aBounds;
+	
+	/**
+	 * Creates a pipeline for the diagram rendered by pRenderer, and lays
+	 * out the diagram.
+	 * 
+	 * @param pRenderer The renderer of the diagram to export.
+	 * @pre pRenderer != null
+	 */
+	public ExportPipeline(DiagramRenderer pRenderer)
+	{
+		assert pRenderer != null;
+		aRenderer = pRenderer;
+		aBounds = pRenderer.getBounds();
+	}
+	
+	/**
+	 * @return The bounds of the diagram to export.
+	 */
+	public Rectangle bounds()
+	{
+		return aBounds;
+	}
+	
+	/**
+	 * Draws the diagram once in pSink.
+	 * 
+	 * @param <T> The type of the result of the export.
+	 * @param pSink The destination of the export.
+	 * @return The result of the export.
+	 * @pre pSink != null
+	 */
+	public <T> T export(ExportSink<T> pSink)
+	{
+		assert pSink != null;
+		aRenderer.draw(pSink.begin(aBounds));
+		return pSink.end();
+	}
+	
+	/**
+	 * Draws the elements of the diagram that are within or close to pRegion
+	 * in pContext, for exports that draw the diagram in parts.
+	 * 
+	 * @param pContext The context in which to draw.
+	 * @param pRegion The region of the diagram to draw.
+	 * @pre pContext != null && pRegion != null
+	 */
+	public void draw(RenderingContext pContext, Rectangle pRegion)
+	{
+		assert pContext != null && pRegion != null;
+		aRenderer.draw(pContext, pRegion);
+	}
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import org.jetuml.geom.Rectangle;
+
+/**
+ * A destination to which a diagram can be exported, such as a raster image 
+ * or an SVG document. An ExportPipeline draws the diagram in the rendering 
+ * context obtained from begin, then obtains the result of the export from end.
+ * 
+ * @param <T> The type of the result of the export.
+ */
+public interface ExportSink<T>
+{
+	/**
+	 * Prepares the sink to receive a diagram.
+	 * 
+	 * @param pBounds The bounds of the diagram to export.
+	 * @return The rendering context in which to draw the diagram.
+	 * @pre pBounds != null
+	 */
+	RenderingContext begin(Rectangle pBounds);
+	
+	/**
+	 * Completes the export, once the diagram has been drawn in the
+	 * context returned by begin.
+	 * 
+	 * @return The result of the export.
+	 */
+	T end();
+}
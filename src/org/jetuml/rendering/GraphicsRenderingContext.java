@@ -20,6 +20,8 @@
  ******************************************************************************/
 package org.jetuml.rendering;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import org.jetuml.geom.Alignment;
@@ -28,7 +30,10 @@ import org.jetuml.geom.Rectangle;
 import javafx.geometry.VPos;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.effect.DropShadow;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
 import javafx.scene.shape.ArcType;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
@@ -46,6 +51,12 @@ import javafx.scene.text.TextAlignment;
  * with the JavaFX coordinate system, which is 0.5 away from the pixel. See the
  * documentation for javafx.scene.shape.Shape for details.
  * 
+ * The style of the graphics context, such as its colors and line dashes, is changed
+ * only when a drawing operation needs a different one than the previous operation,
+ * so that consecutive operations in the same style do not set it again. Code that 
+ * changes the state of the graphics context other than through this object, for 
+ * example by restoring a state it saved, must call resetState() afterwards.
+ * 
  * Only a single RenderingContext should ever be associated with any GraphicsContext.
  */
 public class GraphicsRenderingContext implements RenderingContext
@@ -56,6 +67,18 @@ public class GraphicsRenderingContext implements RenderingContext
 	
 	private final GraphicsContext aContext;
 	
+	/* The style currently set on the graphics context. Null when unknown. */
+	private Color aStroke;
+	private Color aFill;
+	private LineStyle aLineStyle;
+	private Optional<DropShadow> aEffect;
+	private Font aFont;
+	private TextAlignment aTextAlignment;
+	
+	private final Map<GridTile, ImagePattern> aGridPatterns = new HashMap<>();
+	
+	private record GridTile(int spacing, Color color) {}
+	
 	/**
 	 * Creates a rendering context that draws on the provided
 	 * graphics context.
@@ -66,48 +89,88 @@ public class GraphicsRenderingContext implements RenderingContext
 	{
 		aContext = pContext;
 		aContext.setLineWidth(LINE_WIDTH);
+		aContext.setTextBaseline(VPos.TOP);
 		// This tranlation is necessary to align pixels in integer coodinates 
 		// To the JavaFX coordinate system.
 		aContext.translate(0.5, 0.5);
 	}
 	
+	/**
+	 * Forgets the style of the graphics context, so that the next drawing 
+	 * operations set all the attributes they need. 
+	 */
+	public void resetState()
+	{
+		aStroke = null;
+		aFill = null;
+		aLineStyle = null;
+		aEffect = null;
+		aFont = null;
+		aTextAlignment = null;
+	}
+	
+	private void setStroke(Color pColor, LineStyle pStyle)
+	{
+		if( !pColor.equals(aStroke) )
+		{
+			aContext.setStroke(pColor);
+			aStroke = pColor;
+		}
+		if( pStyle != aLineStyle )
+		{
+			aContext.setLineDashes(pStyle.getLineDashes());
+			aLineStyle = pStyle;
+		}
+	}
+	
+	private void setFill(Color pColor)
+	{
+		if( !pColor.equals(aFill) )
+		{
+			aContext.setFill(pColor);
+			aFill = pColor;
+		}
+	}
+	
+	private void setEffect(Optional<DropShadow> pEffect)
+	{
+		if( !pEffect.equals(aEffect) )
+		{
+			aContext.setEffect(pEffect.orElse(null));
+			aEffect = pEffect;
+		}
+	}
+	
 	@Override
 	public void strokeLine(int pX1, int pY1, int pX2, int pY2, Color pColor, LineStyle pStyle)
 	{
 		assert pColor != null && pStyle != null;
-		aContext.save();
-		aContext.setStroke(pColor);
-		aContext.setLineDashes(pStyle.getLineDashes());
+		setEffect(Optional.empty());
+		setStroke(pColor, pStyle);
 		aContext.strokeLine(pX1, pY1, pX2, pY2);
-		aContext.restore();
 	}
 	
 	@Override
 	public void drawRectangle(Rectangle pRectangle, Color pFillColor, Color pStrokeColor, Optional<DropShadow> pDropShadow)
 	{
 		assert pRectangle != null;
-		aContext.save();
-		aContext.setStroke(pStrokeColor);
-		aContext.setFill(pFillColor);
-		pDropShadow.ifPresent(shadow -> aContext.setEffect(shadow));
+		setEffect(pDropShadow);
+		setFill(pFillColor);
 		aContext.fillRect(pRectangle.x(), pRectangle.y(), pRectangle.width(), pRectangle.height());
-		pDropShadow.ifPresent(shadow -> aContext.setEffect(null));
+		setEffect(Optional.empty());
+		setStroke(pStrokeColor, LineStyle.SOLID);
 		aContext.strokeRect(pRectangle.x(), pRectangle.y(), pRectangle.width(), pRectangle.height());
-		aContext.restore();
 	}
 	
 	@Override
 	public void drawOval(int pX, int pY, int pWidth, int pHeight, Color pFillColor, Color pStrokeColor, Optional<DropShadow> pShadow)
 	{
 		assert pWidth > 0 && pHeight > 0 && pFillColor != null;
-		aContext.save();
-		aContext.setStroke(pStrokeColor);
-		aContext.setFill(pFillColor);
-		pShadow.ifPresent(shadow -> aContext.setEffect(shadow));
+		setEffect(pShadow);
+		setFill(pFillColor);
+		setStroke(pStrokeColor, LineStyle.SOLID);
 		aContext.fillOval(pX, pY, pWidth, pHeight);
 		aContext.strokeOval(pX, pY, pWidth, pHeight);
-		pShadow.ifPresent(shadow -> aContext.setEffect(null));
-		aContext.restore();
 	}
 	
 	@Override
@@ -116,35 +179,32 @@ public class GraphicsRenderingContext implements RenderingContext
 		assert pCenterX >=0 && pCenterY >= 0 && pRadius > 0;
 		assert pStartAngle >= 0 && pStartAngle < FULL_CIRCLE;
 		assert pLength > 0 && pLength <= FULL_CIRCLE;
-		aContext.save();
-		aContext.setStroke(pStrokeColor);
+		setEffect(Optional.empty());
+		setStroke(pStrokeColor, LineStyle.SOLID);
 		aContext.strokeArc(pCenterX - pRadius, pCenterY - pRadius, pRadius * 2, pRadius * 2, pStartAngle, 
 				pLength, ArcType.OPEN);
-		aContext.restore();
 	}
 	
 	@Override
 	public void strokePath(Path pPath, Color pStrokeColor, LineStyle pStyle)
 	{
 		assert pPath != null && pStrokeColor != null && pStyle != null;
-		aContext.save();
-		aContext.setStroke(pStrokeColor);
-		aContext.setLineDashes(pStyle.getLineDashes());
+		setEffect(Optional.empty());
+		setStroke(pStrokeColor, pStyle);
 		strokePath(pPath, false);
-		aContext.restore();
 	}
 	
+	/*
+	 * The drop shadow is not drawn for closed paths.
+	 */
 	@Override
 	public void drawClosedPath(Path pPath, Color pFillColor, Color pStrokeColor, Optional<DropShadow> pDropShadow)
 	{
 		assert pPath != null && pFillColor != null && pStrokeColor != null && pDropShadow != null;
-		aContext.save();
-		aContext.setStroke(pStrokeColor);
-		aContext.setFill(pFillColor);
+		setEffect(Optional.empty());
+		setFill(pFillColor);
+		setStroke(pStrokeColor, LineStyle.SOLID);
 		strokePath(pPath, true);
-		pDropShadow.ifPresent(shadow -> aContext.setEffect(pDropShadow.get()));
-		pDropShadow.ifPresent(shadow -> aContext.setEffect(null));
-		aContext.restore();
 	}
 	
 	private void strokePath(Path pPath, boolean pFill)
@@ -177,17 +237,14 @@ public class GraphicsRenderingContext implements RenderingContext
 	public void drawRoundedRectangle(Rectangle pRectangle, Color pFillColor, Color pStrokeColor, Optional<DropShadow> pDropShadow)
 	{
 		assert pRectangle != null && pFillColor != null && pStrokeColor != null && pDropShadow != null;
-		aContext.save();
-		aContext.setFill(pFillColor);
-		aContext.setStroke(pStrokeColor);
-		
-		pDropShadow.ifPresent(shadow -> aContext.setEffect(shadow));
+		setEffect(pDropShadow);
+		setFill(pFillColor);
 		aContext.fillRoundRect(pRectangle.x(), pRectangle.y(), 
 				pRectangle.width(), pRectangle.height(), ROUNDED_RECTANGLE_ARC, ROUNDED_RECTANGLE_ARC);
-		pDropShadow.ifPresent(shadow -> aContext.setEffect(null));
+		setEffect(Optional.empty());
+		setStroke(pStrokeColor, LineStyle.SOLID);
 		aContext.strokeRoundRect(pRectangle.x(), pRectangle.y(), 
 				pRectangle.width(), pRectangle.height(), ROUNDED_RECTANGLE_ARC, ROUNDED_RECTANGLE_ARC);
-		aContext.restore();
 	}
 	
 	@Override
@@ -196,11 +253,19 @@ public class GraphicsRenderingContext implements RenderingContext
 	{
 		assert pText != null && pTextPosition != null;
 		assert pTextColor != null && pFont != null;
-		aContext.save();
-		aContext.setTextAlign(getTextAlignment(pTextPosition));
-		aContext.setTextBaseline(VPos.TOP);
-		aContext.setFont(pFont);
-		aContext.setFill(pTextColor);
+		setEffect(Optional.empty());
+		setFill(pTextColor);
+		if( !pFont.equals(aFont) )
+		{
+			aContext.setFont(pFont);
+			aFont = pFont;
+		}
+		TextAlignment alignment = getTextAlignment(pTextPosition);
+		if( alignment != aTextAlignment )
+		{
+			aContext.setTextAlign(alignment);
+			aTextAlignment = alignment;
+		}
 		int anchorX = pBounds.x();
 		int anchorY = pBounds.y();
 		if (pTextPosition == Alignment.CENTER)
@@ -208,7 +273,44 @@ public class GraphicsRenderingContext implements RenderingContext
 			anchorX = pBounds.center().x();
 		}
 		aContext.fillText(pText, anchorX, anchorY);
-		aContext.restore();
+	}
+	
+	/*
+	 * Fills pBounds in a single operation with a pattern made of a tile of the 
+	 * grid. The tile is drawn pixel by pixel, once for each spacing and color, 
+	 * and stored. The canvas is scaled as a whole when zooming, so the same tile
+	 * serves all zoom levels.
+	 */
+	@Override
+	public void drawGrid(Rectangle pBounds, int pSpacing, Color pColor)
+	{
+		assert pBounds != null && pSpacing > 0 && pColor != null;
+		setEffect(Optional.empty());
+		aContext.setFill(aGridPatterns.computeIfAbsent(new GridTile(pSpacing, pColor), 
+				GraphicsRenderingContext::createGridPattern));
+		aFill = null;
+		// The tile is anchored on the pixels, which are 0.5 away from the translated origin.
+		aContext.fillRect(pBounds.x() - 0.5, pBounds.y() - 0.5, pBounds.width() + 1, pBounds.height() + 1);
+	}
+	
+	/*
+	 * A tile with a vertical line on its left column and a horizontal line on its
+	 * top row, with the opacity that a line of width LINE_WIDTH gets when stroked
+	 * along the center of a pixel.
+	 */
+	private static ImagePattern createGridPattern(GridTile pTile)
+	{
+		Color line = pTile.color().deriveColor(0, 1, 1, LINE_WIDTH);
+		Color crossing = pTile.color().deriveColor(0, 1, 1, 1 - (1 - LINE_WIDTH) * (1 - LINE_WIDTH));
+		WritableImage image = new WritableImage(pTile.spacing(), pTile.spacing());
+		PixelWriter writer = image.getPixelWriter();
+		for( int i = 1; i < pTile.spacing(); i++ )
+		{
+			writer.setColor(i, 0, line);
+			writer.setColor(0, i, line);
+		}
+		writer.setColor(0, 0, crossing);
+		return new ImagePattern(image, -0.5, -0.5, pTile.spacing(), pTile.spacing(), false);
 	}
 	
 	private static TextAlignment getTextAlignment(Alignment pTextPosition)
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import org.jetuml.geom.Dimension;
+import org.jetuml.geom.GeomUtils;
+
+import javafx.geometry.Bounds;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontPosture;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+/**
+ * Measures text with the layout of a JavaFX text node, which is exactly how 
+ * text is laid out on the canvas. It requires the native font libraries of 
+ * the JavaFX toolkit.
+ */
+public final class JavaFXTextMetrics implements TextMetrics
+{
+	private final Text aTextNode = new Text();
+	
+	// The font of the text node.
+	private FontDescription aFont;
+	
+	@Override
+	public Dimension getDimension(String pString, FontDescription pFont)
+	{
+		assert pString != null && pFont != null;
+		setFont(pFont);
+		aTextNode.setText(pString);
+		Bounds bounds = aTextNode.getLayoutBounds();
+		return new Dimension(GeomUtils.round(bounds.getWidth()), GeomUtils.round(bounds.getHeight()));
+	}
+	
+	@Override
+	public int getBaselineOffset(FontDescription pFont)
+	{
+		assert pFont != null;
+		setFont(pFont);
+		aTextNode.setText("|");
+		return GeomUtils.round(aTextNode.getBaselineOffset());
+	}
+	
+	private void setFont(FontDescription pFont)
+	{
+		if( !pFont.equals(aFont) )
+		{
+			aTextNode.setFont(toFont(pFont));
+			aFont = pFont;
+		}
+	}
+	
+	/**
+	 * @param pFont The description of a font.
+	 * @return The JavaFX font that matches pFont.
+	 * @pre pFont != null
+	 */
+	static Font toFont(FontDescription pFont)
+	{
+		assert pFont != null;
+		return Font.font(pFont.family(), pFont.bold() ? FontWeight.BOLD : FontWeight.NORMAL, 
+				pFont.italic() ? FontPosture.ITALIC : FontPosture.REGULAR, pFont.size());
+	}
+}
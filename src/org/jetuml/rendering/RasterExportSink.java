@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import org.jetuml.geom.Rectangle;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Exports a diagram to an image, with a margin of a few pixels
+ * around the diagram.
+ */
+public final class RasterExportSink implements ExportSink<Image>
+{
+	static final int PADDING = 4;
+	
+	private final Color aBackground;
+	private Canvas aCanvas;
+	
+	/**
+	 * Creates a sink that draws diagrams over pBackground.
+	 * 
+	 * @param pBackground The color of the background of the image.
+	 * @pre pBackground != null
+	 */
+	public RasterExportSink(Color pBackground)
+	{
+		assert pBackground != null;
+		aBackground = pBackground;
+	}
+	
+	@Override
+	public RenderingContext begin(Rectangle pBounds)
+	{
+		assert pBounds != null;
+		aCanvas = new Canvas(pBounds.width() + PADDING * 2, pBounds.height() + PADDING * 2);
+		GraphicsContext context = aCanvas.getGraphicsContext2D();
+		context.setFill(aBackground);
+		context.fillRect(0, 0, aCanvas.getWidth(), aCanvas.getHeight());
+		context.translate(-pBounds.x() + PADDING, -pBounds.y() + PADDING);
+		return new GraphicsRenderingContext(context);
+	}
+	
+	@Override
+	public Image end()
+	{
+		assert aCanvas != null;
+		WritableImage image = new WritableImage((int) aCanvas.getWidth(), (int) aCanvas.getHeight());
+		aCanvas.snapshot(null, image);
+		aCanvas = null;
+		return image;
+	}
+}
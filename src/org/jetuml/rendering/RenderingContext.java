@@ -127,4 +127,27 @@ public interface RenderingContext
 	 */
 	void drawText(String pText, Rectangle pBounds, Alignment pTextPosition, Color pTextColor, Font pFont, FontDimension pFontDimension);
 
+	/**
+	 * Draws a grid of solid lines inside pBounds. The lines are aligned on 
+	 * multiples of pSpacing, so that the grid drawn in any part of the 
+	 * canvas matches the grid drawn over the entire canvas. By default,
+	 * each line of the grid is stroked separately.
+	 * 
+	 * @param pBounds The area to cover with the grid.
+	 * @param pSpacing The distance between two lines of the grid, in pixels.
+	 * @param pColor The color of the lines.
+	 * @pre pBounds != null && pSpacing > 0 && pColor != null
+	 */
+	default void drawGrid(Rectangle pBounds, int pSpacing, Color pColor)
+	{
+		assert pBounds != null && pSpacing > 0 && pColor != null;
+		for( int x = Math.ceilDiv(pBounds.x(), pSpacing) * pSpacing; x < pBounds.maxX(); x += pSpacing )
+		{
+			strokeLine(x, pBounds.y(), x, pBounds.maxY(), pColor, LineStyle.SOLID);
+		}
+		for( int y = Math.ceilDiv(pBounds.y(), pSpacing) * pSpacing; y < pBounds.maxY(); y += pSpacing )
+		{
+			strokeLine(pBounds.x(), y, pBounds.maxX(), y, pColor, LineStyle.SOLID);
+		}
+	}
 }
\ No newline at end of file
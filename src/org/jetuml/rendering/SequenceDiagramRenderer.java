@@ -23,14 +23,15 @@ package org.jetuml.rendering;
 import static java.util.stream.Collectors.toList;
 
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramChange;
 import org.jetuml.diagram.DiagramElement;
 import org.jetuml.diagram.Edge;
 import org.jetuml.diagram.Node;
@@ -83,6 +84,13 @@ public final class SequenceDiagramRenderer extends AbstractDiagramRenderer
 
 	private final Map<Node, Integer> aCallNodeTopCoordinate = new IdentityHashMap<>();
 	private final Map<Node, Integer> aCallNodeBottomCoordinate = new IdentityHashMap<>();
+	private Optional<Rectangle> aLayoutChanges = Optional.empty();
+	private int aLayoutVersion = 0;
+	
+	/* True if the positions of the call nodes were computed since the last change
+	 * to the diagram, and the version of the font preferences at that time. */
+	private boolean aLaidOut = false;
+	private int aLaidOutFontVersion;
 	
 	/**
 	 * @param pDiagram The diagram being rendered.
@@ -97,11 +105,29 @@ public final class SequenceDiagramRenderer extends AbstractDiagramRenderer
 		addElementRenderer(ConstructorEdge.class, new CallEdgeRenderer(this));
 	}
 	
+	/*
+	 * Computes the positions of the call nodes again if the diagram changed
+	 * since they were last computed.
+	 */
+	@Override
+	public void updateLayout()
+	{
+		if( !aLaidOut || aLaidOutFontVersion != StringRenderer.fontVersion() || 
+				diagram().isBatchingChanges() )
+		{
+			layout();
+		}
+		else
+		{
+			aLayoutChanges = Optional.empty();
+		}
+	}
+	
 	@Override
-	public void draw(RenderingContext pContext)
+	public void diagramChanged(DiagramChange pChange, DiagramElement pElement)
 	{
-		layout();
-		super.draw(pContext); 
+		super.diagramChanged(pChange, pElement);
+		aLaidOut = false;
 	}
 	
 	/*
@@ -109,7 +135,42 @@ public final class SequenceDiagramRenderer extends AbstractDiagramRenderer
 	 */
 	private void layout()
 	{
+		// Not identity maps, which would compare the coordinates by reference
+		Map<Node, Integer> previousTops = new HashMap<>(aCallNodeTopCoordinate);
+		Map<Node, Integer> previousBottoms = new HashMap<>(aCallNodeBottomCoordinate);
 		computeYPositions();
+		aLaidOut = true;
+		aLaidOutFontVersion = StringRenderer.fontVersion();
+		if( previousTops.equals(aCallNodeTopCoordinate) && previousBottoms.equals(aCallNodeBottomCoordinate) )
+		{
+			aLayoutChanges = Optional.empty();
+		}
+		else
+		{
+			aLayoutChanges = Optional.of(EVERYWHERE);
+			aLayoutVersion++;
+			invalidateIndex();
+		}
+	}
+	
+	/**
+	 * @return A number that changes whenever the vertical position of the call nodes
+	 *     or the edges between them change, which affects the bounds of call nodes and 
+	 *     implicit parameter nodes.
+	 */
+	public int layoutVersion()
+	{
+		// Both counts only increase, so their sum changes whenever one of them does.
+		return aLayoutVersion + diagram().modificationCount();
+	}
+	
+	/*
+	 * A change in the vertical position of a call can move every call after it.
+	 */
+	@Override
+	public Optional<Rectangle> getLayoutChanges()
+	{
+		return aLayoutChanges;
 	}
 	
 	/**
@@ -158,9 +219,7 @@ public final class SequenceDiagramRenderer extends AbstractDiagramRenderer
 	public Optional<CallNode> getCaller(Node pNode)
 	{
 		assert pNode != null && diagram().contains(pNode);
-		return diagram().edges().stream()
-			.filter(CallEdge.class::isInstance)
-			.filter(edge -> edge.end() == pNode)
+		return diagram().edgesTo(pNode, CallEdge.class).stream()
 			.map(Edge::start)
 			.map(CallNode.class::cast)
 			.findFirst();
@@ -278,9 +337,7 @@ public final class SequenceDiagramRenderer extends AbstractDiagramRenderer
 	private Optional<Edge> getIncomingCall(Node pNode)
 	{
 		assert pNode.getClass() == CallNode.class;
-		return diagram().edges().stream()
-			.filter(edge -> edge.end() == pNode)
-			.findFirst();
+		return diagram().edgesTo(pNode, Edge.class).stream().findFirst();
 	}
 	
 	/**
@@ -290,9 +347,9 @@ public final class SequenceDiagramRenderer extends AbstractDiagramRenderer
 	public int getLifelineTop(ImplicitParameterNode pNode)
 	{
 		// 20 if it's a normal call, 5 if a constructor call
-		Optional<Node> topNode = diagram().allNodes().stream()
+		Optional<Node> topNode = pNode.getChildren().stream()
 			.filter(CallNode.class::isInstance)
-			.filter(node -> node.getParent() == pNode)
+			.filter(aCallNodeTopCoordinate::containsKey)
 			.sorted(Comparator.comparing(aCallNodeTopCoordinate::get))
 			.findFirst();
 		if(topNode.isEmpty() || !isConstructorCall(topNode.get()))
@@ -310,13 +367,9 @@ public final class SequenceDiagramRenderer extends AbstractDiagramRenderer
 	 */
 	private Optional<Node> findRoot()
 	{
-		Set<Node> calledNodes = diagram().edges().stream()
-				.filter(edge -> CallEdge.class.isAssignableFrom(edge.getClass())) // Includes subclasses, such as constructor edges
-				.map(Edge::end)
-				.collect(Collectors.toSet());
 		List<Node> rootNode = diagram().allNodes().stream()
 				.filter(node -> node.getClass() == CallNode.class)
-				.filter(node -> !calledNodes.contains(node))
+				.filter(node -> diagram().edgesTo(node, CallEdge.class).isEmpty()) // Includes subclasses, such as constructor edges
 				.collect(Collectors.toList());
 		assert rootNode.size() <= 1; 
 		Optional<Node> result = Optional.empty();
@@ -363,13 +416,25 @@ public final class SequenceDiagramRenderer extends AbstractDiagramRenderer
 	private List<Node> getCallees(Node pNode)
 	{
 		assert pNode != null && diagram().contains(pNode);
-		return diagram().edges().stream()
-				.filter(CallEdge.class::isInstance)
-				.filter(edge -> edge.start() == pNode)
+		return diagram().edgesFrom(pNode, CallEdge.class).stream()
 				.map(Edge::end)
 				.collect(toList());
 	}
 	
+	/*
+	 * Implicit parameter nodes contain all the points below their top rectangle, and 
+	 * their call nodes can reach callees on other objects, so they are not bounded. 
+	 */
+	@Override
+	protected Optional<Rectangle> hitBounds(DiagramElement pElement)
+	{
+		if( pElement.getClass() == ImplicitParameterNode.class )
+		{
+			return Optional.empty();
+		}
+		return super.hitBounds(pElement);
+	}
+	
 	/*
 	 * This specialized version supports selecting implicit parameter nodes only by 
 	 * selecting their top rectangle.
@@ -463,10 +528,8 @@ public final class SequenceDiagramRenderer extends AbstractDiagramRenderer
 	private List<CallEdge> getCalls(Node pCaller)
 	{
 		assert pCaller != null;
-		return diagram().edges().stream()
-				.filter(CallEdge.class::isInstance)
+		return diagram().edgesFrom(pCaller, CallEdge.class).stream()
 				.map(CallEdge.class::cast)
-				.filter(edge -> edge.start() == pCaller)
 				.collect(toList());
 	}
 }
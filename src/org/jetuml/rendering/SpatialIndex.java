@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
+
+/**
+ * A uniform grid of square cells that maps areas of the diagram to the
+ * elements whose bounds overlap them. Queries return the elements in the
+ * order in which they were added, so that callers can preserve the drawing
+ * order of the diagram.
+ *
+ * Elements can also be added without bounds, in which case they are
+ * returned by every query. The bounds of an element can be updated, 
+ * which does not change its position in the order of the elements.
+ *
+ * @param <T> The type of the indexed elements.
+ */
+final class SpatialIndex<T>
+{
+	private final int aCellSize;
+	private final List<T> aElements = new ArrayList<>();
+	private final List<Rectangle> aBounds = new ArrayList<>();
+	private final Map<Long, List<Integer>> aCells = new HashMap<>();
+	private final List<Integer> aUnbounded = new ArrayList<>();
+	private final Map<T, Integer> aIndices = new IdentityHashMap<>();
+
+	/**
+	 * Creates an empty index.
+	 *
+	 * @param pCellSize The width and height of a cell, in pixels.
+	 * @pre pCellSize > 0
+	 */
+	SpatialIndex(int pCellSize)
+	{
+		assert pCellSize > 0;
+		aCellSize = pCellSize;
+	}
+
+	/**
+	 * Adds pElement to the index.
+	 *
+	 * @param pElement The element to add.
+	 * @param pBounds The area where pElement can be found.
+	 * @pre pElement != null && pBounds != null
+	 */
+	void add(T pElement, Rectangle pBounds)
+	{
+		assert pElement != null && pBounds != null;
+		int index = aElements.size();
+		aElements.add(pElement);
+		aBounds.add(pBounds);
+		aIndices.put(pElement, index);
+		addToCells(index, pBounds);
+	}
+
+	/**
+	 * Adds pElement to the index as an element that can be found anywhere.
+	 *
+	 * @param pElement The element to add.
+	 * @pre pElement != null
+	 */
+	void addUnbounded(T pElement)
+	{
+		assert pElement != null;
+		aUnbounded.add(aElements.size());
+		aIndices.put(pElement, aElements.size());
+		aElements.add(pElement);
+		aBounds.add(null);
+	}
+
+	/**
+	 * Replaces the bounds of pElement with pBounds.
+	 *
+	 * @param pElement The element to update.
+	 * @param pBounds The new area where pElement can be found.
+	 * @pre pElement != null && pBounds != null && contains(pElement)
+	 */
+	void update(T pElement, Rectangle pBounds)
+	{
+		assert pElement != null && pBounds != null && contains(pElement);
+		int index = remove(pElement);
+		aBounds.set(index, pBounds);
+		addToCells(index, pBounds);
+	}
+
+	/**
+	 * Makes pElement an element that can be found anywhere.
+	 *
+	 * @param pElement The element to update.
+	 * @pre pElement != null && contains(pElement)
+	 */
+	void updateUnbounded(T pElement)
+	{
+		assert pElement != null && contains(pElement);
+		int index = remove(pElement);
+		aBounds.set(index, null);
+		aUnbounded.add(index);
+	}
+
+	/**
+	 * @param pElement The element to look for.
+	 * @return True if pElement was added to this index.
+	 */
+	boolean contains(T pElement)
+	{
+		return aIndices.containsKey(pElement);
+	}
+
+	/**
+	 * @param pPoint The point to look for.
+	 * @return The elements whose bounds contain pPoint, and the unbounded elements,
+	 *     in the order in which they were added.
+	 * @pre pPoint != null
+	 */
+	List<T> elementsAt(Point pPoint)
+	{
+		assert pPoint != null;
+		BitSet found = new BitSet(aElements.size());
+		aUnbounded.forEach(found::set);
+		for( int index : aCells.getOrDefault(key(cell(pPoint.x()), cell(pPoint.y())), List.of()) )
+		{
+			if( aBounds.get(index).contains(pPoint) )
+			{
+				found.set(index);
+			}
+		}
+		return elements(found);
+	}
+
+	/**
+	 * @param pArea The area to look into.
+	 * @return The elements whose bounds intersect pArea, and the unbounded elements,
+	 *     in the order in which they were added.
+	 * @pre pArea != null
+	 */
+	List<T> elementsIntersecting(Rectangle pArea)
+	{
+		assert pArea != null;
+		BitSet found = new BitSet(aElements.size());
+		aUnbounded.forEach(found::set);
+		for( int x = cell(pArea.x()); x <= cell(pArea.maxX()); x++ )
+		{
+			for( int y = cell(pArea.y()); y <= cell(pArea.maxY()); y++ )
+			{
+				for( int index : aCells.getOrDefault(key(x, y), List.of()) )
+				{
+					if( aBounds.get(index).intersects(pArea) )
+					{
+						found.set(index);
+					}
+				}
+			}
+		}
+		return elements(found);
+	}
+
+	/*
+	 * Removes the element from the cells or from the unbounded elements, 
+	 * and returns its index.
+	 */
+	private int remove(T pElement)
+	{
+		Integer index = aIndices.get(pElement);
+		Rectangle bounds = aBounds.get(index);
+		if( bounds == null )
+		{
+			aUnbounded.remove(index);
+			return index;
+		}
+		for( int x = cell(bounds.x()); x <= cell(bounds.maxX()); x++ )
+		{
+			for( int y = cell(bounds.y()); y <= cell(bounds.maxY()); y++ )
+			{
+				List<Integer> cell = aCells.get(key(x, y));
+				cell.remove(index);
+				if( cell.isEmpty() )
+				{
+					aCells.remove(key(x, y));
+				}
+			}
+		}
+		return index;
+	}
+
+	private void addToCells(int pIndex, Rectangle pBounds)
+	{
+		for( int x = cell(pBounds.x()); x <= cell(pBounds.maxX()); x++ )
+		{
+			for( int y = cell(pBounds.y()); y <= cell(pBounds.maxY()); y++ )
+			{
+				aCells.computeIfAbsent(key(x, y), key -> new ArrayList<>()).add(pIndex);
+			}
+		}
+	}
+
+	private List<T> elements(BitSet pIndices)
+	{
+		List<T> result = new ArrayList<>(pIndices.cardinality());
+		pIndices.stream().forEach(index -> result.add(aElements.get(index)));
+		return result;
+	}
+
+	private int cell(int pCoordinate)
+	{
+		return Math.floorDiv(pCoordinate, aCellSize);
+	}
+
+	private static long key(int pX, int pY)
+	{
+		return ((long) pX << Integer.SIZE) | (pY & 0xFFFFFFFFL);
+	}
+}
@@ -22,6 +22,9 @@ package org.jetuml.rendering;
 
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.jetuml.annotations.Immutable;
 import org.jetuml.application.UserPreferences;
@@ -29,24 +32,77 @@ import org.jetuml.application.UserPreferences.IntegerPreference;
 import org.jetuml.application.UserPreferences.StringPreference;
 import org.jetuml.geom.Alignment;
 import org.jetuml.geom.Dimension;
-import org.jetuml.geom.GeomUtils;
 import org.jetuml.geom.Rectangle;
 import org.jetuml.gui.ColorScheme;
 
-import javafx.geometry.Bounds;
 import javafx.scene.text.Font;
-import javafx.scene.text.FontPosture;
-import javafx.scene.text.FontWeight;
-import javafx.scene.text.Text;
 
 /**
  * A class to render strings with various decorations: underline, bold,
  * with different alignments.
+ * 
+ * Measuring text is expensive, so the dimensions of measured strings are kept 
+ * in a bounded cache shared by all renderers, where the least recently used
+ * entries are discarded first. The font and font dimension of each style of 
+ * text, plain, bold, italic or both, are also kept. All are invalidated when 
+ * the font name or font size preference changes, or when strings are measured
+ * with different text metrics.
+ * 
+ * Strings are measured with a JavaFX text node by default, which is only
+ * created when the first string is measured. Where the JavaFX toolkit is not
+ * available, for instance to export diagrams from a server, they can be 
+ * measured with AWT fonts instead, and JavaFX fonts are then only created
+ * to draw strings.
+ * 
+ * Renderers are shared by all the diagrams, which can be rendered by several 
+ * threads at once. The cache and the text metrics are guarded by the same 
+ * lock, and each font is replaced together with its dimension.
  */
 @Immutable
 public final class StringRenderer
 {
-	private static final Text TEXT_NODE = new Text();
+	private static final int DIMENSION_CACHE_CAPACITY = 4096;
+	
+	@SuppressWarnings("serial")
+	private static final Map<TextKey, Dimension> DIMENSIONS = new LinkedHashMap<>(16, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TextKey, Dimension> pEldest)
+		{
+			return size() > DIMENSION_CACHE_CAPACITY;
+		}
+	};
+	
+	/* Incremented every time the font preferences change, to invalidate the
+	 * fonts and font dimensions in FONT_STATES. */
+	private static volatile int aFontVersion = 0;
+	
+	// Guarded by the lock on DIMENSIONS. Null until strings are first measured.
+	private static TextMetrics aTextMetrics;
+	
+	/* The font and font dimension of each style of text, indexed by the style 
+	 * of the renderers. Created on demand from the font preferences. */
+	private static final AtomicReferenceArray<FontState> FONT_STATES = new AtomicReferenceArray<>(4);
+	private static final int BOLD_STYLE = 1;
+	private static final int ITALIC_STYLE = 2;
+	
+	static
+	{
+		UserPreferences.instance().addIntegerPreferenceChangeHandler(preference -> 
+		{
+			if( preference == IntegerPreference.fontSize )
+			{
+				invalidateFonts();
+			}
+		});
+		UserPreferences.instance().addStringPreferenceChangeHandler(preference -> 
+		{
+			if( preference == StringPreference.fontName )
+			{
+				invalidateFonts();
+			}
+		});
+	}
 	
 	/**
 	 * Various text decorations.
@@ -56,8 +112,62 @@ public final class StringRenderer
 		BOLD, ITALIC, UNDERLINED
 	}
 	
+	/*
+	 * A string measured with a given font. 
+	 */
+	private record TextKey(FontDescription font, String text) {}
+	
+	/*
+	 * A font and its dimension, created from a version of the font preferences.
+	 * The JavaFX font is created when it is first needed to draw strings.
+	 */
+	private static final class FontState
+	{
+		private final int aVersion;
+		private final FontDescription aDescription;
+		private final FontDimension aDimension;
+		private volatile Font aFont;
+		
+		FontState(int pVersion, FontDescription pDescription, FontDimension pDimension)
+		{
+			aVersion = pVersion;
+			aDescription = pDescription;
+			aDimension = pDimension;
+		}
+		
+		int version()
+		{
+			return aVersion;
+		}
+		
+		FontDescription description()
+		{
+			return aDescription;
+		}
+		
+		FontDimension dimension()
+		{
+			return aDimension;
+		}
+		
+		/*
+		 * Two threads can both create the font, but they create equal fonts.
+		 */
+		Font font()
+		{
+			Font font = aFont;
+			if( font == null )
+			{
+				font = JavaFXTextMetrics.toFont(aDescription);
+				aFont = font;
+			}
+			return font;
+		}
+	}
+	
 	private final Alignment aAlign;
 	private final EnumSet<Decoration> aDecorations;
+	private final int aFontStyle;
 
 	/**
 	 * Creates a new String Renderer.
@@ -70,6 +180,16 @@ public final class StringRenderer
 		aAlign = pPosition;
 		aDecorations = EnumSet.noneOf(Decoration.class);
 		Collections.addAll(aDecorations, pDecorations);
+		int fontStyle = 0;
+		if( aDecorations.contains(Decoration.BOLD) )
+		{
+			fontStyle |= BOLD_STYLE;
+		}
+		if( aDecorations.contains(Decoration.ITALIC) )
+		{
+			fontStyle |= ITALIC_STYLE;
+		}
+		aFontStyle = fontStyle;
 	}
 	
 	/**
@@ -130,10 +250,35 @@ public final class StringRenderer
 		{
 			return Dimension.NULL;
 		}
-		TEXT_NODE.setFont(font());
-		TEXT_NODE.setText(pString);
-		Bounds bounds = TEXT_NODE.getLayoutBounds();
-		return new Dimension(GeomUtils.round(bounds.getWidth()), GeomUtils.round(bounds.getHeight()));
+		return dimension(fontState().description(), pString);
+	}
+	
+	private static Dimension dimension(FontDescription pFont, String pString)
+	{
+		synchronized( DIMENSIONS )
+		{
+			return DIMENSIONS.computeIfAbsent(new TextKey(pFont, pString), StringRenderer::measure);
+		}
+	}
+	
+	/*
+	 * @pre The caller holds the lock on DIMENSIONS.
+	 */
+	private static Dimension measure(TextKey pKey)
+	{
+		return textMetrics().getDimension(pKey.text(), pKey.font());
+	}
+	
+	/*
+	 * @pre The caller holds the lock on DIMENSIONS.
+	 */
+	private static TextMetrics textMetrics()
+	{
+		if( aTextMetrics == null )
+		{
+			aTextMetrics = new JavaFXTextMetrics();
+		}
+		return aTextMetrics;
 	}
 	
 	/**
@@ -141,7 +286,7 @@ public final class StringRenderer
 	 */
 	public int lineHeight()
 	{
-		return getDimension("|").height();
+		return fontDimension().lineHeight();
 	}
 	
 	/**
@@ -149,43 +294,81 @@ public final class StringRenderer
 	 */
 	public FontDimension fontDimension()
 	{
-		return new FontDimension(lineHeight(), lineHeight()- baselineOffset(font()));
+		return fontState().dimension();
 	}
 	
 	private Font font()
 	{
-		if( aDecorations.contains(Decoration.BOLD) && aDecorations.contains(Decoration.ITALIC) )
-		{
-			return Font.font(UserPreferences.instance().getString(StringPreference.fontName), FontWeight.BOLD,
-					FontPosture.ITALIC, UserPreferences.instance().getInteger(IntegerPreference.fontSize));
-		}
-		else if( aDecorations.contains(Decoration.BOLD) )
+		return fontState().font();
+	}
+	
+	/*
+	 * Recreates the font of the style of this renderer if the font preferences 
+	 * changed since it was created.
+	 */
+	private FontState fontState()
+	{
+		FontState state = FONT_STATES.get(aFontStyle);
+		if( state == null || state.version() != aFontVersion )
 		{
-			return Font.font(UserPreferences.instance().getString(StringPreference.fontName), FontWeight.BOLD,
-					UserPreferences.instance().getInteger(IntegerPreference.fontSize));
+			state = createFontState();
+			FONT_STATES.set(aFontStyle, state);
 		}
-		else if( aDecorations.contains(Decoration.ITALIC) )
+		return state;
+	}
+	
+	private FontState createFontState()
+	{
+		synchronized( DIMENSIONS )
 		{
-			return Font.font(UserPreferences.instance().getString(StringPreference.fontName), FontPosture.ITALIC,
-					UserPreferences.instance().getInteger(IntegerPreference.fontSize));
+			FontDescription font = createFont();
+			TextMetrics metrics = textMetrics();
+			int lineHeight = metrics.lineHeight(font);
+			return new FontState(aFontVersion, font, 
+					new FontDimension(lineHeight, lineHeight - metrics.getBaselineOffset(font)));
 		}
-		return Font.font(UserPreferences.instance().getString(StringPreference.fontName),
-				UserPreferences.instance().getInteger(IntegerPreference.fontSize));
 	}
 	
 	/**
-	 * Returns the distance between the top and baseline of a single lined text.
+	 * @return A number that changes every time the font preferences change, 
+	 *     so that values derived from the dimensions of text can be stored
+	 *     and computed again only when the font changes.
+	 */
+	public static int fontVersion()
+	{
+		return aFontVersion;
+	}
+	
+	/**
+	 * Measures all strings with pTextMetrics from now on. The dimensions 
+	 * measured until then are discarded.
 	 * 
-	 * @param pFont The font used for the metric.
-	 * @return the distance above the baseline for a single lined text.
-	 * @pre pFont != null
+	 * @param pTextMetrics The text metrics to use.
+	 * @pre pTextMetrics != null
 	 */
-	private static int baselineOffset(Font pFont)
+	public static void setTextMetrics(TextMetrics pTextMetrics)
 	{
-		assert pFont != null;
-		
-		TEXT_NODE.setFont(pFont);
-		TEXT_NODE.setText("|");
-		return GeomUtils.round(TEXT_NODE.getBaselineOffset());
+		assert pTextMetrics != null;
+		synchronized( DIMENSIONS )
+		{
+			aTextMetrics = pTextMetrics;
+			invalidateFonts();
+		}
+	}
+	
+	private static void invalidateFonts()
+	{
+		synchronized( DIMENSIONS )
+		{
+			aFontVersion++;
+			DIMENSIONS.clear();
+		}
+	}
+	
+	private FontDescription createFont()
+	{
+		return new FontDescription(UserPreferences.instance().getString(StringPreference.fontName),
+				UserPreferences.instance().getInteger(IntegerPreference.fontSize),
+				(aFontStyle & BOLD_STYLE) != 0, (aFontStyle & ITALIC_STYLE) != 0);
 	}
 }
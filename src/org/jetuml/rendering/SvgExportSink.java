@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import org.jetuml.geom.Rectangle;
+
+/**
+ * Exports a diagram as an SVG document, which is written to an output as 
+ * it is drawn. Errors writing to the output are reported with an 
+ * UncheckedIOException.
+ * 
+ * @param <A> The type of the output.
+ */
+public final class SvgExportSink<A extends Appendable> implements ExportSink<A>
+{
+	private final A aOutput;
+	private SvgRenderingContext aContext;
+	
+	/**
+	 * Creates a sink that writes SVG documents to pOutput.
+	 * 
+	 * @param pOutput The destination of the SVG text.
+	 * @pre pOutput != null
+	 */
+	public SvgExportSink(A pOutput)
+	{
+		assert pOutput != null;
+		aOutput = pOutput;
+	}
+	
+	@Override
+	public RenderingContext begin(Rectangle pBounds)
+	{
+		assert pBounds != null;
+		aContext = new SvgRenderingContext(pBounds, aOutput);
+		return aContext;
+	}
+	
+	/**
+	 * @return The output, to which the complete SVG document was written.
+	 */
+	@Override
+	public A end()
+	{
+		assert aContext != null;
+		aContext.finish();
+		aContext = null;
+		return aOutput;
+	}
+}
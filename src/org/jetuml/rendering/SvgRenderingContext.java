@@ -20,10 +20,9 @@
  *******************************************************************************/
 package org.jetuml.rendering;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
-import java.util.StringJoiner;
-import java.util.stream.Collectors;
 
 import org.jetuml.geom.Alignment;
 import org.jetuml.geom.Rectangle;
@@ -39,6 +38,11 @@ import javafx.scene.text.Font;
 
 /**
  * Represents an object that can build an SVG image.
+ * 
+ * Each element is written to an output as soon as it is drawn, so the memory 
+ * used does not depend on the size of the diagram. The text of an element
+ * is built in a single reusable buffer before being appended to the output.
+ * Errors writing to the output are reported with an UncheckedIOException.
  */
 public class SvgRenderingContext implements RenderingContext
 {
@@ -54,80 +58,138 @@ public class SvgRenderingContext implements RenderingContext
 	/* Amount of pixels to subtract from the font size, to make sure it fits. */
 	private static final float FONT_ADJUSTMENT = 0.25f;
 	
-	private final StringJoiner aSvg = new StringJoiner("\n");
+	private static final String SHADOW_STYLE = " stroke=\"none\" fill=\"lightgray\" style=\"filter:url(#shadow);\"/>";
+	
+	private final Appendable aOutput;
+	private final StringBuilder aBuffer = new StringBuilder();
 	
 	/**
-	 * Creates an SVG image using pViewport as the viewport area. The viewport is the area to 
-	 * render. The viewport effectively translates the coordinates of the diagram to render
-	 * in the final SVG image.
+	 * Creates an SVG image using pViewport as the viewport area, which is built 
+	 * in memory and returned by create().
+	 * 
 	 * @param pViewport A rectangle describing the coordinate area to use as SVG viewport.
+	 * @see #SvgRenderingContext(Rectangle, Appendable)
 	 */
 	public SvgRenderingContext(Rectangle pViewport)
 	{
-		final String rootStartTemplate = "<svg "
-				+ "viewBox=\"%d %d %d %d\" "
-				+ "xmlns=\"http://www.w3.org/2000/svg\">\n"
-				+ "<defs><filter id=\"shadow\" x=\"-10%%\" y=\"-10%%\">\n"
-				+ "  <feGaussianBlur in=\"SourceGraphic\" stdDeviation=\"1\" />\n"
-				+ "</filter></defs>"
-				+ "<g transform=\"translate(0.5,0.5)\" stroke-width=\"0.75\">";
-		
-//		aSvg.add(String.format(rootStartTemplate,
-//				pViewport.x() - MARGIN,
-//				pViewport.y() - MARGIN,
-//				pViewport.width() + MARGIN * 2,
-//				pViewport.height() + MARGIN * 2,
-//				(pViewport.width() + MARGIN) * 2,
-//				(pViewport.width() + MARGIN) * 2));
-		aSvg.add(String.format(rootStartTemplate,
-				pViewport.x() - MARGIN,
-				pViewport.y() - MARGIN,
-				pViewport.width() + MARGIN * 2,
-				pViewport.height() + MARGIN * 2));
+		this(pViewport, new StringBuilder());
+	}
+	
+	/**
+	 * Creates an SVG image using pViewport as the viewport area, and writes it to
+	 * pOutput. The viewport is the area to render. The viewport effectively translates 
+	 * the coordinates of the diagram to render in the final SVG image. The image is 
+	 * complete once finish() has been called. The context does not do any buffering.
+	 * 
+	 * @param pViewport A rectangle describing the coordinate area to use as SVG viewport.
+	 * @param pOutput The destination of the SVG text.
+	 * @pre pViewport != null && pOutput != null
+	 */
+	public SvgRenderingContext(Rectangle pViewport, Appendable pOutput)
+	{
+		assert pViewport != null && pOutput != null;
+		aOutput = pOutput;
+		aBuffer.append("<svg viewBox=\"")
+			.append(pViewport.x() - MARGIN).append(' ')
+			.append(pViewport.y() - MARGIN).append(' ')
+			.append(pViewport.width() + MARGIN * 2).append(' ')
+			.append(pViewport.height() + MARGIN * 2)
+			.append("\" xmlns=\"http://www.w3.org/2000/svg\">\n")
+			.append("<defs><filter id=\"shadow\" x=\"-10%\" y=\"-10%\">\n")
+			.append("  <feGaussianBlur in=\"SourceGraphic\" stdDeviation=\"1\" />\n")
+			.append("</filter></defs>")
+			.append("<g transform=\"translate(0.5,0.5)\" stroke-width=\"0.75\">");
+		flush();
+	}
+	
+	/*
+	 * Starts a new element on a new line.
+	 */
+	private StringBuilder element(String pName)
+	{
+		return aBuffer.append('\n').append('<').append(pName);
+	}
+	
+	private StringBuilder attribute(String pName, long pValue)
+	{
+		return aBuffer.append(' ').append(pName).append("=\"").append(pValue).append('"');
+	}
+	
+	/*
+	 * Writes the content of the buffer to the output, and clears it.
+	 */
+	private void flush()
+	{
+		try
+		{
+			aOutput.append(aBuffer);
+		}
+		catch(IOException exception)
+		{
+			throw new UncheckedIOException(exception);
+		}
+		aBuffer.setLength(0);
 	}
 	
 	@Override
 	public void strokeLine(int pX1, int pY1, int pX2, int pY2, Color pColor, LineStyle pStyle)
 	{
-		final String templateLine = "<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"black\"%s/>";
-		aSvg.add(String.format(templateLine, pX1, pY1, pX2, pY2, lineStyle(pStyle)));
+		element("line");
+		attribute("x1", pX1);
+		attribute("y1", pY1);
+		attribute("x2", pX2);
+		attribute("y2", pY2);
+		aBuffer.append(" stroke=\"black\"");
+		appendLineStyle(pStyle);
+		aBuffer.append("/>");
+		flush();
 	}
 	
-	private static String lineStyle(LineStyle pLineStyle)
+	private void appendLineStyle(LineStyle pLineStyle)
 	{
 		if (pLineStyle == LineStyle.DOTTED)
 		{
-			String dashes = Arrays.stream(pLineStyle.getLineDashes())
-					.mapToObj(d -> Double.toString(d))
-					.collect(Collectors.joining(" "));
-			return String.format(" stroke-dasharray=\"%s\"", dashes);
+			aBuffer.append(" stroke-dasharray=\"");
+			double[] dashes = pLineStyle.getLineDashes();
+			for( int i = 0; i < dashes.length; i++ )
+			{
+				if( i > 0 )
+				{
+					aBuffer.append(' ');
+				}
+				aBuffer.append(dashes[i]);
+			}
+			aBuffer.append('"');
 		}
-		return "";
 	}
 
 	@Override
 	public void drawRectangle(Rectangle pRectangle, Color pFillColor, Color pStrokeColor,
 			Optional<DropShadow> pDropShadow)
 	{
-		final String templateRectangle = "<rect width=\"%d\" height=\"%d\" x=\"%d\" y=\"%d\""
-				+ " stroke=\"black\" fill=\"white\"/>";
-		final String templateRectangleShadow = "<rect width=\"%d\" height=\"%d\" x=\"%d\" y=\"%d\""
-				+ " stroke=\"none\" fill=\"lightgray\" style=\"filter:url(#shadow);\"/>";
-		pDropShadow.ifPresent(dropShadow -> 
-			aSvg.add(String.format(templateRectangleShadow, 
-					pRectangle.width(), pRectangle.height(), pRectangle.x()+2, pRectangle.y()+2)));
-		aSvg.add(String.format(templateRectangle, pRectangle.width(), pRectangle.height(), pRectangle.x(), pRectangle.y()));
+		if( pDropShadow.isPresent() )
+		{
+			appendRectangle(pRectangle, 2);
+			aBuffer.append(SHADOW_STYLE);
+		}
+		appendRectangle(pRectangle, 0);
+		aBuffer.append(" stroke=\"black\" fill=\"white\"/>");
+		flush();
+	}
+	
+	private void appendRectangle(Rectangle pRectangle, int pOffset)
+	{
+		element("rect");
+		attribute("width", pRectangle.width());
+		attribute("height", pRectangle.height());
+		attribute("x", pRectangle.x() + pOffset);
+		attribute("y", pRectangle.y() + pOffset);
 	}
 
 	@Override
 	public void drawOval(int pX, int pY, int pWidth, int pHeight, Color pFillColor, Color pStrokeColor,
 			Optional<DropShadow> pShadow)
 	{
-		final String templateOval = "<ellipse rx=\"%d\" ry=\"%d\" cx=\"%d\" cy=\"%d\"" 
-				+ " stroke=\"black\" fill=\"%s\"/>";
-		final String templateOvalShadow = "<ellipse rx=\"%d\" ry=\"%d\" cx=\"%d\" cy=\"%d\"" 
-				+ " stroke=\"none\" fill=\"lightgray\" style=\"filter:url(#shadow);\"/>";
-		
 		String color = "white";
 		if (pFillColor != Color.WHITE)
 		{
@@ -135,9 +197,21 @@ public class SvgRenderingContext implements RenderingContext
 		}
 		if (pShadow.isPresent())
 		{
-			aSvg.add(String.format(templateOvalShadow, pWidth/2, pHeight/2, pX+pWidth/2+2, pY+pHeight/2+2, color));
+			appendOval(pX + 2, pY + 2, pWidth, pHeight);
+			aBuffer.append(SHADOW_STYLE);
 		}
-		aSvg.add(String.format(templateOval, pWidth/2, pHeight/2, pX+pWidth/2, pY+pHeight/2, color));
+		appendOval(pX, pY, pWidth, pHeight);
+		aBuffer.append(" stroke=\"black\" fill=\"").append(color).append("\"/>");
+		flush();
+	}
+	
+	private void appendOval(int pX, int pY, int pWidth, int pHeight)
+	{
+		element("ellipse");
+		attribute("rx", pWidth/2);
+		attribute("ry", pHeight/2);
+		attribute("cx", pX + pWidth/2);
+		attribute("cy", pY + pHeight/2);
 	}
 
 	@Override
@@ -150,8 +224,11 @@ public class SvgRenderingContext implements RenderingContext
 		int y1 = (int) (pCenterY + Math.round(Math.cos(startAngle) * pRadius));
 		int x2 = (int) (pCenterX + Math.round(Math.sin(endAngle) * pRadius));
 		int y2 = (int) (pCenterY + Math.round(Math.cos(endAngle) * pRadius));
-		final String templateArc = "<path d=\"M %d %d A %d %d 0 1 1 %d %d\" stroke=\"black\" fill=\"none\"/>";
-		aSvg.add(String.format(templateArc, x1, y1, pRadius, pRadius, x2, y2));
+		element("path").append(" d=\"M ").append(x1).append(' ').append(y1)
+			.append(" A ").append(pRadius).append(' ').append(pRadius)
+			.append(" 0 1 1 ").append(x2).append(' ').append(y2)
+			.append("\" stroke=\"black\" fill=\"none\"/>");
+		flush();
 	}
 
 	@Override
@@ -162,32 +239,44 @@ public class SvgRenderingContext implements RenderingContext
 	
 	private void strokePath(Path pPath, LineStyle pStyle, String pFill, boolean pShadow)
 	{
-		StringJoiner path = new StringJoiner(" ", "<path d=\"", 
-				String.format("\" stroke=\"black\" fill=\"%s\"%s/>", pFill, lineStyle(pStyle)));
-		if (pShadow)
-		{
-			path = new StringJoiner(" ", "<path d=\"", 
-					String.format("\" stroke=\"none\" fill=\"lightGray\"  "
-							+ "transform=\"translate(2 2)\" style=\"filter:url(#shadow);\"/>"));
-		}
+		element("path").append(" d=\"");
+		boolean first = true;
 		for(PathElement element : pPath.getElements())
 		{
+			if( !first && (element instanceof MoveTo || element instanceof LineTo || element instanceof QuadCurveTo) )
+			{
+				aBuffer.append(' ');
+			}
 			if (element instanceof MoveTo moveTo)
 			{
-				path.add("M " + Math.round(moveTo.getX()) + " " + Math.round(moveTo.getY()));
+				aBuffer.append("M ").append(Math.round(moveTo.getX())).append(' ').append(Math.round(moveTo.getY()));
+				first = false;
 			}
 			else if (element instanceof LineTo lineTo)
 			{
-				path.add("L " + Math.round(lineTo.getX()) + " " + Math.round(lineTo.getY()));
+				aBuffer.append("L ").append(Math.round(lineTo.getX())).append(' ').append(Math.round(lineTo.getY()));
+				first = false;
 			}
 			else if (element instanceof QuadCurveTo curve)
 			{
-				path.add("Q " + Math.round(curve.getControlX()) + " " + 
-						Math.round(curve.getControlY()) + " " + 
-						Math.round(curve.getX()) + " " + Math.round(curve.getY()));
+				aBuffer.append("Q ").append(Math.round(curve.getControlX())).append(' ')
+					.append(Math.round(curve.getControlY())).append(' ')
+					.append(Math.round(curve.getX())).append(' ').append(Math.round(curve.getY()));
+				first = false;
 			}
 		}
-		aSvg.add(path.toString());
+		if (pShadow)
+		{
+			aBuffer.append("\" stroke=\"none\" fill=\"lightGray\"  "
+					+ "transform=\"translate(2 2)\" style=\"filter:url(#shadow);\"/>");
+		}
+		else
+		{
+			aBuffer.append("\" stroke=\"black\" fill=\"").append(pFill).append('"');
+			appendLineStyle(pStyle);
+			aBuffer.append("/>");
+		}
+		flush();
 	}
 
 	@Override
@@ -217,13 +306,14 @@ public class SvgRenderingContext implements RenderingContext
 	public void drawRoundedRectangle(Rectangle pRectangle, Color pFillColor, Color pStrokeColor,
 			Optional<DropShadow> pDropShadow)
 	{
-		final String templateRoundedRectangle = "<rect width=\"%d\" height=\"%d\" x=\"%d\" y=\"%d\" rx=\"10\" ry=\"10\"" 
-				+ " stroke=\"black\" fill=\"white\"/>";
-		final String templateRoundedRectangleShadow = "<rect width=\"%d\" height=\"%d\" x=\"%d\" y=\"%d\" rx=\"10\" ry=\"10\"" 
-				+ " stroke=\"none\" fill=\"lightGray\" style=\"filter:url(#shadow);\"/>";		
-		pDropShadow.ifPresent(shadow -> aSvg.add(String.format(templateRoundedRectangleShadow, 
-				pRectangle.width(), pRectangle.height(), pRectangle.x() + 2, pRectangle.y() +2)));
-		aSvg.add(String.format(templateRoundedRectangle, pRectangle.width(), pRectangle.height(), pRectangle.x(), pRectangle.y()));
+		if( pDropShadow.isPresent() )
+		{
+			appendRectangle(pRectangle, 2);
+			aBuffer.append(" rx=\"10\" ry=\"10\" stroke=\"none\" fill=\"lightGray\" style=\"filter:url(#shadow);\"/>");
+		}
+		appendRectangle(pRectangle, 0);
+		aBuffer.append(" rx=\"10\" ry=\"10\" stroke=\"black\" fill=\"white\"/>");
+		flush();
 	}
 
 	@Override
@@ -250,27 +340,72 @@ public class SvgRenderingContext implements RenderingContext
 			style = "italic";
 		}
 		
-		final String templateText = "<text x=\"%d\" y=\"%d\" "
-				+ "font-size=\"%.2fpx\" "
-				+ "font-family=\"Arial, Helvetica, sans-serif\" "
-				+ "font-weight=\"%s\" "
-				+ "font-style=\"%s\" "
-				+ "text-anchor=\"%s\">%s</text>";
-
-		aSvg.add(String.format(templateText, anchorX, anchorY, pFont.getSize() - FONT_ADJUSTMENT, weight, style, anchor, escapeText(pText)));
+		element("text");
+		attribute("x", anchorX);
+		attribute("y", anchorY);
+		aBuffer.append(" font-size=\"");
+		appendHundredths(pFont.getSize() - FONT_ADJUSTMENT);
+		aBuffer.append("px\" font-family=\"Arial, Helvetica, sans-serif\" font-weight=\"").append(weight)
+			.append("\" font-style=\"").append(style)
+			.append("\" text-anchor=\"").append(anchor).append("\">");
+		appendEscaped(pText);
+		aBuffer.append("</text>");
+		flush();
 	}
 	
-	private static String escapeText(String pText)
+	/*
+	 * Appends pValue, which must not be negative, rounded to two decimals.
+	 */
+	private void appendHundredths(double pValue)
+	{
+		long hundredths = Math.round(pValue * 100);
+		aBuffer.append(hundredths / 100).append('.');
+		if( hundredths % 100 < 10 )
+		{
+			aBuffer.append('0');
+		}
+		aBuffer.append(hundredths % 100);
+	}
+	
+	private void appendEscaped(String pText)
+	{
+		for( int i = 0; i < pText.length(); i++ )
+		{
+			char character = pText.charAt(i);
+			if( character == '<' )
+			{
+				aBuffer.append("&lt;");
+			}
+			else if( character == '>' )
+			{
+				aBuffer.append("&gt;");
+			}
+			else
+			{
+				aBuffer.append(character);
+			}
+		}
+	}
+	
+	/**
+	 * Writes the end of the SVG image to the output. Should only be called
+	 * once, after the last drawing operation.
+	 */
+	public void finish()
 	{
-		return pText.replace("<", "&lt;").replace(">", "&gt;");
+		aBuffer.append("\n</g></svg>");
+		flush();
 	}
 	
 	/**
+	 * Ends the SVG image and returns it. Only meaningful for a context that 
+	 * builds the image in memory.
+	 * 
 	 * @return The completed svg file. Should only be called once.
 	 */
 	public String create()
 	{
-		final String rootEnd = "</g></svg>";
-		return aSvg.add(rootEnd).toString();
+		finish();
+		return aOutput.toString();
 	}
 }
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import org.jetuml.geom.Dimension;
+
+/**
+ * Measures text drawn with a given font. StringRenderer only uses its text
+ * metrics while holding a lock, so implementations do not need to be 
+ * thread-safe.
+ */
+public interface TextMetrics
+{
+	/**
+	 * Returns the width and height of pString drawn with pFont, where each line
+	 * of pString is drawn below the previous one.
+	 * 
+	 * @param pString The text to measure.
+	 * @param pFont The font of the text.
+	 * @return The dimension of the bounds of pString.
+	 * @pre pString != null && pFont != null
+	 */
+	Dimension getDimension(String pString, FontDescription pFont);
+	
+	/**
+	 * Returns the distance between the top and baseline of a single line of text.
+	 * 
+	 * @param pFont The font of the text.
+	 * @return The distance above the baseline.
+	 * @pre pFont != null
+	 */
+	int getBaselineOffset(FontDescription pFont);
+	
+	/**
+	 * @param pFont The font of the text.
+	 * @return The height of one line of text drawn with pFont.
+	 * @pre pFont != null
+	 */
+	default int lineHeight(FontDescription pFont)
+	{
+		return getDimension("|", pFont).height();
+	}
+}
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import java.awt.Image;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Vector;
+
+import org.jetuml.geom.Rectangle;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * An opaque image of a diagram, with the same margin as RasterExportSink,
+ * whose pixels are rendered only when they are requested. The image is made of 
+ * horizontal strips, each of which is drawn as a row of square tiles on a small
+ * JavaFX canvas. Only the last strip requested is kept, so that an ImageWriter 
+ * that reads the image one row at a time, such as the ones for PNG and BMP, 
+ * uses an amount of memory that depends on the width of the image and the size
+ * of the tiles, but not on the height of the image. The size of the canvas does 
+ * not depend on the size of the diagram.
+ * 
+ * The pixels must be requested on the JavaFX application thread, and the 
+ * diagram must not change while they are.
+ */
+public final class TiledDiagramImage implements RenderedImage
+{
+	private static final int TILE_SIZE = 256;
+	private static final ColorModel COLOR_MODEL = new DirectColorModel(24, 0xff0000, 0xff00, 0xff);
+	
+	private final ExportPipeline aPipeline;
+	private final Color aBackground;
+	private final int aTileSize;
+	private final Rectangle aArea; // The area of the diagram covered by the image
+	private final SampleModel aSampleModel;
+	private final Canvas aCanvas;
+	private final WritableImage aTile;
+	private WritableRaster aStrip;
+	private int aStripIndex = -1;
+	
+	/**
+	 * Creates an image of the diagram exported by pPipeline over pBackground.
+	 * 
+	 * @param pPipeline The pipeline that exports the diagram.
+	 * @param pBackground The color of the background of the image.
+	 * @pre pPipeline != null && pBackground != null
+	 */
+	public TiledDiagramImage(ExportPipeline pPipeline, Color pBackground)
+	{
+		this(pPipeline, pBackground, TILE_SIZE);
+	}
+	
+	TiledDiagramImage(ExportPipeline pPipeline, Color pBackground, int pTileSize)
+	{
+		assert pPipeline != null && pBackground != null && pTileSize > 0;
+		aPipeline = pPipeline;
+		aBackground = pBackground;
+		aTileSize = pTileSize;
+		Rectangle bounds = pPipeline.bounds();
+		aArea = new Rectangle(bounds.x() - RasterExportSink.PADDING, bounds.y() - RasterExportSink.PADDING, 
+				bounds.width() + RasterExportSink.PADDING * 2, bounds.height() + RasterExportSink.PADDING * 2);
+		aSampleModel = COLOR_MODEL.createCompatibleSampleModel(aArea.width(), pTileSize);
+		aCanvas = new Canvas(pTileSize, pTileSize);
+		aTile = new WritableImage(pTileSize, pTileSize);
+	}
+	
+	/*
+	 * Draws the strip at pIndex, one tile at a time, unless it is the last 
+	 * strip drawn.
+	 */
+	private WritableRaster strip(int pIndex)
+	{
+		assert pIndex >= 0 && pIndex < getNumYTiles();
+		if( pIndex == aStripIndex )
+		{
+			return aStrip;
+		}
+		aStrip = Raster.createWritableRaster(aSampleModel, new java.awt.Point(0, pIndex * aTileSize));
+		aStripIndex = pIndex;
+		int[] pixels = ((DataBufferInt) aStrip.getDataBuffer()).getData();
+		int y = pIndex * aTileSize;
+		int height = Math.min(aTileSize, getHeight() - y);
+		for( int x = 0; x < getWidth(); x += aTileSize )
+		{
+			drawTile(x, y);
+			aTile.getPixelReader().getPixels(0, 0, Math.min(aTileSize, getWidth() - x), height, 
+					PixelFormat.getIntArgbInstance(), pixels, x, getWidth());
+		}
+		return aStrip;
+	}
+	
+	/*
+	 * Draws the part of the image whose top-left corner is at (pX, pY) in aTile.
+	 */
+	private void drawTile(int pX, int pY)
+	{
+		GraphicsContext context = aCanvas.getGraphicsContext2D();
+		context.setTransform(1, 0, 0, 1, 0, 0);
+		context.setFill(aBackground);
+		context.fillRect(0, 0, aTileSize, aTileSize);
+		context.translate(-aArea.x() - pX, -aArea.y() - pY);
+		aPipeline.draw(new GraphicsRenderingContext(context), 
+				new Rectangle(aArea.x() + pX, aArea.y() + pY, aTileSize, aTileSize));
+		aCanvas.snapshot(null, aTile);
+	}
+
+	@Override
+	public Vector<RenderedImage> getSources()
+	{
+		return null;
+	}
+
+	@Override
+	public Object getProperty(String pName)
+	{
+		return Image.UndefinedProperty;
+	}
+
+	@Override
+	public String[] getPropertyNames()
+	{
+		return null;
+	}
+
+	@Override
+	public ColorModel getColorModel()
+	{
+		return COLOR_MODEL;
+	}
+
+	@Override
+	public SampleModel getSampleModel()
+	{
+		return aSampleModel;
+	}
+
+	@Override
+	public int getWidth()
+	{
+		return aArea.width();
+	}
+
+	@Override
+	public int getHeight()
+	{
+		return aArea.height();
+	}
+
+	@Override
+	public int getMinX()
+	{
+		return 0;
+	}
+
+	@Override
+	public int getMinY()
+	{
+		return 0;
+	}
+
+	@Override
+	public int getNumXTiles()
+	{
+		return 1;
+	}
+
+	@Override
+	public int getNumYTiles()
+	{
+		return Math.ceilDiv(getHeight(), aTileSize);
+	}
+
+	@Override
+	public int getMinTileX()
+	{
+		return 0;
+	}
+
+	@Override
+	public int getMinTileY()
+	{
+		return 0;
+	}
+
+	@Override
+	public int getTileWidth()
+	{
+		return getWidth();
+	}
+
+	@Override
+	public int getTileHeight()
+	{
+		return aTileSize;
+	}
+
+	@Override
+	public int getTileGridXOffset()
+	{
+		return 0;
+	}
+
+	@Override
+	public int getTileGridYOffset()
+	{
+		return 0;
+	}
+
+	@Override
+	public Raster getTile(int pTileX, int pTileY)
+	{
+		assert pTileX == 0;
+		return strip(pTileY);
+	}
+
+	@Override
+	public Raster getData()
+	{
+		return getData(new java.awt.Rectangle(0, 0, getWidth(), getHeight()));
+	}
+
+	@Override
+	public Raster getData(java.awt.Rectangle pRegion)
+	{
+		return copyData(COLOR_MODEL.createCompatibleWritableRaster(pRegion.width, pRegion.height)
+				.createWritableTranslatedChild(pRegion.x, pRegion.y));
+	}
+
+	@Override
+	public WritableRaster copyData(WritableRaster pRaster)
+	{
+		WritableRaster raster = pRaster;
+		if( raster == null )
+		{
+			raster = COLOR_MODEL.createCompatibleWritableRaster(getWidth(), getHeight());
+		}
+		java.awt.Rectangle region = raster.getBounds().intersection(new java.awt.Rectangle(0, 0, getWidth(), getHeight()));
+		if( region.isEmpty() )
+		{
+			return raster;
+		}
+		for( int index = region.y / aTileSize; index * aTileSize < region.y + region.height; index++ )
+		{
+			WritableRaster strip = strip(index);
+			java.awt.Rectangle overlap = region.intersection(strip.getBounds());
+			raster.setRect(strip.createChild(overlap.x, overlap.y, overlap.width, overlap.height, 
+					overlap.x, overlap.y, null));
+		}
+		return raster;
+	}
+}
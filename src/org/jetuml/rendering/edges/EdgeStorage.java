@@ -21,22 +21,50 @@
 package org.jetuml.rendering.edges;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
 
 import org.jetuml.diagram.Edge;
 import org.jetuml.diagram.Node;
+import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
 import org.jetuml.rendering.EdgePath;
 
 /**
  * Stores the EdgePaths of Edges for class diagrams.
+ * 
+ * To keep the queries of the layout algorithm from scanning every stored path,
+ * the storage maintains three indexes alongside the paths: the stored edges attached
+ * to each node, the number of paths that start or end at each connection point, and the 
+ * horizontal and vertical segments of the paths sorted by their y and x coordinate, 
+ * respectively. The node index reflects the nodes an edge was attached to when
+ * it was stored, so an edge that is reconnected must be stored again.
  */
 public class EdgeStorage
 {
-	private Map<Edge, EdgePath> aEdgePaths = new IdentityHashMap<>();
+	private Map<Edge, StoredPath> aEdgePaths = new IdentityHashMap<>();
+	private Map<Node, List<Edge>> aEdgesByNode = new IdentityHashMap<>();
+	private Map<Point, Integer> aConnectionPoints = new HashMap<>();
+	private NavigableMap<Integer, List<Segment>> aHorizontalSegments = new TreeMap<>();
+	private NavigableMap<Integer, List<Segment>> aVerticalSegments = new TreeMap<>();
+	private List<Segment> aDiagonalSegments = new ArrayList<>();
+	
+	/*
+	 * A stored path with the nodes its edge was attached to when it was stored.
+	 */
+	private record StoredPath(EdgePath path, Node start, Node end) {}
+	
+	/*
+	 * A segment of the path of a stored edge.
+	 */
+	private record Segment(Edge edge, Line line) {}
  	
  	/**
  	 * Adds pEdge and pEdgePath into storage.
@@ -48,7 +76,19 @@ public class EdgeStorage
  	public void store(Edge pEdge, EdgePath pEdgePath)
  	{
  		assert pEdge!=null && pEdgePath!=null;
- 		aEdgePaths.put(pEdge, pEdgePath);
+ 		remove(pEdge);
+ 		aEdgePaths.put(pEdge, new StoredPath(pEdgePath, pEdge.start(), pEdge.end()));
+ 		aEdgesByNode.computeIfAbsent(pEdge.start(), node -> new ArrayList<>()).add(pEdge);
+ 		if( pEdge.end() != pEdge.start() )
+ 		{
+ 			aEdgesByNode.computeIfAbsent(pEdge.end(), node -> new ArrayList<>()).add(pEdge);
+ 		}
+ 		aConnectionPoints.merge(pEdgePath.getStartPoint(), 1, Integer::sum);
+ 		aConnectionPoints.merge(pEdgePath.getEndPoint(), 1, Integer::sum);
+ 		for( Segment segment : segments(pEdge, pEdgePath) )
+ 		{
+ 			segmentsOfSameKind(segment.line()).add(segment);
+ 		}
  	}
  
  	
@@ -72,7 +112,7 @@ public class EdgeStorage
  	{
  		assert pEdge!=null;
  		assert this.contains(pEdge);
- 		return aEdgePaths.get(pEdge);
+ 		return aEdgePaths.get(pEdge).path();
 	
  	}
  	
@@ -97,15 +137,7 @@ public class EdgeStorage
 	public List<Edge> edgesConnectedTo(Node pNode)
 	{
 		assert pNode != null;
-		List<Edge> result = new ArrayList<>();
-		for( Edge edge : aEdgePaths.keySet() )
-		{
-			if( edge.start() == pNode || edge.end() == pNode )
-			{
-				result.add(edge);
-			}
-		}
-		return result;
+		return new ArrayList<>(aEdgesByNode.getOrDefault(pNode, Collections.emptyList()));
 	}
 	
 	/**
@@ -117,14 +149,7 @@ public class EdgeStorage
 	public boolean connectionPointIsAvailable(Point pConnectionPoint)
 	{
 		assert pConnectionPoint !=null;
-		for( EdgePath path : aEdgePaths.values() )
-		{
-			if(path.getStartPoint().equals(pConnectionPoint) || path.getEndPoint().equals(pConnectionPoint))
-			{
-				return false;
-			}
-		}
-		return true;
+		return !aConnectionPoints.containsKey(pConnectionPoint);
 	}
 	
 	/**
@@ -135,11 +160,80 @@ public class EdgeStorage
 	 */
 	public List<Edge> getEdgesWithSameNodes(Edge pEdge)
 	{
-		return aEdgePaths.keySet().stream()
+		// Any such edge is attached to pEdge.end(), unless it is a self-edge on pEdge.start()
+		List<Edge> candidates = new ArrayList<>(aEdgesByNode.getOrDefault(pEdge.end(), Collections.emptyList()));
+		if( pEdge.start() != pEdge.end() )
+		{
+			aEdgesByNode.getOrDefault(pEdge.start(), Collections.emptyList()).stream()
+				.filter(edge -> edge.start() != pEdge.end() && edge.end() != pEdge.end())
+				.forEach(candidates::add);
+		}
+		return candidates.stream()
 				.filter(edge -> edge.start() == pEdge.start() || edge.start() == pEdge.end())
 				.filter(edge -> edge.end() == pEdge.start() || edge.end() == pEdge.end())
 				.filter(edge -> !edge.equals(pEdge))
-				.collect(Collectors.toList());
+				.toList();
+	}
+	
+	/**
+	 * Returns the stored edges with at least one path segment whose bounds
+	 * intersect pArea. Each edge is reported once.
+	 * @param pArea the area of interest
+	 * @return the edges whose path passes through pArea, in no particular order
+	 * @pre pArea != null
+	 */
+	public List<Edge> edgesCrossing(Rectangle pArea)
+	{
+		assert pArea != null;
+		Set<Edge> result = Collections.newSetFromMap(new IdentityHashMap<>());
+		for( List<Segment> segments : aHorizontalSegments.subMap(pArea.y(), true, pArea.maxY(), true).values() )
+		{
+			segments.stream()
+				.filter(segment -> segment.line().spanning().intersects(pArea))
+				.forEach(segment -> result.add(segment.edge()));
+		}
+		for( List<Segment> segments : aVerticalSegments.subMap(pArea.x(), true, pArea.maxX(), true).values() )
+		{
+			segments.stream()
+				.filter(segment -> segment.line().spanning().intersects(pArea))
+				.forEach(segment -> result.add(segment.edge()));
+		}
+		aDiagonalSegments.stream()
+			.filter(segment -> segment.line().spanning().intersects(pArea))
+			.forEach(segment -> result.add(segment.edge()));
+		return new ArrayList<>(result);
+	}
+	
+	/**
+	 * Removes pEdge and its EdgePath from storage, if it is stored.
+	 * @param pEdge the edge to remove
+	 * @pre pEdge != null
+	 */
+	public void remove(Edge pEdge)
+	{
+		assert pEdge != null;
+		StoredPath stored = aEdgePaths.remove(pEdge);
+		if( stored == null )
+		{
+			return;
+		}
+		removeFromNode(stored.start(), pEdge);
+		removeFromNode(stored.end(), pEdge);
+		releaseConnectionPoint(stored.path().getStartPoint());
+		releaseConnectionPoint(stored.path().getEndPoint());
+		for( Segment segment : segments(pEdge, stored.path()) )
+		{
+			List<Segment> segments = segmentsOfSameKind(segment.line());
+			segments.remove(segment);
+			if( segments.isEmpty() && segment.line().isHorizontal() )
+			{
+				aHorizontalSegments.remove(segment.line().y1());
+			}
+			else if( segments.isEmpty() && segment.line().isVertical() )
+			{
+				aVerticalSegments.remove(segment.line().x1());
+			}
+		}
 	}
 	
 	/**
@@ -148,5 +242,58 @@ public class EdgeStorage
 	public void clearStorage()
 	{
 		aEdgePaths.clear();
+		aEdgesByNode.clear();
+		aConnectionPoints.clear();
+		aHorizontalSegments.clear();
+		aVerticalSegments.clear();
+		aDiagonalSegments.clear();
+	}
+	
+	private void removeFromNode(Node pNode, Edge pEdge)
+	{
+		List<Edge> edges = aEdgesByNode.get(pNode);
+		if( edges != null )
+		{
+			edges.remove(pEdge);
+			if( edges.isEmpty() )
+			{
+				aEdgesByNode.remove(pNode);
+			}
+		}
+	}
+	
+	private void releaseConnectionPoint(Point pPoint)
+	{
+		aConnectionPoints.computeIfPresent(pPoint, (point, count) -> count == 1 ? null : count - 1);
+	}
+	
+	/*
+	 * Returns the list of the index that holds segments with the orientation of pLine,
+	 * creating it if necessary. Single points count as horizontal segments.
+	 */
+	private List<Segment> segmentsOfSameKind(Line pLine)
+	{
+		if( pLine.isHorizontal() )
+		{
+			return aHorizontalSegments.computeIfAbsent(pLine.y1(), y -> new ArrayList<>());
+		}
+		else if( pLine.isVertical() )
+		{
+			return aVerticalSegments.computeIfAbsent(pLine.x1(), x -> new ArrayList<>());
+		}
+		else
+		{
+			return aDiagonalSegments;
+		}
+	}
+	
+	private static List<Segment> segments(Edge pEdge, EdgePath pPath)
+	{
+		List<Segment> result = new ArrayList<>();
+		for( int i = 0; i < pPath.size() - 1; i++ )
+		{
+			result.add(new Segment(pEdge, new Line(pPath.getPointByIndex(i), pPath.getPointByIndex(i + 1))));
+		}
+		return result;
 	}
 }
@@ -44,12 +44,14 @@ public abstract class AbstractNodeRenderer implements NodeRenderer
 	public static final int BUTTON_SIZE = 25;
 	public static final int OFFSET = 3;
 	
-	private NodeStorage aNodeStorage = new NodeStorage();
+	/* Null if the parent renderer has no diagram, in which case bounds are not stored. */
+	private final NodeStorage aNodeStorage;
 	private final DiagramRenderer aParent;
 	
 	protected AbstractNodeRenderer(DiagramRenderer pParent)
 	{
 		aParent = pParent;
+		aNodeStorage = pParent.diagram() == null ? null : new NodeStorage(pParent.diagram());
 	}
 	
 	protected DiagramRenderer parent()
@@ -102,19 +104,21 @@ public abstract class AbstractNodeRenderer implements NodeRenderer
 	@Override
 	public final Rectangle getBounds(DiagramElement pElement)
 	{
-		return aNodeStorage.getBounds((Node)pElement, this::internalGetBounds);
+		if( aNodeStorage == null )
+		{
+			return internalGetBounds((Node) pElement);
+		}
+		return aNodeStorage.getBounds((Node)pElement, layoutVersion(), this::internalGetBounds);
 	}
 	
-	@Override
-	public final void activateNodeStorage()
-	{
-		aNodeStorage.activate();
-	}
-	
-	@Override
-	public final void deactivateAndClearNodeStorage() 
+	/**
+	 * @return A number that changes whenever the layout of the diagram changes
+	 *     in a way that can affect the bounds of the nodes of this renderer. 
+	 *     By default, the bounds of a node only depend on the nodes of its tree.
+	 */
+	protected int layoutVersion()
 	{
-		aNodeStorage.deactivateAndClear();
+		return 0;
 	}
 	
 	/**
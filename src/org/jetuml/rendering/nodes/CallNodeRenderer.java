@@ -119,6 +119,12 @@ public final class CallNodeRenderer extends AbstractNodeRenderer
 		return new Rectangle(getX(pNode), y, WIDTH, maxY-y);
 	}
 	
+	@Override
+	protected int layoutVersion()
+	{
+		return parent().layoutVersion();
+	}
+	
 	@Override
 	protected SequenceDiagramRenderer parent()
 	{
@@ -87,12 +87,12 @@ public final class FieldNodeRenderer extends AbstractNodeRenderer
 				pContext);
 	}
 	
-	private static int getSplitPosition(Node pNode)
+	private int getSplitPosition(Node pNode)
 	{
 		ObjectNode parent = (ObjectNode)pNode.getParent();
 		if( parent != null )
 		{
-			return ObjectNodeRenderer.getSplitPosition(parent);
+			return objectNodeViewer().getSplitPosition(parent);
 		}
 		else
 		{
@@ -107,7 +107,7 @@ public final class FieldNodeRenderer extends AbstractNodeRenderer
 		final int height = getHeight(pNode);
 		if( pNode.hasParent() )
 		{
-			int yPosition = ObjectNodeRenderer.getYPosition(pNode.getParent(), (FieldNode) pNode);
+			int yPosition = objectNodeViewer().getYPosition(pNode.getParent(), (FieldNode) pNode);
 			Rectangle parentBounds = objectNodeViewer().getBounds(pNode.getParent());
 			return new Rectangle(parentBounds.x() + XGAP, yPosition, parentBounds.width() - 2*XGAP, height);
 		}
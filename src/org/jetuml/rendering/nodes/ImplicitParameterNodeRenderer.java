@@ -64,6 +64,9 @@ public final class ImplicitParameterNodeRenderer extends AbstractNodeRenderer
 	private static final StringRenderer LABEL_RENDERER = 
 			new StringRenderer(Alignment.CENTER, Decoration.UNDERLINED);
 	
+	/* The widths of the top rectangles, which depend on the names. */
+	private final NodeLayoutCache<Integer> aWidths = new NodeLayoutCache<>();
+	
 	/**
 	 * @param pParent The renderer for the parent diagram.
 	 */
@@ -114,14 +117,16 @@ public final class ImplicitParameterNodeRenderer extends AbstractNodeRenderer
 	}
 	
 	/*
-	 * @return The width of the top rectangle.
+	 * @return The width of the top rectangle, which is only computed again
+	 * when the node or the font preferences change.
 	 */
-	private static int getWidth(DiagramElement pElement)
+	private int getWidth(DiagramElement pElement)
 	{
 		assert pElement != null;
 		assert pElement instanceof ImplicitParameterNode;
-		int labelWidth = LABEL_RENDERER.getDimension(((ImplicitParameterNode)pElement).getName()).width();
-		return Math.max(labelWidth + HORIZONTAL_PADDING, DEFAULT_WIDTH);
+		String name = ((ImplicitParameterNode)pElement).getName();
+		return aWidths.get((Node) pElement, () -> 
+				Math.max(LABEL_RENDERER.getDimension(name).width() + HORIZONTAL_PADDING, DEFAULT_WIDTH));
 	}
 	
 	private Point getMaxXYofChildren(Node pNode)
@@ -171,6 +176,15 @@ public final class ImplicitParameterNodeRenderer extends AbstractNodeRenderer
 		return new Rectangle(pNode.position().x(), topRectangle.y(), width, height);
 	}
 	
+	/*
+	 * The lifeline extends to the last of the call nodes.
+	 */
+	@Override
+	protected int layoutVersion()
+	{
+		return ((SequenceDiagramRenderer)parent()).layoutVersion();
+	}
+	
 	@Override
 	public Canvas createIcon(DiagramType pDiagramType, DiagramElement pElement)
 	{
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering.nodes;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+import org.jetuml.diagram.Node;
+import org.jetuml.rendering.StringRenderer;
+
+/**
+ * Stores the layout of the text of nodes, such as the lines to draw and the size
+ * of the boxes that contain them, so that it does not need to be computed again
+ * every time a node is drawn or its bounds are requested.
+ *
+ * The layout of a node is stamped with the version of the node and with the
+ * version of the font preferences. It is computed again only if one of these
+ * changed. The stored layouts do not prevent nodes from being garbage-collected.
+ *
+ * @param <L> The type of the layouts.
+ */
+final class NodeLayoutCache<L>
+{
+	private final Map<Node, Entry<L>> aLayouts = new WeakHashMap<>();
+
+	private record Entry<L>(int version, int fontVersion, L layout) {}
+
+	/**
+	 * Returns the layout of pNode, from the cache if neither the node nor 
+	 * the font preferences have changed since it was stored, and from
+	 * pLayout otherwise.
+	 *
+	 * @param pNode The node whose layout to get.
+	 * @param pLayout Computes the layout of pNode.
+	 * @return The layout of pNode.
+	 * @pre pNode != null && pLayout != null
+	 */
+	L get(Node pNode, Supplier<L> pLayout)
+	{
+		assert pNode != null && pLayout != null;
+		Entry<L> entry = aLayouts.get(pNode);
+		if( entry == null || entry.version() != pNode.version() || 
+				entry.fontVersion() != StringRenderer.fontVersion() )
+		{
+			entry = new Entry<>(pNode.version(), StringRenderer.fontVersion(), pLayout.get());
+			aLayouts.put(pNode, entry);
+		}
+		return entry.layout();
+	}
+}
@@ -20,59 +20,110 @@
  *******************************************************************************/
 package org.jetuml.rendering.nodes;
 
- import java.util.IdentityHashMap;
- import java.util.Map;
- import java.util.function.Function;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
 
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramChange;
+import org.jetuml.diagram.DiagramChangeHandler;
+import org.jetuml.diagram.DiagramElement;
 import org.jetuml.diagram.Node;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.StringRenderer;
 
- /**
-  * Stores the bounds of nodes. 
-  */
- public class NodeStorage 
- {
- 	private Map<Node, Rectangle> aNodeBounds = new IdentityHashMap<>();
- 	private boolean aIsActivated = false;
+/**
+ * Stores the bounds of the nodes of a diagram, so that they do not need to be 
+ * computed again every time they are requested.
+ * 
+ * The storage is notified of the changes to the diagram. When a node moves or one
+ * of its properties changes, the bounds of all the nodes of its tree are discarded, 
+ * and when nodes are added, removed, or change parent, all the bounds are discarded. 
+ * The bounds are also stamped with the version of the font preferences and with a 
+ * version of the layout of the diagram supplied by the renderer, and computed again
+ * if one of these changed. The bounds of nodes that are not part of the diagram, and
+ * of all nodes during a batch of changes, are computed but not stored, because the
+ * storage is not notified of their changes yet. The stored bounds do not prevent 
+ * nodes from being garbage-collected.
+ */
+public class NodeStorage implements DiagramChangeHandler
+{
+	private final Diagram aDiagram;
+	private final Map<Node, Entry> aNodeBounds = new WeakHashMap<>();
+	
+	private record Entry(int fontVersion, int layoutVersion, Rectangle bounds) {}
+	
+	/**
+	 * Creates a storage for the bounds of the nodes of pDiagram.
+	 * 
+	 * @param pDiagram The diagram whose nodes are stored.
+	 * @pre pDiagram != null
+	 */
+	public NodeStorage(Diagram pDiagram)
+	{
+		assert pDiagram != null;
+		aDiagram = pDiagram;
+		aDiagram.addChangeHandler(this);
+	}
 
- 	/**
- 	 * Returns the bounds of the current node either from the storage or from the calculator.
- 	 * @param pNode the node of interest.
- 	 * @param pBoundCalculator the bound calculator.
- 	 * @return the bounds of pNode. 
- 	 */
- 	public Rectangle getBounds(Node pNode, Function<Node, Rectangle> pBoundCalculator)
- 	{
- 		if(!aIsActivated)
- 		{
- 			return pBoundCalculator.apply(pNode);
- 		}
- 		else if(aIsActivated && aNodeBounds.containsKey(pNode))
- 		{
- 			return aNodeBounds.get(pNode);
- 		}
- 		else
- 		{
- 			Rectangle computedBounds = pBoundCalculator.apply(pNode);
- 			aNodeBounds.put(pNode, computedBounds);
- 			return computedBounds;
- 		}
- 	}
-
- 	/**
- 	 * Activates the NodeStorage.
- 	 */
- 	public void activate() 
- 	{
- 		aIsActivated = true;
- 	}
-
- 	/**
- 	 * Deactivates and clears the NodeStorage.
- 	 */
- 	public void deactivateAndClear() 
- 	{
- 		aIsActivated = false;
- 		aNodeBounds.clear();
- 	}
- }
\ No newline at end of file
+	/**
+	 * Returns the bounds of pNode, either from the storage if neither pNode, its
+	 * tree, the font preferences nor the layout changed since they were stored, 
+	 * or from the calculator otherwise.
+	 * 
+	 * @param pNode the node of interest.
+	 * @param pLayoutVersion the version of the layout of the diagram that contains pNode.
+	 * @param pBoundCalculator the bound calculator.
+	 * @return the bounds of pNode. 
+	 * @pre pNode != null && pBoundCalculator != null
+	 */
+	public Rectangle getBounds(Node pNode, int pLayoutVersion, Function<Node, Rectangle> pBoundCalculator)
+	{
+		assert pNode != null && pBoundCalculator != null;
+		if( aDiagram.isBatchingChanges() || !aDiagram.contains(pNode) )
+		{
+			return pBoundCalculator.apply(pNode);
+		}
+		Entry entry = aNodeBounds.get(pNode);
+		if( entry == null || entry.fontVersion() != StringRenderer.fontVersion() || 
+				entry.layoutVersion() != pLayoutVersion )
+		{
+			entry = new Entry(StringRenderer.fontVersion(), pLayoutVersion, pBoundCalculator.apply(pNode));
+			aNodeBounds.put(pNode, entry);
+		}
+		return entry.bounds();
+	}
+	
+	/*
+	 * The previous parent of a node that changes parent during a batch of changes
+	 * is not known once the change is reported, so all the bounds are discarded.
+	 */
+	@Override
+	public void diagramChanged(DiagramChange pChange, DiagramElement pElement)
+	{
+		if( pChange == DiagramChange.STRUCTURE_CHANGED && pElement instanceof Node )
+		{
+			aNodeBounds.clear();
+		}
+		else if( pElement instanceof Node node )
+		{
+			removeTree(root(node));
+		}
+	}
+	
+	private void removeTree(Node pNode)
+	{
+		aNodeBounds.remove(pNode);
+		pNode.getChildren().forEach(this::removeTree);
+	}
+	
+	private static Node root(Node pNode)
+	{
+		Node node = pNode;
+		while( node.hasParent() )
+		{
+			node = node.getParent();
+		}
+		return node;
+	}
+}
\ No newline at end of file
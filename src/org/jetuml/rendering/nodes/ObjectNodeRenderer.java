@@ -20,6 +20,8 @@
  *******************************************************************************/
 package org.jetuml.rendering.nodes;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.jetuml.diagram.DiagramElement;
@@ -50,6 +52,12 @@ public final class ObjectNodeRenderer extends AbstractNodeRenderer
 	private static final StringRenderer LABEL_RENDERER = new StringRenderer(Alignment.CENTER, 
 			Decoration.BOLD, Decoration.UNDERLINED);
 	
+	/* The dimensions determined by the name of an object and the text of its fields.
+	 * The offsets of the fields are relative to the top of the object. */
+	private record Layout(Dimension top, int leftWidth, int width, int height, List<Integer> fieldOffsets) {}
+	
+	private final NodeLayoutCache<Layout> aLayouts = new NodeLayoutCache<>();
+	
 	/**
 	 * @param pParent The renderer for the parent diagram.
 	 */
@@ -69,8 +77,8 @@ public final class ObjectNodeRenderer extends AbstractNodeRenderer
 	{
 		final Rectangle bounds = getBounds(pElement);
 		Node node = (Node) pElement;
-		final Rectangle topRectangle = getTopRectangle(node);
-		int dividerPosition = topRectangle.maxY();
+		final Dimension top = layout(node).top();
+		int dividerPosition = bounds.y() + top.height();
 		pContext.drawRectangle(bounds, ColorScheme.get().fill(), ColorScheme.get().stroke(),
 				Optional.of(ColorScheme.get().dropShadow()));
 		if( ((ObjectNode)node).getChildren().size() > 0 ) 
@@ -79,54 +87,60 @@ public final class ObjectNodeRenderer extends AbstractNodeRenderer
 					ColorScheme.get().stroke(),
 					LineStyle.SOLID);
 		}
-		Rectangle top = new Rectangle(bounds.x(), bounds.y(), bounds.width(), topRectangle.height());
+		Rectangle topRectangle = new Rectangle(bounds.x(), bounds.y(), bounds.width(), top.height());
 		LABEL_RENDERER.draw(((ObjectNode)node).getName(), 
-				top.centerSlice(LABEL_RENDERER.lineHeight()), pContext);
-	}
-	
-	private static Rectangle getTopRectangle(Node pNode)
-	{
-		Dimension bounds = LABEL_RENDERER.getDimension(((ObjectNode)pNode).getName()); 
-		return new Rectangle(pNode.position().x(), pNode.position().y(), 
-				Math.max(DEFAULT_WIDTH, bounds.width() + TEXT_HORIZONTAL_MARGIN),
-				Math.max(DEFAULT_HEIGHT,  bounds.height()));
+				topRectangle.centerSlice(LABEL_RENDERER.lineHeight()), pContext);
 	}
 	
-	/**
-	 * @param pNode The node
-	 * @return The position that represents the split between the name and value fields.
+	/*
+	 * Returns the layout of pNode, which is only computed again when the object,
+	 * one of its fields, or the font preferences change.
 	 */
-	public static int getSplitPosition(Node pNode)
+	private Layout layout(Node pNode)
 	{
 		assert ObjectNode.class.isInstance(pNode);
-		int leftWidth = 0;
-		for(Node field : ((ObjectNode)pNode).getChildren())
-		{
-			leftWidth = Math.max(leftWidth, FieldNodeRenderer.leftWidth(field));
-		}
-		return pNode.position().x() + leftWidth + XGAP;
+		return aLayouts.get(pNode, () -> computeLayout((ObjectNode)pNode));
 	}
 	
-	@Override
-	protected Rectangle internalGetBounds(Node pNode)
+	private static Layout computeLayout(ObjectNode pNode)
 	{
-		Rectangle bounds = getTopRectangle(pNode);
+		Dimension label = LABEL_RENDERER.getDimension(pNode.getName()); 
+		Dimension top = new Dimension(Math.max(DEFAULT_WIDTH, label.width() + TEXT_HORIZONTAL_MARGIN),
+				Math.max(DEFAULT_HEIGHT,  label.height()));
 		int leftWidth = 0;
 		int rightWidth = 0;
 		int height = 0;
-		if( ((ObjectNode)pNode).getChildren().size() > 0 )
+		if( pNode.getChildren().size() > 0 )
 		{
 			height = YGAP;
 		}
-		for(Node field : ((ObjectNode)pNode).getChildren())
+		List<Integer> fieldOffsets = new ArrayList<>();
+		for(Node field : pNode.getChildren())
 		{
+			fieldOffsets.add(top.height() + height + YGAP);
 			height += FieldNodeRenderer.getHeight(field) + YGAP;   
 			leftWidth = Math.max(leftWidth, FieldNodeRenderer.leftWidth(field));
 			rightWidth = Math.max(rightWidth, FieldNodeRenderer.rightWidth(field));
 		}
-		int width = Math.max(bounds.width(), leftWidth + rightWidth + 2 * XGAP);
-		width = GridUtils.toMultiple(width);
-		return new Rectangle(bounds.x(), bounds.y(), width, GridUtils.toMultiple(bounds.height() + height));
+		int width = GridUtils.toMultiple(Math.max(top.width(), leftWidth + rightWidth + 2 * XGAP));
+		return new Layout(top, leftWidth, width, GridUtils.toMultiple(top.height() + height), fieldOffsets);
+	}
+	
+	/**
+	 * @param pNode The node
+	 * @return The position that represents the split between the name and value fields.
+	 */
+	public int getSplitPosition(Node pNode)
+	{
+		assert ObjectNode.class.isInstance(pNode);
+		return pNode.position().x() + layout(pNode).leftWidth() + XGAP;
+	}
+	
+	@Override
+	protected Rectangle internalGetBounds(Node pNode)
+	{
+		Layout layout = layout(pNode);
+		return new Rectangle(pNode.position().x(), pNode.position().y(), layout.width(), layout.height());
 	}
 	
 	/**
@@ -134,20 +148,9 @@ public final class ObjectNodeRenderer extends AbstractNodeRenderer
 	 * @param pFieldNode The node whose position to compute.
 	 * @return The y position of a child node.
 	 */
-	public static int getYPosition(Node pNode, FieldNode pFieldNode)
+	public int getYPosition(Node pNode, FieldNode pFieldNode)
 	{
 		assert ((ObjectNode)pNode).getChildren().contains(pFieldNode);
-		Rectangle bounds = getTopRectangle(pNode);
-		int yPosition = bounds.maxY() + YGAP; 
-		for( Node field : ((ObjectNode)pNode).getChildren() )
-		{
-			yPosition += YGAP;
-			if( field == pFieldNode )
-			{
-				return yPosition;
-			}
-			yPosition += FieldNodeRenderer.getHeight(field);
-		}
-		return yPosition;
+		return pNode.position().y() + layout(pNode).fieldOffsets().get(pNode.getChildren().indexOf(pFieldNode));
 	}
 }
@@ -22,6 +22,8 @@ package org.jetuml.rendering.nodes;
 
 import static org.jetuml.geom.GeomUtils.max;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.jetuml.diagram.DiagramElement;
@@ -62,6 +64,15 @@ public class TypeNodeRenderer extends AbstractNodeRenderer
 	private static final String ITALIC_MARKUP = "/";
 	private static final String UNDERLINE_MARKUP = "_";
 	
+	/* The lines of text to draw in a box of the node, each with the renderer that draws it. */
+	private record TextLine(String text, StringRenderer renderer) {}
+	
+	/* The text of a node and the dimensions it determines. */
+	private record Layout(List<TextLine> name, List<TextLine> attributes, List<TextLine> methods,
+			int width, int nameBoxHeight, int attributeBoxHeight, int methodBoxHeight) {}
+	
+	private final NodeLayoutCache<Layout> aLayouts = new NodeLayoutCache<>();
+	
 	/**
 	 * @param pParent The renderer for the parent diagram.
 	 */
@@ -85,133 +96,125 @@ public class TypeNodeRenderer extends AbstractNodeRenderer
 	public void draw(DiagramElement pElement, RenderingContext pContext)
 	{	
 		assert pElement instanceof TypeNode;
-		TypeNode node = (TypeNode) pElement;
+		final Layout layout = layout((TypeNode) pElement);
 		final Rectangle bounds = getBounds(pElement);
-		final int attributeBoxHeight = attributeBoxHeight(node);
-		final int methodBoxHeight = methodBoxHeight(node);
-		final int nameBoxHeight = nameBoxHeight(node, attributeBoxHeight, methodBoxHeight);
 
 		pContext.drawRectangle(bounds, ColorScheme.get().fill(), ColorScheme.get().stroke(),
 				Optional.of(ColorScheme.get().dropShadow()));	
-		drawName(getNameText(node), new Rectangle(bounds.x(), bounds.y(), bounds.width(), nameBoxHeight), pContext);
+		drawName(layout.name(), new Rectangle(bounds.x(), bounds.y(), bounds.width(), layout.nameBoxHeight()), pContext);
 		
-		if( attributeBoxHeight > 0 )
+		int splitY = bounds.y() + layout.nameBoxHeight();
+		if( layout.attributeBoxHeight() > 0 )
 		{
-			final int splitY = bounds.y() + nameBoxHeight;
 			pContext.strokeLine(bounds.x(), splitY, bounds.maxX(), splitY, 
 					ColorScheme.get().stroke(),
 					LineStyle.SOLID);
-			drawAttribute(node.getAttributes(), new Rectangle(bounds.x(), splitY, bounds.width(), attributeBoxHeight), pContext);
-			if( methodBoxHeight > 0 )
-			{
-				final int splitY2 = splitY + attributeBoxHeight;
-				pContext.strokeLine(bounds.x(), splitY2, bounds.maxX(), splitY2, 
-						ColorScheme.get().stroke(),
-						LineStyle.SOLID);
-				drawMethod(node.getMethods(), new Rectangle(bounds.x(), splitY2, bounds.width(), methodBoxHeight), pContext);
-			}
+			drawMembers(layout.attributes(), new Rectangle(bounds.x(), splitY, bounds.width(), layout.attributeBoxHeight()), pContext);
+			splitY += layout.attributeBoxHeight();
 		}
-		else if( methodBoxHeight > 0 )
+		if( layout.methodBoxHeight() > 0 )
 		{
-			final int splitY = bounds.y() + nameBoxHeight;
 			pContext.strokeLine(bounds.x(), splitY, bounds.maxX(), splitY, 
 					ColorScheme.get().stroke(),
 					LineStyle.SOLID);
-			drawMethod(node.getMethods(), new Rectangle(bounds.x(), splitY, bounds.width(), methodBoxHeight), pContext);
+			drawMembers(layout.methods(), new Rectangle(bounds.x(), splitY, bounds.width(), layout.methodBoxHeight()), pContext);
 		}
-		lineHeight();
 	}
 	
 	/*
-	 * @param pName The possibly multi-line text to draw in the name box.
+	 * @param pLines The lines of text to draw in the name box.
 	 * @param pBounds The bounds of the name box.
 	 * @param pContext The rendering context
 	 */
-	private static void drawName(String pName, Rectangle pBounds, RenderingContext pContext)
+	private static void drawName(List<TextLine> pLines, Rectangle pBounds, RenderingContext pContext)
 	{
-		String[] nameByLine = pName.trim().split("\n");
-		int startY = pBounds.center().y() - lineHeight() * nameByLine.length / 2;
+		int startY = pBounds.center().y() - lineHeight() * pLines.size() / 2;
 		
-		for (String line : nameByLine)
+		for( TextLine line : pLines )
 		{
-			Rectangle bounds = new Rectangle(pBounds.x(), startY, pBounds.width(), lineHeight());
-			if( containsMarkup(line, ITALIC_MARKUP) )
-			{
-				ITALIC_NAME_RENDERER.draw(removeMarkup(line), bounds, pContext);
-			}
-			else
-			{
-				TYPE_NAME_RENDERER.draw(line, bounds, pContext);
-			}
+			line.renderer().draw(line.text(), new Rectangle(pBounds.x(), startY, pBounds.width(), lineHeight()), pContext);
 			startY += lineHeight();
 		}
 	}
 	
 	/*
-	 * @param pText The possibly multi-line text to draw in the attribute box.
-	 * @param pBounds The bounds of the attribute box.
+	 * @param pLines The lines of text to draw in the attribute or method box.
+	 * @param pBounds The bounds of the box.
 	 * @param pContext The rendering context
 	 */
-	private static void drawAttribute(String pText, Rectangle pBounds, RenderingContext pContext)
+	private static void drawMembers(List<TextLine> pLines, Rectangle pBounds, RenderingContext pContext)
 	{
-		String[] attributesByLine = pText.trim().split("\n");
 		int lineSpacing = TOP_MARGIN;
 		
-		for( String attribute : attributesByLine )
+		for( TextLine line : pLines )
 		{
-			if( containsMarkup(attribute, UNDERLINE_MARKUP) )
-			{
-				UNDERLINING_STRING_RENDERER.draw(removeMarkup(attribute), 
-						new Rectangle(pBounds.x() + HORIZONTAL_PADDING, pBounds.y() + lineSpacing, 
-								pBounds.width(), 
-								lineHeight()), pContext);
-			}
-			else
-			{
-				STRING_RENDERER.draw(attribute, 
-						new Rectangle(pBounds.x() + HORIZONTAL_PADDING, pBounds.y() + lineSpacing, 
-								pBounds.width(), 
-								lineHeight()), pContext);
-			}
+			line.renderer().draw(line.text(), 
+					new Rectangle(pBounds.x() + HORIZONTAL_PADDING, pBounds.y() + lineSpacing, 
+							pBounds.width(), 
+							lineHeight()), pContext);
 			lineSpacing += lineHeight();
 		}	
 	}
 	
 	/*
-	 * @param pText The possibly multi-line text to draw in the method box.
-	 * @param pBounds The bounds of the method box.
-	 * @param pContext The rendering context
+	 * Returns the layout of pNode, which is only computed again when the node 
+	 * or the font preferences change.
 	 */
-	private static void drawMethod(String pText, Rectangle pBounds, RenderingContext pContext)
+	private Layout layout(TypeNode pNode)
 	{
-		String[] methodsByLine = pText.trim().split("\n");
-		int lineSpacing = TOP_MARGIN;
-		
-		for( String method : methodsByLine )
+		return aLayouts.get(pNode, () -> computeLayout(pNode));
+	}
+	
+	private Layout computeLayout(TypeNode pNode)
+	{
+		List<TextLine> name = new ArrayList<>();
+		for( String line : getNameText(pNode).trim().split("\n") )
+		{
+			if( containsMarkup(line, ITALIC_MARKUP) )
+			{
+				name.add(new TextLine(removeMarkup(line), ITALIC_NAME_RENDERER));
+			}
+			else
+			{
+				name.add(new TextLine(line, TYPE_NAME_RENDERER));
+			}
+		}
+		List<TextLine> attributes = new ArrayList<>();
+		for( String attribute : pNode.getAttributes().trim().split("\n") )
+		{
+			if( containsMarkup(attribute, UNDERLINE_MARKUP) )
+			{
+				attributes.add(new TextLine(removeMarkup(attribute), UNDERLINING_STRING_RENDERER));
+			}
+			else
+			{
+				attributes.add(new TextLine(attribute, STRING_RENDERER));
+			}
+		}
+		List<TextLine> methods = new ArrayList<>();
+		for( String method : pNode.getMethods().trim().split("\n") )
 		{
 			if( containsMarkup(method, UNDERLINE_MARKUP) )
 			{
-				UNDERLINING_STRING_RENDERER.draw(removeMarkup(method), 
-						new Rectangle(pBounds.x() + HORIZONTAL_PADDING, pBounds.y() + lineSpacing, 
-								pBounds.width(), 
-								lineHeight()), pContext);
+				methods.add(new TextLine(removeMarkup(method), UNDERLINING_STRING_RENDERER));
 			}
 			else if( containsMarkup(method, ITALIC_MARKUP) )
 			{
-				ITALIC_STRING_RENDERER.draw(removeMarkup(method), 
-						new Rectangle(pBounds.x() + HORIZONTAL_PADDING, pBounds.y() + lineSpacing, 
-								pBounds.width(), 
-								lineHeight()), pContext);
+				methods.add(new TextLine(removeMarkup(method), ITALIC_STRING_RENDERER));
 			}
 			else
 			{
-				STRING_RENDERER.draw(method, 
-						new Rectangle(pBounds.x() + HORIZONTAL_PADDING, pBounds.y() + lineSpacing, 
-								pBounds.width(), 
-								lineHeight()), pContext);
+				methods.add(new TextLine(method, STRING_RENDERER));
 			}
-			lineSpacing += lineHeight();
-		}	
+		}
+		
+		Dimension attributeDimension = textDimensions(pNode.getAttributes());
+		Dimension methodDimension = textDimensions(pNode.getMethods());
+		int width = max(DEFAULT_WIDTH, textDimensionsBold(getNameText(pNode)).width(), 
+				attributeDimension.width(), methodDimension.width());
+		int nameBoxHeight = nameBoxHeight(pNode, attributeDimension.height(), methodDimension.height());
+		return new Layout(name, attributes, methods, width, nameBoxHeight, 
+				attributeDimension.height(), methodDimension.height());
 	}
 	
 	private static boolean containsMarkup(String pText, String pMarkup)
@@ -227,16 +230,6 @@ public class TypeNodeRenderer extends AbstractNodeRenderer
 		return result.toString();
 	}
 	
-	private static int attributeBoxHeight(TypeNode pNode)
-	{
-		return textDimensions(pNode.getAttributes()).height();
-	}
-	
-	private static int methodBoxHeight(TypeNode pNode)
-	{
-		return textDimensions(pNode.getMethods()).height();
-	}
-	
 	private int nameBoxHeight(TypeNode pNode, int pAttributeBoxHeight, int pMethodBoxHeight)
 	{
 		final int textHeight = max(textDimensions(getNameText(pNode)).height(), TOP_INCREMENT);
@@ -279,16 +272,9 @@ public class TypeNodeRenderer extends AbstractNodeRenderer
 	protected Rectangle internalGetBounds(Node pNode)
 	{
 		assert pNode instanceof TypeNode;
-		TypeNode node = (TypeNode) pNode;
-		final int attributeHeight = attributeBoxHeight(node);
-		final int methodHeight = methodBoxHeight(node);
-		final int nameHeight = nameBoxHeight(node, attributeHeight, methodHeight);
-		Dimension nameDimension = textDimensionsBold(getNameText(node));
-		Dimension attributeDimension = textDimensions(node.getAttributes());
-		Dimension methodDimension = textDimensions(node.getMethods());
-		int width = max(DEFAULT_WIDTH, nameDimension.width(), attributeDimension.width(), methodDimension.width());
-		int height = attributeHeight + methodHeight + nameHeight;
-		return new Rectangle(node.position().x(), node.position().y(), width, height);
+		Layout layout = layout((TypeNode) pNode);
+		int height = layout.nameBoxHeight() + layout.attributeBoxHeight() + layout.methodBoxHeight();
+		return new Rectangle(pNode.position().x(), pNode.position().y(), layout.width(), height);
 	}
 	
 	/**
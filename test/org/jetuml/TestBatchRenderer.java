@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestBatchRenderer
+{
+	@TempDir
+	private Path aDirectory;
+	
+	@Test
+	public void testExpandGlob() throws IOException
+	{
+		Path a = createFile("a.class.jet");
+		Path b = createFile("b.state.jet");
+		createFile("c.txt");
+		Path d = createFile("sub/d.class.jet");
+		
+		assertEquals(List.of(a, b), BatchRenderer.expand(List.of(aDirectory + "/*.jet")));
+		assertEquals(List.of(d), BatchRenderer.expand(List.of(aDirectory + "/**/*.jet")));
+		assertEquals(List.of(a, d), BatchRenderer.expand(List.of(aDirectory + "/{,**/}*.class.jet")));
+	}
+	
+	@Test
+	public void testExpandWithoutDuplicates() throws IOException
+	{
+		Path a = createFile("a.class.jet");
+		Path b = createFile("b.state.jet");
+		
+		assertEquals(List.of(b, a), BatchRenderer.expand(List.of(b.toString(), aDirectory + "/*.jet")));
+	}
+	
+	@Test
+	public void testExpandPathWithoutWildcards() throws IOException
+	{
+		Path missing = aDirectory.resolve("missing.jet");
+		assertEquals(List.of(missing), BatchRenderer.expand(List.of(missing.toString())));
+		assertEquals(List.of(), BatchRenderer.expand(List.of(aDirectory + "/missing/*.jet")));
+	}
+	
+	@Test
+	public void testRenderReportsFailures() throws IOException
+	{
+		Path invalid = createFile("invalid.class.jet");
+		ByteArrayOutputStream report = new ByteArrayOutputStream();
+		
+		int failures = new BatchRenderer(2, Optional.empty(), false).render(
+				List.of(invalid, aDirectory.resolve("missing.jet")), new PrintStream(report));
+		
+		assertEquals(2, failures);
+		assertEquals(3, report.toString().lines().count());
+		assertFalse(Files.exists(aDirectory.resolve("invalid.class.svg")));
+	}
+	
+	private Path createFile(String pName) throws IOException
+	{
+		Path file = aDirectory.resolve(pName);
+		Files.createDirectories(file.getParent());
+		return Files.writeString(file, "");
+	}
+}
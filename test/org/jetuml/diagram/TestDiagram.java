@@ -25,9 +25,12 @@ import static org.jetuml.testutils.CollectionAssertions.hasElementsSameAs;
 import static org.jetuml.testutils.CollectionAssertions.hasSetOfElementsEqualsTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -38,6 +41,7 @@ import org.jetuml.diagram.nodes.CallNode;
 import org.jetuml.diagram.nodes.ClassNode;
 import org.jetuml.diagram.nodes.ImplicitParameterNode;
 import org.jetuml.diagram.nodes.PackageNode;
+import org.jetuml.geom.Point;
 import org.jetuml.testutils.CollectionAssertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -220,4 +224,322 @@ public class TestDiagram
 
 		assertThat(aDiagram.edgesTo(aNode2, DependencyEdge.class), hasElementsSameAs, edge1);
 	}
+	
+	@Test
+	void testEdgesConnectedTo_StartAndEnd()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addRootNode(aNode3);
+		
+		Edge edge1 = new DependencyEdge();
+		edge1.connect(aNode1, aNode2);
+		aDiagram.addEdge(edge1);
+		
+		Edge edge2 = new DependencyEdge();
+		edge2.connect(aNode2, aNode3);
+		aDiagram.addEdge(edge2);
+		
+		Edge edge3 = new AssociationEdge();
+		edge3.connect(aNode2, aNode2);
+		aDiagram.addEdge(edge3);
+		
+		assertThat(new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode2), hasElementsSameAs, edge1, edge2, edge3);
+		assertThat(new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode3), hasElementsSameAs, edge2);
+	}
+	
+	@Test
+	void testEdgesConnectedTo_InsertionPreservesOrder()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addRootNode(aNode3);
+		
+		Edge edge1 = new DependencyEdge();
+		edge1.connect(aNode1, aNode2);
+		aDiagram.addEdge(edge1);
+		
+		Edge edge2 = new DependencyEdge();
+		edge2.connect(aNode2, aNode3);
+		aDiagram.addEdge(edge2);
+		
+		Edge edge3 = new DependencyEdge();
+		edge3.connect(aNode1, aNode3);
+		aDiagram.addEdge(1, edge3);
+		
+		Edge edge4 = new DependencyEdge();
+		edge4.connect(aNode3, aNode1);
+		aDiagram.addEdge(0, edge4);
+		
+		assertThat(new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode1), hasElementsSameAs, edge4, edge1, edge3);
+		assertThat(new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode3), hasElementsSameAs, edge4, edge3, edge2);
+	}
+	
+	@Test
+	void testEdgesConnectedTo_AfterRemoval()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		
+		Edge edge1 = new DependencyEdge();
+		edge1.connect(aNode1, aNode2);
+		aDiagram.addEdge(edge1);
+		
+		Edge edge2 = new DependencyEdge();
+		edge2.connect(aNode2, aNode1);
+		aDiagram.addEdge(edge2);
+		
+		aDiagram.removeEdge(edge1);
+		assertThat(new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode1), hasElementsSameAs, edge2);
+		aDiagram.removeEdge(edge2);
+		assertFalse(aDiagram.edgesConnectedTo(aNode1).iterator().hasNext());
+		assertFalse(aDiagram.edgesConnectedTo(aNode2).iterator().hasNext());
+	}
+	
+	@Test
+	void testEdgesConnectedTo_AfterReconnection()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addRootNode(aNode3);
+		
+		Edge edge1 = new DependencyEdge();
+		edge1.connect(aNode1, aNode2);
+		aDiagram.addEdge(edge1);
+		
+		Edge edge2 = new DependencyEdge();
+		edge2.connect(aNode3, aNode1);
+		aDiagram.addEdge(edge2);
+		
+		Edge edge3 = new DependencyEdge();
+		edge3.connect(aNode1, aNode3);
+		aDiagram.addEdge(edge3);
+		
+		int modificationCount = aDiagram.modificationCount();
+		edge1.connect(aNode3, aNode2);
+		assertNotEquals(modificationCount, aDiagram.modificationCount());
+		assertThat(new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode1), hasElementsSameAs, edge2, edge3);
+		assertThat(new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode3), hasElementsSameAs, edge1, edge2, edge3);
+		assertEquals(List.of(edge1, edge2), aDiagram.edgesFrom(aNode3, Edge.class));
+	}
+	
+	@Test
+	void testEdgesConnectedTo_Duplicate()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		Edge edge = new DependencyEdge();
+		edge.connect(aNode1, aNode2);
+		aDiagram.addEdge(edge);
+		
+		Diagram copy = aDiagram.duplicate();
+		Node copy1 = copy.rootNodes().get(0);
+		assertThat(new DiagramAccessor(copy).getEdgesConnectedTo(copy1), hasElementsSameAs, copy.edges().get(0));
+		assertSame(copy1, copy.edges().get(0).start());
+	}
+	
+	@Test
+	void testEdgesFrom_NodeAndTypeSelection()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		
+		Edge edge1 = new DependencyEdge();
+		edge1.connect(aNode1, aNode2);
+		aDiagram.addEdge(edge1);
+		
+		Edge edge2 = new AssociationEdge();
+		edge2.connect(aNode1, aNode1);
+		aDiagram.addEdge(edge2);
+
+		assertThat(aDiagram.edgesFrom(aNode1, DependencyEdge.class), hasElementsSameAs, edge1);
+		assertThat(aDiagram.edgesFrom(aNode1, Edge.class), hasElementsSameAs, edge1, edge2);
+		assertThat(aDiagram.edgesFrom(aNode2, Edge.class), CollectionAssertions.isEmpty);
+	}
+	
+	@Test
+	void testContains_NestedNodes()
+	{
+		aNode4.addChild(aNode2);
+		aNode2.addChild(aNode3);
+		aDiagram.addRootNode(aNode4);
+		assertTrue(aDiagram.contains(aNode4));
+		assertTrue(aDiagram.contains(aNode2));
+		assertTrue(aDiagram.contains(aNode3));
+		assertFalse(aDiagram.contains(aNode1));
+		
+		aNode2.removeChild(aNode3);
+		assertFalse(aDiagram.contains(aNode3));
+		
+		aDiagram.removeRootNode(aNode4);
+		assertFalse(aDiagram.contains(aNode4));
+		assertFalse(aDiagram.contains(aNode2));
+	}
+	
+	@Test
+	void testContains_Edges()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		Edge edge = new DependencyEdge();
+		edge.connect(aNode1, aNode2);
+		assertFalse(aDiagram.contains(edge));
+		aDiagram.addEdge(edge);
+		assertTrue(aDiagram.contains(edge));
+		aDiagram.removeEdge(edge);
+		assertFalse(aDiagram.contains(edge));
+	}
+	
+	@Test
+	void testModificationCount()
+	{
+		int count = aDiagram.modificationCount();
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		assertNotEquals(count, aDiagram.modificationCount());
+		count = aDiagram.modificationCount();
+		aNode1.translate(10, 10);
+		assertEquals(count, aDiagram.modificationCount());
+		Edge edge = new DependencyEdge();
+		edge.connect(aNode1, aNode2);
+		aDiagram.addEdge(edge);
+		assertNotEquals(count, aDiagram.modificationCount());
+		count = aDiagram.modificationCount();
+		aDiagram.removeEdge(edge);
+		assertNotEquals(count, aDiagram.modificationCount());
+		count = aDiagram.modificationCount();
+		aDiagram.placeOnTop(aNode1);
+		assertNotEquals(count, aDiagram.modificationCount());
+		count = aDiagram.modificationCount();
+		aDiagram.placeOnTop(aNode1);
+		assertEquals(count, aDiagram.modificationCount());
+	}
+	
+	@Test
+	void testIndexOf_AfterInsertionsAndRemovals()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		Edge edge1 = new DependencyEdge();
+		edge1.connect(aNode1, aNode2);
+		Edge edge2 = new DependencyEdge();
+		edge2.connect(aNode2, aNode1);
+		Edge edge3 = new AssociationEdge();
+		edge3.connect(aNode1, aNode1);
+		
+		aDiagram.addEdge(edge1);
+		aDiagram.addEdge(edge2);
+		assertEquals(1, aDiagram.indexOf(edge2));
+		aDiagram.addEdge(0, edge3);
+		assertEquals(0, aDiagram.indexOf(edge3));
+		assertEquals(1, aDiagram.indexOf(edge1));
+		assertEquals(2, aDiagram.indexOf(edge2));
+		aDiagram.removeEdge(edge1);
+		assertEquals(0, aDiagram.indexOf(edge3));
+		assertEquals(1, aDiagram.indexOf(edge2));
+		aDiagram.addEdge(edge1);
+		assertEquals(2, aDiagram.indexOf(edge1));
+	}
+	
+	@Test
+	void testChangeHandler_NotifiedOfStructureChanges()
+	{
+		List<String> changes = new ArrayList<>();
+		aDiagram.addChangeHandler((change, element) -> changes.add(change + " " + element));
+		aDiagram.addRootNode(aNode2);
+		aNode2.addChild(aNode3);
+		aNode2.removeChild(aNode3);
+		aDiagram.removeRootNode(aNode2);
+		assertEquals(List.of("STRUCTURE_CHANGED " + aNode2, "STRUCTURE_CHANGED " + aNode3, 
+				"STRUCTURE_CHANGED " + aNode3, "STRUCTURE_CHANGED " + aNode2), changes);
+	}
+	
+	@Test
+	void testChangeHandler_NotifiedOfChangesToDescendantsAndEdges()
+	{
+		List<String> changes = new ArrayList<>();
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addRootNode(aNode4);
+		aNode2.addChild(aNode3);
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(aNode2, aNode4);
+		aDiagram.addEdge(edge);
+		aDiagram.addChangeHandler((change, element) -> changes.add(change + " " + element));
+		aNode3.translate(10, 10);
+		((ClassNode) aNode3).setName("Name");
+		edge.properties().get(PropertyName.MIDDLE_LABEL).set("label");
+		assertEquals(List.of("MOVED " + aNode3, "PROPERTY_CHANGED " + aNode3, "PROPERTY_CHANGED " + edge), changes);
+	}
+	
+	@Test
+	void testChangeHandler_NotNotifiedOfChangesOutsideDiagram()
+	{
+		List<String> changes = new ArrayList<>();
+		aDiagram.addRootNode(aNode2);
+		aDiagram.removeRootNode(aNode2);
+		aDiagram.addChangeHandler((change, element) -> changes.add(change + " " + element));
+		aNode2.translate(10, 10);
+		aNode2.clone().translate(10, 10);
+		aNode1.translate(10, 10);
+		assertTrue(changes.isEmpty());
+	}
+	
+	@Test
+	void testChangeHandler_Removed()
+	{
+		List<String> changes = new ArrayList<>();
+		DiagramChangeHandler handler = (change, element) -> changes.add(change + " " + element);
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addChangeHandler(handler);
+		aDiagram.removeChangeHandler(handler);
+		aNode2.translate(10, 10);
+		assertTrue(changes.isEmpty());
+	}
+	
+	@Test
+	void testChangeHandler_NotifiedOfChangesToDuplicate()
+	{
+		List<String> changes = new ArrayList<>();
+		aDiagram.addRootNode(aNode2);
+		Diagram copy = aDiagram.duplicate();
+		copy.addChangeHandler((change, element) -> changes.add(change + " " + element));
+		aNode2.translate(10, 10);
+		copy.rootNodes().get(0).translate(10, 10);
+		assertEquals(List.of("MOVED " + copy.rootNodes().get(0)), changes);
+	}
+	
+	@Test
+	void testBatchChanges_ReportsEachChangeOnceAtTheEnd()
+	{
+		List<String> changes = new ArrayList<>();
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addChangeHandler((change, element) -> changes.add(change + " " + element));
+		aDiagram.batchChanges(() -> 
+		{
+			aNode2.translate(10, 10);
+			aDiagram.batchChanges(() -> aNode2.translate(10, 10));
+			assertTrue(changes.isEmpty());
+			aNode2.moveTo(new Point(0, 0));
+		});
+		assertEquals(List.of("MOVED " + aNode2), changes);
+		aNode2.translate(10, 10);
+		assertEquals(2, changes.size());
+	}
+	
+	@Test
+	void testBatchChanges_ReportsChangesMadeBeforeException()
+	{
+		List<String> changes = new ArrayList<>();
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addChangeHandler((change, element) -> changes.add(change + " " + element));
+		assertThrows(IllegalStateException.class, () -> aDiagram.batchChanges(() -> 
+		{
+			aNode2.translate(10, 10);
+			throw new IllegalStateException();
+		}));
+		assertFalse(aDiagram.isBatchingChanges());
+		assertEquals(List.of("MOVED " + aNode2), changes);
+		aDiagram.batchChanges(() -> assertTrue(aDiagram.isBatchingChanges()));
+		assertEquals(1, changes.size());
+	}
 }
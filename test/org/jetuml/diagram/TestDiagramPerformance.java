@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.diagram;
+
+import static org.jetuml.testutils.PerformanceTestUtils.connect;
+import static org.jetuml.testutils.PerformanceTestUtils.createClassGrid;
+import static org.jetuml.testutils.PerformanceTestUtils.printAverageMillis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetuml.diagram.edges.DependencyEdge;
+
+/**
+ * Compares the performance of the edge lookups of a diagram
+ * with a linear scan of all the edges of the diagram.
+ */
+public final class TestDiagramPerformance
+{
+	private static final int NUMBER_OF_NODES = 1000;
+	private static final int NUMBER_OF_EDGES = 3000;
+	private static final int NUMBER_OF_COLUMNS = 40;
+
+	private TestDiagramPerformance() {}
+
+	/**
+	 * Test method.
+	 */
+	public static void main(String[] pArgs)
+	{
+		Diagram diagram = createDiagram();
+		int[] counts = new int[2];
+		System.out.println("Test Diagram.edgesConnectedTo/edgesTo for " + NUMBER_OF_NODES + " nodes and "
+				+ NUMBER_OF_EDGES + " edges : ");
+		printAverageMillis("with index", () -> 
+		{
+			for( Node node : diagram.rootNodes() )
+			{
+				for( Edge edge : diagram.edgesConnectedTo(node) )
+				{
+					counts[0] += edge.end() == node ? 1 : 0;
+				}
+				counts[0] += diagram.edgesTo(node, Edge.class).size();
+			}
+		});
+		printAverageMillis("with linear scan", () -> 
+		{
+			for( Node node : diagram.rootNodes() )
+			{
+				for( Edge edge : linearEdgesConnectedTo(diagram, node) )
+				{
+					counts[1] += edge.end() == node ? 1 : 0;
+				}
+				counts[1] += linearEdgesTo(diagram, node).size();
+			}
+		});
+		assert counts[0] == counts[1];
+	}
+
+	/*
+	 * Classes connected by dependencies that spread over the entire diagram.
+	 */
+	private static Diagram createDiagram()
+	{
+		Diagram diagram = createClassGrid(NUMBER_OF_NODES, NUMBER_OF_COLUMNS, 150, 100);
+		List<Node> nodes = diagram.rootNodes();
+		for( int i = 0; i < NUMBER_OF_EDGES; i++ )
+		{
+			connect(diagram, new DependencyEdge(), nodes.get(i % NUMBER_OF_NODES), nodes.get((i * 7 + 1) % NUMBER_OF_NODES));
+		}
+		return diagram;
+	}
+
+	/*
+	 * Reference implementation of Diagram.edgesConnectedTo before the adjacency index.
+	 */
+	private static List<Edge> linearEdgesConnectedTo(Diagram pDiagram, Node pNode)
+	{
+		List<Edge> result = new ArrayList<>();
+		for( Edge edge : pDiagram.edges() )
+		{
+			if( edge.start() == pNode || edge.end() == pNode )
+			{
+				result.add(edge);
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Reference implementation of Diagram.edgesTo before the adjacency index.
+	 */
+	private static List<Edge> linearEdgesTo(Diagram pDiagram, Node pNode)
+	{
+		return pDiagram.edges().stream()
+				.filter(edge -> edge.end() == pNode)
+				.toList();
+	}
+}
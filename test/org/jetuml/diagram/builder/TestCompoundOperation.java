@@ -24,6 +24,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Node;
+import org.jetuml.diagram.nodes.ClassNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -135,4 +142,21 @@ public class TestCompoundOperation
 		aOperation.add(new SimpleOperation(()-> aBuilder.append("A"), ()->aBuilder.append("1")));
 		assertFalse(aOperation.isEmpty());
 	}
+	
+	@Test
+	public void testChangesReportedAsOneBatch()
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		Node node = new ClassNode();
+		diagram.addRootNode(node);
+		List<String> changes = new ArrayList<>();
+		diagram.addChangeHandler((change, element) -> changes.add(change + " to " + node.position().x()));
+		CompoundOperation operation = new CompoundOperation(diagram);
+		operation.add(new SimpleOperation(()-> node.translate(1, 0), ()-> node.translate(-1, 0)));
+		operation.add(new SimpleOperation(()-> node.translate(1, 0), ()-> node.translate(-1, 0)));
+		operation.execute();
+		assertEquals(List.of("MOVED to 2"), changes);
+		operation.undo();
+		assertEquals(List.of("MOVED to 2", "MOVED to 0"), changes);
+	}
 }
@@ -22,6 +22,7 @@ package org.jetuml.diagram.nodes;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -53,6 +54,31 @@ public class TestPackageNode
 		assertFalse(aPackage1.hasParent());
 	}
 	
+	@Test
+	public void testVersionChangesWithDescendants()
+	{
+		aPackage1.addChild(aPackage2);
+		aPackage2.addChild(aClass1);
+		int version1 = aPackage1.version();
+		int version2 = aPackage2.version();
+		aClass1.translate(10, 10);
+		assertNotEquals(version1, aPackage1.version());
+		assertNotEquals(version2, aPackage2.version());
+		
+		version1 = aPackage1.version();
+		version2 = aPackage2.version();
+		int version3 = aClass1.version();
+		aPackage2.removeChild(aClass1);
+		aClass1.setName("Name");
+		assertNotEquals(version1, aPackage1.version());
+		assertNotEquals(version2, aPackage2.version());
+		assertNotEquals(version3, aClass1.version());
+		
+		version1 = aPackage1.version();
+		aClass1.setName("Other");
+		assertEquals(version1, aPackage1.version());
+	}
+	
 	@Test
 	public void testAddChild()
 	{
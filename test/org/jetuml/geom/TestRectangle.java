@@ -73,6 +73,20 @@ public class TestRectangle
 		assertFalse(RECTANGLE_1.contains(new Point(0,41)));
 	}
 	
+	@Test
+	void testIntersects()
+	{
+		assertTrue(RECTANGLE_1.intersects(RECTANGLE_1));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(10, 10, 5, 5)));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(-10, -10, 100, 100)));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(50, 30, 20, 20)));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(60, 40, 0, 0)));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(-10, 10, 100, 0)));
+		assertFalse(RECTANGLE_1.intersects(new Rectangle(61, 0, 10, 10)));
+		assertFalse(RECTANGLE_1.intersects(new Rectangle(0, 41, 10, 10)));
+		assertFalse(RECTANGLE_1.intersects(new Rectangle(-11, -11, 10, 10)));
+	}
+	
 	@Test
 	void testGetCenter()
 	{
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.jetuml.JavaFXLoader;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.builder.DiagramBuilder;
+import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.DiagramRenderer;
+import org.jetuml.rendering.RenderingContext;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javafx.application.Platform;
+
+public class TestDiagramCanvas
+{
+	private DiagramCanvas aCanvas;
+	private DiagramRenderer aRenderer;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@Test
+	void testSelectionChangeOnlyRepaintsOverlay() throws Exception
+	{
+		runOnFXThread(() ->
+		{
+			createCanvas();
+			aCanvas.selectionModelChanged();
+			aCanvas.selectAll();
+			paintRequested();
+			verify(aRenderer, never()).draw(any(RenderingContext.class), any(Rectangle.class));
+		});
+	}
+	
+	@Test
+	void testVisibleRegionChangeRepaintsDiagram() throws Exception
+	{
+		runOnFXThread(() ->
+		{
+			createCanvas();
+			aCanvas.setVisibleRegion(new Rectangle(0, 0, 100, 100));
+			paintRequested();
+			verify(aRenderer).draw(any(RenderingContext.class), any(Rectangle.class));
+		});
+	}
+	
+	private void createCanvas()
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		DiagramBuilder builder = spy(DiagramType.newBuilderInstanceFor(diagram));
+		aRenderer = spy(builder.renderer());
+		doReturn(aRenderer).when(builder).renderer();
+		aCanvas = new DiagramCanvas(builder, mock(DiagramTabToolBar.class), 
+				DiagramType.newValidatorInstanceFor(diagram), mock(MouseDraggedGestureHandler.class));
+		aCanvas.paintPanel();
+		clearInvocations(aRenderer);
+	}
+	
+	private void paintRequested()
+	{
+		try
+		{
+			Method method = DiagramCanvas.class.getDeclaredMethod("paintRequested");
+			method.setAccessible(true);
+			method.invoke(aCanvas);
+		}
+		catch( ReflectiveOperationException exception )
+		{
+			throw new AssertionError(exception);
+		}
+	}
+	
+	private static void runOnFXThread(Runnable pTest) throws InterruptedException
+	{
+		Semaphore done = new Semaphore(0);
+		Throwable[] failure = new Throwable[1];
+		Platform.runLater(() -> 
+		{
+			try
+			{
+				pTest.run();
+			}
+			catch( Throwable throwable )
+			{
+				failure[0] = throwable;
+			}
+			done.release();
+		});
+		assertTrue(done.tryAcquire(10, TimeUnit.SECONDS));
+		if( failure[0] instanceof Error error )
+		{
+			throw error;
+		}
+		if( failure[0] != null )
+		{
+			throw new AssertionError(failure[0]);
+		}
+	}
+}
@@ -57,6 +57,17 @@ public class TestDeserializationContext
 		assertFalse(aContext.idExists(4));
 	}
 	
+	@Test
+	void testIdExists_NodeAddedWithNewId()
+	{
+		aContext = new DeserializationContext(aDiagram);
+		aContext.addNode(aClassNode1, 1);
+		aContext.addNode(aClassNode1, 2);
+		assertFalse(aContext.idExists(1));
+		assertTrue(aContext.idExists(2));
+		assertSame(aClassNode1, aContext.getNode(2));
+	}
+	
 	@Test
 	void textInit()
 	{
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.jetuml.diagram.DiagramElement;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.Node;
+import org.jetuml.diagram.edges.ConstructorEdge;
+import org.jetuml.diagram.nodes.CallNode;
+import org.junit.jupiter.api.Test;
+
+public class TestElementRegistry
+{
+	@Test
+	void testCreate_AllPrototypes()
+	{
+		for( DiagramType type : DiagramType.values() )
+		{
+			for( DiagramElement prototype : type.getPrototypes() )
+			{
+				String name = prototype.getClass().getSimpleName();
+				if( prototype instanceof Node )
+				{
+					assertSame(prototype.getClass(), ElementRegistry.createNode(name).get().getClass());
+				}
+				else
+				{
+					assertSame(prototype.getClass(), ElementRegistry.createEdge(name).get().getClass());
+				}
+			}
+		}
+	}
+	
+	@Test
+	void testCreate_NotPrototypes()
+	{
+		assertSame(CallNode.class, ElementRegistry.createNode("CallNode").get().getClass());
+		assertSame(ConstructorEdge.class, ElementRegistry.createEdge("ConstructorEdge").get().getClass());
+	}
+	
+	@Test
+	void testCreate_NewInstances()
+	{
+		Node node = ElementRegistry.createNode("ClassNode").get();
+		assertNotSame(node, ElementRegistry.createNode("ClassNode").get());
+		Edge edge = ElementRegistry.createEdge("DependencyEdge").get();
+		assertNotSame(edge, ElementRegistry.createEdge("DependencyEdge").get());
+	}
+	
+	@Test
+	void testCreate_UnknownType()
+	{
+		assertFalse(ElementRegistry.createNode("DependencyEdge").isPresent());
+		assertFalse(ElementRegistry.createNode("AbstractNode").isPresent());
+		assertFalse(ElementRegistry.createNode("org.jetuml.diagram.nodes.ClassNode").isPresent());
+		assertFalse(ElementRegistry.createEdge("ClassNode").isPresent());
+		assertFalse(ElementRegistry.createEdge("").isPresent());
+	}
+}
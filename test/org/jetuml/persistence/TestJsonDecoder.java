@@ -20,10 +20,25 @@
  *******************************************************************************/
 package org.jetuml.persistence;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.StringReader;
+import java.util.List;
+
 import org.jetuml.JavaFXLoader;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.Node;
+import org.jetuml.diagram.edges.DependencyEdge;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.diagram.nodes.PackageNode;
 import org.jetuml.persistence.json.JsonObject;
+import org.jetuml.persistence.json.JsonParser;
+import org.jetuml.persistence.json.JsonParsingException;
+import org.jetuml.persistence.json.JsonReader;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -58,4 +73,103 @@ public class TestJsonDecoder
 		object.put("diagram", "StateDiagram");
 		assertThrows(DeserializationException.class, () -> new JsonDecoder(object).decode());
 	}
+	
+	@Test
+	public void testEmptyJSONObject_Reader()
+	{
+		assertThrows(DeserializationException.class, () -> decode("{}"));
+	}
+	
+	@Test
+	public void testIncompleteJSONObject_Reader()
+	{
+		assertThrows(DeserializationException.class, 
+				() -> decode("{\"version\": \"1.2\", \"diagram\": \"StateDiagram\"}"));
+	}
+	
+	@Test
+	public void testNodesNotAnArray_Reader()
+	{
+		assertThrows(DeserializationException.class, 
+				() -> decode("{\"version\": \"3.0\", \"diagram\": \"ClassDiagram\", \"nodes\": {}, \"edges\": []}"));
+	}
+	
+	@Test
+	public void testInvalidJson_Reader()
+	{
+		assertThrows(JsonParsingException.class, 
+				() -> decode("{\"version\": \"3.0\", \"diagram\": \"ClassDiagram\", \"nodes\": [,], \"edges\": []}"));
+	}
+	
+	@Test
+	public void testDuplicateProperty_Reader()
+	{
+		assertThrows(JsonParsingException.class, 
+				() -> decode("{\"version\": \"3.0\", \"version\": \"3.0\"}"));
+	}
+	
+	@Test
+	public void testDecode_ReaderSameAsObject()
+	{
+		String json = JsonEncoder.encode(createDiagram()).toString();
+		assertSameStructure(new JsonDecoder(JsonParser.parse(json)).decode(), decode(json));
+	}
+	
+	/*
+	 * The edges and nodes appear before the type of diagram is known. 
+	 */
+	@Test
+	public void testDecode_ReaderAnyOrder()
+	{
+		JsonObject object = JsonEncoder.encode(createDiagram());
+		String json = String.format("{\"edges\": %s, \"nodes\": %s, \"unknown\": [1, {\"a\": true}], \"version\": \"%s\", \"diagram\": \"%s\"}",
+				object.get("edges"), object.get("nodes"), object.get("version"), object.get("diagram"));
+		assertSameStructure(new JsonDecoder(object).decode(), decode(json));
+	}
+	
+	private static Diagram decode(String pJson)
+	{
+		return new JsonDecoder(new JsonReader(new StringReader(pJson))).decode();
+	}
+	
+	private static Diagram createDiagram()
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		PackageNode packageNode = new PackageNode();
+		ClassNode class1 = new ClassNode();
+		ClassNode class2 = new ClassNode();
+		class1.setName("A");
+		class2.setName("B");
+		packageNode.addChild(class1);
+		diagram.addRootNode(packageNode);
+		diagram.addRootNode(class2);
+		Edge edge = new DependencyEdge();
+		edge.connect(class1, class2);
+		diagram.addEdge(edge);
+		return diagram;
+	}
+	
+	private static void assertSameStructure(Diagram pExpected, Diagram pActual)
+	{
+		assertSame(pExpected.getType(), pActual.getType());
+		List<Node> expectedNodes = pExpected.allNodes();
+		List<Node> actualNodes = pActual.allNodes();
+		assertEquals(expectedNodes.size(), actualNodes.size());
+		assertEquals(pExpected.rootNodes().size(), pActual.rootNodes().size());
+		for( int i = 0; i < expectedNodes.size(); i++ )
+		{
+			assertEquals(expectedNodes.get(i).getClass(), actualNodes.get(i).getClass());
+			assertEquals(expectedNodes.get(i).position(), actualNodes.get(i).position());
+			assertEquals(expectedNodes.get(i).getChildren().size(), actualNodes.get(i).getChildren().size());
+		}
+		assertEquals(pExpected.edges().size(), pActual.edges().size());
+		for( int i = 0; i < pExpected.edges().size(); i++ )
+		{
+			Edge expected = pExpected.edges().get(i);
+			Edge actual = pActual.edges().get(i);
+			assertEquals(expected.getClass(), actual.getClass());
+			assertEquals(expectedNodes.indexOf(expected.start()), actualNodes.indexOf(actual.start()));
+			assertEquals(expectedNodes.indexOf(expected.end()), actualNodes.indexOf(actual.end()));
+		}
+	}
 }
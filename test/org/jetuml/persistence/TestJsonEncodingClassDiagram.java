@@ -32,8 +32,10 @@ import java.util.Iterator;
 import org.jetuml.JavaFXLoader;
 import org.jetuml.diagram.Diagram;
 import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Edge;
 import org.jetuml.diagram.Node;
 import org.jetuml.diagram.PropertyName;
+import org.jetuml.diagram.edges.AggregationEdge;
 import org.jetuml.diagram.nodes.ClassNode;
 import org.jetuml.diagram.nodes.PackageNode;
 import org.jetuml.persistence.json.JsonObject;
@@ -98,4 +100,20 @@ public class TestJsonEncodingClassDiagram
 		assertSame(p, node.getParent());
 		assertEquals("class", node.getName());
 	}
+	
+	@Test
+	public void testEncode_EscapedName()
+	{
+		initiGraph1();
+		ClassNode node = new ClassNode();
+		node.setName("\"quoted\"\nname");
+		aGraph.addRootNode(node);
+		Edge edge = new AggregationEdge();
+		edge.connect(node, aGraph.rootNodes().get(0).getChildren().get(0));
+		aGraph.addEdge(edge);
+		
+		Diagram diagram = new JsonDecoder(JsonEncoder.encode(aGraph)).decode();
+		assertEquals("\"quoted\"\nname", ((ClassNode) diagram.rootNodes().get(1)).getName());
+		assertEquals(1, diagram.edges().size());
+	}
 }
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.persistence;
+
+import static org.jetuml.testutils.PerformanceTestUtils.connect;
+import static org.jetuml.testutils.PerformanceTestUtils.printAverageMillis;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Node;
+import org.jetuml.diagram.edges.DependencyEdge;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.diagram.nodes.PackageNode;
+import org.jetuml.geom.Point;
+
+/**
+ * Tests the performance of loading large generated diagrams.
+ */
+public final class TestPersistencePerformance
+{
+	private static final int NUMBER_OF_TRIALS = 5;
+	private static final int[] DIAGRAM_SIZES = {10000, 50000};
+	private static final int CLASSES_PER_PACKAGE = 9;
+
+	private TestPersistencePerformance() {}
+
+	/**
+	 * Test method.
+	 */
+	public static void main(String[] pArgs) throws Exception
+	{
+		for( int size : DIAGRAM_SIZES )
+		{
+			File file = File.createTempFile("performance", ".class.jet");
+			file.deleteOnExit();
+			PersistenceService.save(createDiagram(size), file);
+
+			System.out.println("Test PersistenceService.read(file) for " + size + " nodes : ");
+			printAverageMillis(NUMBER_OF_TRIALS, "reading the file", () -> read(file));
+		}
+	}
+	
+	private static void read(File pFile)
+	{
+		try
+		{
+			PersistenceService.read(pFile);
+		}
+		catch( IOException exception )
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/*
+	 * Creates a class diagram with pSize nodes: packages that each contain
+	 * a number of classes, and a dependency from each class to the next one.
+	 */
+	private static Diagram createDiagram(int pSize)
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		List<Node> classes = new ArrayList<>();
+		int created = 0;
+		while( created < pSize )
+		{
+			PackageNode packageNode = new PackageNode();
+			packageNode.moveTo(new Point(created, created));
+			diagram.addRootNode(packageNode);
+			created++;
+			for( int i = 0; i < CLASSES_PER_PACKAGE && created < pSize; i++ )
+			{
+				ClassNode classNode = new ClassNode();
+				classNode.moveTo(new Point(created, created));
+				packageNode.addChild(classNode);
+				classes.add(classNode);
+				created++;
+			}
+		}
+		for( int i = 0; i < classes.size() - 1; i++ )
+		{
+			connect(diagram, new DependencyEdge(), classes.get(i), classes.get(i+1));
+		}
+		return diagram;
+	}
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.persistence.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+public class TestJsonReader
+{
+	private static JsonReader reader(String pInput)
+	{
+		return new JsonReader(new StringReader(pInput));
+	}
+
+	@Test
+	void testPeek_Values()
+	{
+		JsonReader reader = reader(" [ {}, [], \"a\", -12, true ] ");
+		assertEquals(JsonToken.BEGIN_ARRAY, reader.peek());
+		reader.beginArray();
+		assertEquals(JsonToken.BEGIN_OBJECT, reader.peek());
+		reader.beginObject();
+		assertEquals(JsonToken.END_OBJECT, reader.peek());
+		reader.endObject();
+		assertEquals(JsonToken.BEGIN_ARRAY, reader.peek());
+		reader.beginArray();
+		assertFalse(reader.hasNext());
+		reader.endArray();
+		assertEquals(JsonToken.STRING, reader.peek());
+		assertEquals("a", reader.nextString());
+		assertEquals(JsonToken.NUMBER, reader.peek());
+		assertEquals(-12, reader.nextInt());
+		assertEquals(JsonToken.BOOLEAN, reader.peek());
+		assertTrue(reader.nextBoolean());
+		assertFalse(reader.hasNext());
+		reader.endArray();
+		assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+	}
+
+	@Test
+	void testObject_WithTwoProperties()
+	{
+		JsonReader reader = reader("{\"a\" : \"b\", \"c\": 4  }");
+		reader.beginObject();
+		assertTrue(reader.hasNext());
+		assertEquals(JsonToken.NAME, reader.peek());
+		assertEquals("a", reader.nextName());
+		assertEquals("b", reader.nextString());
+		assertEquals("c", reader.nextName());
+		assertEquals(4, reader.nextInt());
+		assertFalse(reader.hasNext());
+		reader.endObject();
+	}
+
+	@Test
+	void testNextString_Escapes()
+	{
+		assertEquals("a\"b\\c\ndé", reader("\"a\\\"b\\\\c\\nd\\u00e9\"").nextString());
+	}
+
+	@Test
+	void testNextString_ControlCharacter()
+	{
+		assertThrows(JsonParsingException.class, () -> reader("\"a\nb\"").nextString());
+	}
+
+	@Test
+	void testNextInt_Illegal()
+	{
+		assertThrows(JsonParsingException.class, () -> reader("012").nextInt());
+		assertThrows(JsonParsingException.class, () -> reader("-0").nextInt());
+		assertThrows(JsonParsingException.class, () -> reader("-").nextInt());
+	}
+
+	@Test
+	void testNextBoolean_Illegal()
+	{
+		assertThrows(JsonParsingException.class, () -> reader("tru").nextBoolean());
+	}
+
+	@Test
+	void testNextValue_SameAsParser()
+	{
+		String input = "{\"a\": [1, \"x\", false, {\"b\": []}], \"c\": {\"d\": -3}}";
+		JsonObject expected = JsonParser.parse(input);
+		JsonObject actual = (JsonObject) reader(input).nextValue();
+		assertEquals(expected.toString(), actual.toString());
+	}
+
+	@Test
+	void testNextValue_DuplicateKey()
+	{
+		assertThrows(JsonParsingException.class, () -> reader("{\"a\": 1, \"a\": 2}").nextValue());
+	}
+
+	@Test
+	void testSkipValue()
+	{
+		JsonReader reader = reader("{\"a\": [1, {\"b\": \"]\"}], \"c\": 2}");
+		reader.beginObject();
+		reader.nextName();
+		reader.skipValue();
+		assertEquals("c", reader.nextName());
+		assertEquals(2, reader.nextInt());
+		reader.endObject();
+	}
+
+	@Test
+	void testTrailingComma()
+	{
+		JsonReader reader = reader("[1,]");
+		reader.beginArray();
+		reader.nextInt();
+		assertThrows(JsonParsingException.class, () -> reader.hasNext());
+	}
+
+	@Test
+	void testMissingColon()
+	{
+		JsonReader reader = reader("{\"a\" 1}");
+		reader.beginObject();
+		reader.nextName();
+		assertThrows(JsonParsingException.class, () -> reader.nextInt());
+	}
+
+	@Test
+	void testUnexpectedToken()
+	{
+		assertThrows(JsonParsingException.class, () -> reader("[]").beginObject());
+		assertThrows(JsonParsingException.class, () -> reader("").beginObject());
+	}
+
+	@Test
+	void testLongInput()
+	{
+		StringBuilder input = new StringBuilder("[");
+		for( int i = 0; i < 10000; i++ )
+		{
+			input.append(i == 0 ? "" : ",").append("\"element").append(i).append('"');
+		}
+		input.append(']');
+		JsonReader reader = reader(input.toString());
+		reader.beginArray();
+		int count = 0;
+		while( reader.hasNext() )
+		{
+			assertEquals("element" + count, reader.nextString());
+			count++;
+		}
+		reader.endArray();
+		assertEquals(10000, count);
+	}
+}
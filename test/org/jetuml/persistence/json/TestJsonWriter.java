@@ -23,10 +23,12 @@ package org.jetuml.persistence.json;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.StringWriter;
+
 import org.junit.jupiter.api.Test;
 
 /*
- * Only testing that the operation is despatched as expected.
+ * For the static method, only testing that the operation is despatched as expected.
  */
 public class TestJsonWriter
 {
@@ -68,4 +70,69 @@ public class TestJsonWriter
 	{
 		assertThrows(JsonException.class, () -> JsonWriter.write(null));
 	}
+	
+	@Test
+	void testStream_Empty()
+	{
+		StringWriter output = new StringWriter();
+		JsonWriter writer = new JsonWriter(output);
+		writer.beginObject();
+		writer.endObject();
+		assertEquals("{}", output.toString());
+	}
+	
+	@Test
+	void testStream_Nested()
+	{
+		StringWriter output = new StringWriter();
+		JsonWriter writer = new JsonWriter(output);
+		writer.beginObject();
+		writer.name("a");
+		writer.value("b\n");
+		writer.name("c");
+		writer.beginArray();
+		writer.value(1);
+		writer.value(false);
+		writer.beginObject();
+		writer.endObject();
+		writer.beginArray();
+		writer.endArray();
+		writer.endArray();
+		writer.name("d");
+		writer.value(-3);
+		writer.endObject();
+		assertEquals("{\"a\":\"b\\n\",\"c\":[1,false,{},[]],\"d\":-3}", output.toString());
+	}
+	
+	@Test
+	void testStream_ValueWithoutName()
+	{
+		JsonWriter writer = new JsonWriter(new StringWriter());
+		writer.beginObject();
+		assertThrows(JsonException.class, () -> writer.value(1));
+	}
+	
+	@Test
+	void testStream_NameInArray()
+	{
+		JsonWriter writer = new JsonWriter(new StringWriter());
+		writer.beginArray();
+		assertThrows(JsonException.class, () -> writer.name("a"));
+	}
+	
+	@Test
+	void testStream_BadNesting()
+	{
+		JsonWriter writer = new JsonWriter(new StringWriter());
+		writer.beginArray();
+		assertThrows(JsonException.class, () -> writer.endObject());
+	}
+	
+	@Test
+	void testStream_TwoValues()
+	{
+		JsonWriter writer = new JsonWriter(new StringWriter());
+		writer.value(1);
+		assertThrows(JsonException.class, () -> writer.value(2));
+	}
 }
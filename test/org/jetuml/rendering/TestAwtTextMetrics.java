@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jetuml.geom.Dimension;
+import org.junit.jupiter.api.Test;
+
+public class TestAwtTextMetrics
+{
+	private static final FontDescription FONT = new FontDescription("SansSerif", 12, false, false);
+	
+	private final AwtTextMetrics aMetrics = new AwtTextMetrics();
+	
+	@Test
+	public void testLinesAreStacked()
+	{
+		Dimension line = aMetrics.getDimension("Display String", FONT);
+		Dimension lines = aMetrics.getDimension("Display String\nString\n", FONT);
+		assertTrue(line.width() > 0);
+		assertEquals(line.width(), lines.width());
+		assertEquals(aMetrics.lineHeight(FONT), line.height());
+		assertEquals(3 * line.height(), lines.height(), 1);
+	}
+	
+	@Test
+	public void testBaselineOffsetWithinLine()
+	{
+		int baselineOffset = aMetrics.getBaselineOffset(FONT);
+		assertTrue(baselineOffset > 0);
+		assertTrue(baselineOffset < aMetrics.lineHeight(FONT));
+	}
+	
+	@Test
+	public void testFontSizeAndStyle()
+	{
+		Dimension plain = aMetrics.getDimension("Display String", FONT);
+		Dimension large = aMetrics.getDimension("Display String", new FontDescription("SansSerif", 24, false, false));
+		Dimension bold = aMetrics.getDimension("Display String", 
+				new FontDescription("SansSerif", 12, true, true));
+		assertTrue(large.width() > plain.width());
+		assertTrue(large.height() > plain.height());
+		assertTrue(bold.width() > plain.width());
+	}
+}
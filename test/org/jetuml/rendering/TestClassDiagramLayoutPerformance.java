@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.jetuml.testutils.PerformanceTestUtils.addRowDependencies;
+import static org.jetuml.testutils.PerformanceTestUtils.connect;
+import static org.jetuml.testutils.PerformanceTestUtils.createClassGrid;
+import static org.jetuml.testutils.PerformanceTestUtils.printAverageMillis;
+
+import java.util.List;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.Node;
+import org.jetuml.diagram.edges.AssociationEdge;
+import org.jetuml.diagram.edges.GeneralizationEdge;
+import org.jetuml.geom.Point;
+
+import javafx.scene.canvas.Canvas;
+
+/**
+ * Compares the time to draw a large class diagram after moving a single
+ * node with the time to draw it with a complete layout of its edges.
+ */
+public final class TestClassDiagramLayoutPerformance
+{
+	private static final int NUMBER_OF_COLUMNS = 25;
+	private static final int NUMBER_OF_NODES = 750;
+	
+	private TestClassDiagramLayoutPerformance() {}
+
+	/**
+	 * Test method.
+	 */
+	public static void main(String[] pArgs)
+	{
+		Diagram diagram = createDiagram();
+		ClassDiagramRenderer renderer = new ClassDiagramRenderer(diagram);
+		RenderingContext context = new GraphicsRenderingContext(new Canvas().getGraphicsContext2D());
+		renderer.draw(context);
+		Node moved = diagram.rootNodes().get(NUMBER_OF_NODES / 2);
+		Point origin = moved.position();
+		Point shifted = new Point(origin.x() + 10, origin.y() + 10);
+		
+		System.out.println("Test ClassDiagramRenderer.draw for " + NUMBER_OF_NODES + " nodes and "
+				+ diagram.edges().size() + " edges after moving one node : ");
+		printAverageMillis("with complete layout", () -> 
+		{
+			renderer.layout();
+			renderer.draw(context);
+		});
+		printAverageMillis("with incremental layout", () -> 
+		{
+			moved.moveTo(moved.position().equals(origin) ? shifted : origin);
+			renderer.draw(context);
+		});
+	}
+	
+	/*
+	 * A grid of classes where each class depends on the next one in its row, 
+	 * is associated with the class below it, and every other class inherits 
+	 * from the class two rows below.
+	 */
+	private static Diagram createDiagram()
+	{
+		Diagram diagram = createClassGrid(NUMBER_OF_NODES, NUMBER_OF_COLUMNS, 250, 200);
+		addRowDependencies(diagram, NUMBER_OF_COLUMNS);
+		List<Node> nodes = diagram.rootNodes();
+		for( int i = 0; i < NUMBER_OF_NODES; i++ )
+		{
+			if( i + NUMBER_OF_COLUMNS < NUMBER_OF_NODES )
+			{
+				connect(diagram, new AssociationEdge(), nodes.get(i), nodes.get(i + NUMBER_OF_COLUMNS));
+			}
+			if( i % 2 == 0 && i + 2 * NUMBER_OF_COLUMNS < NUMBER_OF_NODES )
+			{
+				connect(diagram, new GeneralizationEdge(), nodes.get(i + 2 * NUMBER_OF_COLUMNS), nodes.get(i));
+			}
+		}
+		return diagram;
+	}
+}
@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetuml.JavaFXLoader;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.Node;
+import org.jetuml.diagram.edges.DependencyEdge;
+import org.jetuml.diagram.edges.GeneralizationEdge;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that drawing a class diagram only plans again the paths of the 
+ * edges affected by changes to the diagram, and that the paths are the 
+ * same as those of a complete layout.
+ */
+public class TestClassDiagramRenderer
+{
+	private final RenderingContext aContext = mock(RenderingContext.class);
+	private Diagram aDiagram;
+	private ClassDiagramRenderer aRenderer;
+	private Node aNodeA;
+	private Node aNodeB;
+	private Node aNodeC;
+	private Node aNodeD;
+	private Edge aEdgeAB;
+	private Edge aEdgeCD;
+	private final List<Edge> aOtherEdges = new ArrayList<>();
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	/*
+	 * Pairs of connected nodes, far apart from each other. The dependency between 
+	 * C and D is planned before the one between A and B, and both are planned after
+	 * the generalizations between the other pairs.
+	 */
+	@BeforeEach
+	public void setup()
+	{
+		aDiagram = new Diagram(DiagramType.CLASS);
+		aRenderer = new ClassDiagramRenderer(aDiagram);
+		aNodeA = createNode(100, 0);
+		aNodeB = createNode(100, 300);
+		aNodeC = createNode(1000, 0);
+		aNodeD = createNode(1000, 300);
+		aEdgeCD = createEdge(new DependencyEdge(), aNodeD, aNodeC);
+		aEdgeAB = createEdge(new DependencyEdge(), aNodeB, aNodeA);
+		for( int i = 0; i < 4; i++ )
+		{
+			aOtherEdges.add(createEdge(new GeneralizationEdge(), createNode(2000 + i * 500, 300), 
+					createNode(2000 + i * 500, 0)));
+		}
+		aRenderer.draw(aContext);
+	}
+	
+	private Node createNode(int pX, int pY)
+	{
+		Node node = new ClassNode();
+		node.moveTo(new Point(pX, pY));
+		aDiagram.addRootNode(node);
+		return node;
+	}
+	
+	private Edge createEdge(Edge pEdge, Node pStart, Node pEnd)
+	{
+		pEdge.connect(pStart, pEnd);
+		aDiagram.addEdge(pEdge);
+		return pEdge;
+	}
+	
+	private EdgePath path(Edge pEdge)
+	{
+		return aRenderer.getStoredEdgePath(pEdge).get();
+	}
+	
+	private List<EdgePath> otherPaths()
+	{
+		return aOtherEdges.stream().map(this::path).toList();
+	}
+	
+	private void assertOtherPathsKept(List<EdgePath> pPaths)
+	{
+		for( int i = 0; i < pPaths.size(); i++ )
+		{
+			assertSame(pPaths.get(i), path(aOtherEdges.get(i)));
+		}
+	}
+	
+	/*
+	 * The path a complete layout of the diagram produces.
+	 */
+	private EdgePath laidOutPath(Edge pEdge)
+	{
+		ClassDiagramRenderer renderer = new ClassDiagramRenderer(aDiagram);
+		renderer.draw(aContext);
+		return renderer.getStoredEdgePath(pEdge).get();
+	}
+	
+	/*
+	 * Asserts that the paths of all the edges are those of a complete layout.
+	 */
+	private void assertAllPathsLaidOut()
+	{
+		ClassDiagramRenderer renderer = new ClassDiagramRenderer(aDiagram);
+		renderer.draw(aContext);
+		for( Edge edge : aDiagram.edges() )
+		{
+			assertEquals(renderer.getStoredEdgePath(edge), aRenderer.getStoredEdgePath(edge));
+		}
+	}
+	
+	@Test
+	void testDraw_Unchanged()
+	{
+		EdgePath pathAB = path(aEdgeAB);
+		EdgePath pathCD = path(aEdgeCD);
+		List<EdgePath> otherPaths = otherPaths();
+		aRenderer.draw(aContext);
+		assertSame(pathAB, path(aEdgeAB));
+		assertSame(pathCD, path(aEdgeCD));
+		assertOtherPathsKept(otherPaths);
+	}
+	
+	@Test
+	void testDraw_MovedNode()
+	{
+		EdgePath pathAB = path(aEdgeAB);
+		EdgePath pathCD = path(aEdgeCD);
+		List<EdgePath> otherPaths = otherPaths();
+		aNodeB.translate(50, 20);
+		aRenderer.draw(aContext);
+		assertNotEquals(pathAB, path(aEdgeAB));
+		assertEquals(laidOutPath(aEdgeAB), path(aEdgeAB));
+		assertSame(pathCD, path(aEdgeCD));
+		assertOtherPathsKept(otherPaths);
+	}
+	
+	@Test
+	void testDraw_MovedNodeWithoutEdges()
+	{
+		EdgePath pathAB = path(aEdgeAB);
+		EdgePath pathCD = path(aEdgeCD);
+		List<EdgePath> otherPaths = otherPaths();
+		createNode(5000, 5000).translate(10, 10);
+		aRenderer.draw(aContext);
+		aDiagram.rootNodes().get(aDiagram.rootNodes().size() - 1).translate(10, 10);
+		aRenderer.draw(aContext);
+		assertSame(pathAB, path(aEdgeAB));
+		assertSame(pathCD, path(aEdgeCD));
+		assertOtherPathsKept(otherPaths);
+	}
+	
+	@Test
+	void testDraw_MovedNodeAndMovedBack()
+	{
+		Edge edge = createEdge(new GeneralizationEdge(), createNode(300, 300), aNodeA);
+		aRenderer.draw(aContext);
+		aNodeB.translate(300, 50);
+		aNodeA.translate(0, 100);
+		aRenderer.draw(aContext);
+		assertAllPathsLaidOut();
+		aNodeB.translate(-300, -50);
+		aNodeA.translate(0, -100);
+		aRenderer.draw(aContext);
+		assertAllPathsLaidOut();
+		assertTrue(aRenderer.getStoredEdgePath(edge).isPresent());
+	}
+	
+	@Test
+	void testDraw_AddedEdge()
+	{
+		EdgePath pathAB = path(aEdgeAB);
+		EdgePath pathCD = path(aEdgeCD);
+		List<EdgePath> otherPaths = otherPaths();
+		Node nodeE = createNode(100, 600);
+		Edge edgeEB = createEdge(new DependencyEdge(), nodeE, aNodeB);
+		aRenderer.draw(aContext);
+		assertEquals(laidOutPath(edgeEB), path(edgeEB));
+		assertSame(pathAB, path(aEdgeAB));
+		assertSame(pathCD, path(aEdgeCD));
+		assertOtherPathsKept(otherPaths);
+	}
+	
+	@Test
+	void testDraw_RemovedEdge()
+	{
+		EdgePath pathCD = path(aEdgeCD);
+		List<EdgePath> otherPaths = otherPaths();
+		aDiagram.removeEdge(aEdgeAB);
+		aRenderer.draw(aContext);
+		assertFalse(aRenderer.getStoredEdgePath(aEdgeAB).isPresent());
+		assertSame(pathCD, path(aEdgeCD));
+		assertOtherPathsKept(otherPaths);
+	}
+	
+	@Test
+	void testDraw_ChangedEdge()
+	{
+		EdgePath pathCD = path(aEdgeCD);
+		List<EdgePath> otherPaths = otherPaths();
+		((DependencyEdge) aEdgeAB).setMiddleLabel("uses");
+		aRenderer.draw(aContext);
+		assertEquals(laidOutPath(aEdgeAB), path(aEdgeAB));
+		assertSame(pathCD, path(aEdgeCD));
+		assertOtherPathsKept(otherPaths);
+	}
+	
+	@Test
+	void testDraw_ChangedEdgeOfEarlierPass()
+	{
+		((GeneralizationEdge) aOtherEdges.get(2)).setType(GeneralizationEdge.Type.Implementation);
+		aRenderer.draw(aContext);
+		assertAllPathsLaidOut();
+	}
+	
+	@Test
+	void testDraw_MovedNodeReplansMostPaths()
+	{
+		// The paths planned again outnumber those kept, so the kept ones are stored again
+		for( int i = 0; i < 5; i++ )
+		{
+			createEdge(new DependencyEdge(), aNodeC, createNode(1300, i * 100));
+		}
+		aRenderer.draw(aContext);
+		List<EdgePath> otherPaths = otherPaths();
+		aNodeD.translate(0, 50);
+		aRenderer.draw(aContext);
+		assertAllPathsLaidOut();
+		assertOtherPathsKept(otherPaths);
+		aNodeA.translate(0, 50);
+		aRenderer.draw(aContext);
+		assertAllPathsLaidOut();
+	}
+	
+	@Test
+	void testDraw_MovedNodeCrossesPath()
+	{
+		// Moves node A between nodes C and D, across the path of aEdgeCD
+		List<EdgePath> otherPaths = otherPaths();
+		aNodeA.moveTo(new Point(1000, 150));
+		aRenderer.draw(aContext);
+		assertEquals(laidOutPath(aEdgeAB), path(aEdgeAB));
+		assertEquals(laidOutPath(aEdgeCD), path(aEdgeCD));
+		assertOtherPathsKept(otherPaths);
+	}
+	
+	@Test
+	void testGetLayoutChanges_Unchanged()
+	{
+		aRenderer.draw(aContext);
+		assertTrue(aRenderer.getLayoutChanges().isEmpty());
+	}
+	
+	@Test
+	void testGetLayoutChanges_MovedNode()
+	{
+		Rectangle previousBounds = aRenderer.getBounds(aEdgeAB);
+		aNodeB.translate(50, 20);
+		aRenderer.draw(aContext);
+		Rectangle changes = aRenderer.getLayoutChanges().get();
+		assertTrue(changes.contains(previousBounds));
+		assertTrue(changes.contains(aRenderer.getBounds(aEdgeAB)));
+		assertFalse(changes.intersects(aRenderer.getBounds(aEdgeCD)));
+	}
+	
+	@Test
+	void testUpdateLayout_BeforeDraw()
+	{
+		Rectangle previousBounds = aRenderer.getBounds(aEdgeAB);
+		aNodeB.translate(50, 20);
+		aRenderer.updateLayout();
+		assertTrue(aRenderer.getLayoutChanges().get().contains(previousBounds));
+		EdgePath path = path(aEdgeAB);
+		aRenderer.draw(aContext, new Rectangle(0, 0, 500, 500));
+		assertSame(path, path(aEdgeAB));
+		assertTrue(aRenderer.getLayoutChanges().isEmpty());
+	}
+	
+	@Test
+	void testGetLayoutChanges_CompleteLayout()
+	{
+		ClassDiagramRenderer renderer = new ClassDiagramRenderer(aDiagram);
+		renderer.draw(aContext);
+		assertTrue(renderer.getLayoutChanges().get().contains(renderer.getBounds()));
+	}
+}
@@ -23,13 +23,24 @@ package org.jetuml.rendering;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
 
 import org.jetuml.diagram.Diagram;
 import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Edge;
 import org.jetuml.diagram.Node;
+import org.jetuml.diagram.edges.DependencyEdge;
 import org.jetuml.diagram.nodes.ClassNode;
 import org.jetuml.diagram.nodes.PackageNode;
+import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
 import org.junit.jupiter.api.Test;
 
 public class TestDiagramRenderer
@@ -107,6 +118,144 @@ public class TestDiagramRenderer
 		assertSame(p2, aRenderer.nodeAt(new Point(15,15)).get());
 	}
 	
+	@Test
+	void testNodeAt_AfterAddingRootNode()
+	{
+		assertTrue(aRenderer.nodeAt(new Point(520,520)).isEmpty());
+		ClassNode node = new ClassNode();
+		node.translate(500, 500);
+		aDiagram.addRootNode(node);
+		assertSame(node, aRenderer.nodeAt(new Point(520,520)).get());
+	}
+	
+	@Test
+	void testNodeAt_AfterMovingNodeAndDrawing()
+	{
+		assertSame(aNode, aRenderer.nodeAt(new Point(20,20)).get());
+		aNode.translate(500, 500);
+		aRenderer.draw(mock(RenderingContext.class));
+		assertTrue(aRenderer.nodeAt(new Point(20,20)).isEmpty());
+		assertSame(aNode, aRenderer.nodeAt(new Point(520,520)).get());
+	}
+	
+	@Test
+	void testNodeAt_AfterMovingNodeWithoutDrawing()
+	{
+		assertSame(aNode, aRenderer.nodeAt(new Point(20,20)).get());
+		aNode.translate(500, 500);
+		assertTrue(aRenderer.nodeAt(new Point(20,20)).isEmpty());
+		assertSame(aNode, aRenderer.nodeAt(new Point(520,520)).get());
+	}
+	
+	@Test
+	void testNodeAt_AfterMovingChildNodeInBatch()
+	{
+		PackageNode p1 = new PackageNode();
+		ClassNode node = new ClassNode();
+		p1.translate(500, 500);
+		node.translate(510, 510);
+		p1.addChild(node);
+		aDiagram.addRootNode(p1);
+		assertSame(node, aRenderer.nodeAt(new Point(520,520)).get());
+		aDiagram.batchChanges(() -> 
+		{
+			node.translate(500, 500);
+			assertSame(node, aRenderer.nodeAt(new Point(1020,1020)).get());
+		});
+	}
+	
+	@Test
+	void testNodeAt_AfterMovingChildNodeAfterBatch()
+	{
+		PackageNode p1 = new PackageNode();
+		ClassNode node = new ClassNode();
+		p1.translate(500, 500);
+		node.translate(510, 510);
+		p1.addChild(node);
+		aDiagram.addRootNode(p1);
+		assertSame(node, aRenderer.nodeAt(new Point(520,520)).get());
+		aDiagram.batchChanges(() -> node.translate(500, 500));
+		assertSame(node, aRenderer.nodeAt(new Point(1020,1020)).get());
+		assertSame(aNode, aRenderer.nodeAt(new Point(20,20)).get());
+	}
+	
+	@Test
+	void testEdgeAt_AfterMovingNodeAndDrawing()
+	{
+		ClassNode node = new ClassNode();
+		node.translate(300, 0);
+		aDiagram.addRootNode(node);
+		Edge edge = new DependencyEdge();
+		edge.connect(aNode, node);
+		aDiagram.addEdge(edge);
+		aRenderer.draw(mock(RenderingContext.class));
+		assertSame(edge, aRenderer.edgeAt(new Point(200, 30)).get());
+		node.translate(0, 500);
+		aRenderer.draw(mock(RenderingContext.class));
+		assertTrue(aRenderer.edgeAt(new Point(200, 30)).isEmpty());
+		Line path = aRenderer.getConnectionPoints(edge);
+		assertSame(edge, aRenderer.edgeAt(path.center()).get());
+	}
+	
+	@Test
+	void testNodesWithin()
+	{
+		PackageNode p1 = new PackageNode();
+		ClassNode node = new ClassNode();
+		p1.translate(500, 500);
+		node.translate(510, 510);
+		p1.addChild(node);
+		aDiagram.addRootNode(p1);
+		assertTrue(aRenderer.nodesWithin(new Rectangle(200, 200, 100, 100)).isEmpty());
+		assertEquals(List.of(aNode), aRenderer.nodesWithin(new Rectangle(0, 0, 100, 60)));
+		assertEquals(List.of(node), aRenderer.nodesWithin(new Rectangle(505, 505, 200, 200)));
+		assertEquals(List.of(aNode, p1, node), aRenderer.nodesWithin(new Rectangle(0, 0, 2000, 2000)));
+	}
+	
+	@Test
+	void testEdgesWithin()
+	{
+		ClassNode node = new ClassNode();
+		node.translate(300, 0);
+		aDiagram.addRootNode(node);
+		Edge edge = new DependencyEdge();
+		edge.connect(aNode, node);
+		aDiagram.addEdge(edge);
+		aRenderer.draw(mock(RenderingContext.class));
+		assertEquals(List.of(edge), aRenderer.edgesWithin(new Rectangle(0, 0, 400, 100)));
+		assertTrue(aRenderer.edgesWithin(new Rectangle(0, 0, 100, 60)).isEmpty());
+	}
+	
+	@Test
+	void testDraw_VisibleRegionSkipsHiddenNodes()
+	{
+		ClassNode node = new ClassNode();
+		node.translate(500, 500);
+		aDiagram.addRootNode(node);
+		RenderingContext context = mock(RenderingContext.class);
+		aRenderer.draw(context, new Rectangle(0, 0, 200, 200));
+		verify(context).drawRectangle(eq(aRenderer.getBounds(aNode)), any(), any(), any());
+		verify(context, never()).drawRectangle(eq(aRenderer.getBounds(node)), any(), any(), any());
+	}
+	
+	@Test
+	void testDraw_VisibleRegionSkipsHiddenEdges()
+	{
+		ClassNode node = new ClassNode();
+		node.translate(300, 0);
+		aDiagram.addRootNode(node);
+		Edge edge = new DependencyEdge();
+		edge.connect(aNode, node);
+		aDiagram.addEdge(edge);
+		RenderingContext context = mock(RenderingContext.class);
+		aRenderer.draw(context, new Rectangle(500, 500, 100, 100));
+		verify(context, never()).strokePath(any(), any(), any());
+		verify(context, never()).drawRectangle(any(), any(), any(), any());
+		aRenderer.draw(context, new Rectangle(150, 0, 50, 50));
+		verify(context).strokePath(any(), any(), any());
+		verify(context, never()).drawRectangle(any(), any(), any(), any());
+	}
+	
 	@Test
 	void testToPoints_topRight()
 	{
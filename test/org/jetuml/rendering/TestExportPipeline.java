@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetuml.JavaFXLoader;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class TestExportPipeline
+{
+	private final RenderingContext aContext = mock(RenderingContext.class);
+	private final List<Rectangle> aBounds = new ArrayList<>();
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@Test
+	public void testLaidOutOnceForAllSinks()
+	{
+		DiagramRenderer renderer = mock(DiagramRenderer.class);
+		when(renderer.getBounds()).thenReturn(new Rectangle(10, 20, 30, 40));
+		ExportPipeline pipeline = new ExportPipeline(renderer);
+		assertEquals("A", pipeline.export(new RecordingSink("A")));
+		assertEquals("B", pipeline.export(new RecordingSink("B")));
+		verify(renderer).getBounds();
+		verify(renderer, times(2)).draw(aContext);
+		assertEquals(List.of(new Rectangle(10, 20, 30, 40), new Rectangle(10, 20, 30, 40)), aBounds);
+	}
+	
+	@Test
+	public void testSvgExport()
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		ClassNode node = new ClassNode();
+		node.moveTo(new Point(50, 60));
+		diagram.addRootNode(node);
+		DiagramRenderer renderer = DiagramType.newRendererInstanceFor(diagram);
+		SvgRenderingContext expected = new SvgRenderingContext(renderer.getBounds());
+		renderer.draw(expected);
+		
+		StringWriter output = new StringWriter();
+		assertSame(output, new ExportPipeline(renderer).export(new SvgExportSink<>(output)));
+		assertEquals(expected.create(), output.toString());
+	}
+	
+	private final class RecordingSink implements ExportSink<String>
+	{
+		private final String aResult;
+		
+		RecordingSink(String pResult)
+		{
+			aResult = pResult;
+		}
+		
+		@Override
+		public RenderingContext begin(Rectangle pBounds)
+		{
+			aBounds.add(pBounds);
+			return aContext;
+		}
+
+		@Override
+		public String end()
+		{
+			return aResult;
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Optional;
+
+import org.jetuml.JavaFXLoader;
+import org.jetuml.geom.Rectangle;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.paint.Paint;
+
+/**
+ * Tests that the GraphicsRenderingContext changes the style of the 
+ * graphics context only when needed.
+ */
+public class TestGraphicsRenderingContext
+{
+	private final GraphicsContext aGraphics = mock(GraphicsContext.class);
+	private final GraphicsRenderingContext aContext = new GraphicsRenderingContext(aGraphics);
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@Test
+	public void testStyleSetOnceForConsecutiveOperationsInTheSameStyle()
+	{
+		aContext.strokeLine(0, 0, 10, 10, Color.BLACK, LineStyle.SOLID);
+		aContext.strokeLine(10, 10, 20, 20, Color.BLACK, LineStyle.SOLID);
+		aContext.drawRectangle(new Rectangle(0, 0, 10, 10), Color.WHITE, Color.BLACK, Optional.empty());
+		verify(aGraphics).setStroke(Color.BLACK);
+		verify(aGraphics).setLineDashes(LineStyle.SOLID.getLineDashes());
+		verify(aGraphics).setFill(Color.WHITE);
+		verify(aGraphics, never()).save();
+		verify(aGraphics, never()).restore();
+	}
+	
+	@Test
+	public void testStyleSetAgainWhenItChanges()
+	{
+		aContext.strokeLine(0, 0, 10, 10, Color.BLACK, LineStyle.SOLID);
+		aContext.strokeLine(0, 0, 10, 10, Color.RED, LineStyle.DOTTED);
+		aContext.strokeLine(0, 0, 10, 10, Color.BLACK, LineStyle.SOLID);
+		verify(aGraphics, times(2)).setStroke(Color.BLACK);
+		verify(aGraphics).setStroke(Color.RED);
+		verify(aGraphics, times(2)).setLineDashes(LineStyle.SOLID.getLineDashes());
+		verify(aGraphics).setLineDashes(LineStyle.DOTTED.getLineDashes());
+	}
+	
+	@Test
+	public void testStyleSetAgainAfterReset()
+	{
+		aContext.strokeLine(0, 0, 10, 10, Color.BLACK, LineStyle.SOLID);
+		aContext.resetState();
+		aContext.strokeLine(0, 0, 10, 10, Color.BLACK, LineStyle.SOLID);
+		verify(aGraphics, times(2)).setStroke(Color.BLACK);
+		verify(aGraphics, times(2)).setEffect(any());
+	}
+	
+	@Test
+	public void testGridFilledWithTheSamePatternInOneOperation()
+	{
+		aContext.drawGrid(new Rectangle(0, 0, 400, 300), 10, Color.GRAY);
+		aContext.drawGrid(new Rectangle(0, 0, 400, 300), 10, Color.GRAY);
+		ArgumentCaptor<Paint> fills = ArgumentCaptor.forClass(Paint.class);
+		verify(aGraphics, times(2)).setFill(fills.capture());
+		verify(aGraphics, times(2)).fillRect(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+		verify(aGraphics, never()).strokeLine(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+		assertSame(fills.getAllValues().get(0), fills.getAllValues().get(1));
+		assertEquals(10, ((ImagePattern) fills.getValue()).getWidth());
+	}
+	
+	@Test
+	public void testFillSetAgainAfterGrid()
+	{
+		aContext.drawRectangle(new Rectangle(0, 0, 10, 10), Color.WHITE, Color.BLACK, Optional.empty());
+		aContext.drawGrid(new Rectangle(0, 0, 400, 300), 10, Color.GRAY);
+		aContext.drawRectangle(new Rectangle(0, 0, 10, 10), Color.WHITE, Color.BLACK, Optional.empty());
+		verify(aGraphics, times(2)).setFill(Color.WHITE);
+	}
+}
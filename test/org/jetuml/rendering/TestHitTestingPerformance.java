@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.jetuml.testutils.PerformanceTestUtils.averageNanos;
+import static org.jetuml.testutils.PerformanceTestUtils.createClassGrid;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.jetuml.diagram.Node;
+import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
+
+import javafx.scene.canvas.Canvas;
+
+/**
+ * Compares the performance of finding the nodes at points and in small
+ * areas of a large diagram through the spatial index of the renderer with
+ * a linear scan of the nodes of the diagram. Also measures the queries that
+ * follow a rendering pass, as when the canvas is painted before a click is 
+ * processed, which must not rebuild the index.
+ */
+public final class TestHitTestingPerformance
+{
+	private static final int NUMBER_OF_NODES = 10000;
+	private static final int NUMBER_OF_COLUMNS = 100;
+	private static final int NUMBER_OF_QUERIES = 1000;
+	private static final int NUMBER_OF_DRAWS = 50;
+	private static final Rectangle VIEWPORT = new Rectangle(1500, 1500, 1000, 700);
+	private static final double NANOS_PER_MICRO = 1000.0;
+
+	private TestHitTestingPerformance() {}
+
+	/**
+	 * Test method.
+	 */
+	public static void main(String[] pArgs)
+	{
+		ClassDiagramRenderer renderer = new ClassDiagramRenderer(createClassGrid(NUMBER_OF_NODES, NUMBER_OF_COLUMNS, 150, 100));
+		List<Point> points = new ArrayList<>();
+		for( int i = 0; i < NUMBER_OF_QUERIES; i++ )
+		{
+			points.add(new Point((i * 7919) % (NUMBER_OF_COLUMNS * 150), (i * 104729) % (NUMBER_OF_NODES / NUMBER_OF_COLUMNS * 100)));
+		}
+
+		Instant start = Instant.now();
+		renderer.nodeAt(points.get(0));
+		Instant stop = Instant.now();
+		System.out.println("Test DiagramRenderer.nodeAt for " + NUMBER_OF_NODES + " nodes : ");
+		System.out.println("Duration (ms) of the first query, which builds the index : " + Duration.between(start, stop).toMillis());
+
+		int indexCount = points.stream().mapToInt(point -> renderer.nodeAt(point).isPresent() ? 1 : 0).sum();
+		int scanCount = points.stream().mapToInt(point -> linearNodeAt(renderer, point).isPresent() ? 1 : 0).sum();
+		indexCount += points.stream().mapToInt(point -> renderer.nodesWithin(lasso(point)).size()).sum();
+		scanCount += points.stream().mapToInt(point -> linearNodesWithin(renderer, lasso(point)).size()).sum();
+		assert indexCount == scanCount;
+
+		printAverageMicros("a nodeAt query with index", NUMBER_OF_QUERIES, 
+				() -> points.forEach(renderer::nodeAt));
+		printAverageMicros("a nodeAt query with linear scan", NUMBER_OF_QUERIES, 
+				() -> points.forEach(point -> linearNodeAt(renderer, point)));
+		printAverageMicros("a nodesWithin query with index", NUMBER_OF_QUERIES, 
+				() -> points.forEach(point -> renderer.nodesWithin(lasso(point))));
+		printAverageMicros("a nodesWithin query with linear scan", NUMBER_OF_QUERIES, 
+				() -> points.forEach(point -> linearNodesWithin(renderer, lasso(point))));
+
+		RenderingContext context = new GraphicsRenderingContext(new Canvas().getGraphicsContext2D());
+		printAverageMicros("a draw of the viewport " + VIEWPORT, NUMBER_OF_DRAWS, 
+				() -> points.subList(0, NUMBER_OF_DRAWS).forEach(point -> renderer.draw(context, VIEWPORT)));
+		printAverageMicros("a draw of the viewport followed by a nodeAt query", NUMBER_OF_DRAWS, 
+				() -> points.subList(0, NUMBER_OF_DRAWS).forEach(point -> 
+				{
+					renderer.draw(context, VIEWPORT);
+					renderer.nodeAt(point);
+				}));
+	}
+	
+	/*
+	 * Prints the average duration of one of the pRepetitions operations done by each run of pTask.
+	 */
+	private static void printAverageMicros(String pDescription, int pRepetitions, Runnable pTask)
+	{
+		System.out.println("Average Duration (us) of " + pDescription + " : " 
+				+ averageNanos(pTask) / pRepetitions / NANOS_PER_MICRO);
+	}
+
+	private static Rectangle lasso(Point pPoint)
+	{
+		return new Rectangle(pPoint.x(), pPoint.y(), 300, 200);
+	}
+
+	/*
+	 * Reference implementation of DiagramRenderer.nodeAt before the spatial index.
+	 */
+	private static Optional<Node> linearNodeAt(AbstractDiagramRenderer pRenderer, Point pPoint)
+	{
+		return pRenderer.diagram().rootNodes().stream()
+				.map(node -> pRenderer.deepFindNode(node, pPoint))
+				.filter(Optional::isPresent)
+				.map(Optional::get)
+				.reduce((first, second) -> second);
+	}
+
+	/*
+	 * Reference implementation of the lasso selection before the spatial index.
+	 */
+	private static List<Node> linearNodesWithin(DiagramRenderer pRenderer, Rectangle pArea)
+	{
+		return pRenderer.diagram().allNodes().stream()
+				.filter(node -> pArea.contains(pRenderer.getBounds(node)))
+				.toList();
+	}
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.jetuml.testutils.PerformanceTestUtils.printAverageMillis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.Node;
+import org.jetuml.diagram.edges.CallEdge;
+import org.jetuml.diagram.nodes.CallNode;
+import org.jetuml.diagram.nodes.ImplicitParameterNode;
+import org.jetuml.geom.Point;
+
+import javafx.scene.canvas.Canvas;
+
+/**
+ * Tests the performance of drawing sequence diagrams with an
+ * increasing number of calls.
+ */
+public final class TestSequenceDiagramLayoutPerformance
+{
+	private static final int[] NUMBER_OF_CALLS = {250, 500, 1000};
+	private static final int NUMBER_OF_OBJECTS = 20;
+	private static final int CALL_DEPTH = 5;
+
+	private TestSequenceDiagramLayoutPerformance() {}
+
+	/**
+	 * Test method.
+	 */
+	public static void main(String[] pArgs)
+	{
+		RenderingContext context = new GraphicsRenderingContext(new Canvas().getGraphicsContext2D());
+		for( int calls : NUMBER_OF_CALLS )
+		{
+			Diagram diagram = createDiagram(calls);
+			SequenceDiagramRenderer renderer = new SequenceDiagramRenderer(diagram);
+			Node moved = diagram.rootNodes().get(NUMBER_OF_OBJECTS - 1);
+			Point origin = moved.position();
+			Point shifted = new Point(origin.x() + 10, origin.y());
+			System.out.println("Test SequenceDiagramRenderer.draw for " + calls + " calls : ");
+			printAverageMillis("after moving an object", () -> 
+			{
+				moved.moveTo(moved.position().equals(origin) ? shifted : origin);
+				renderer.draw(context);
+			});
+		}
+	}
+
+	/*
+	 * A root call on the first object that makes a sequence of call chains,
+	 * each CALL_DEPTH calls deep, that cycle through the objects.
+	 */
+	private static Diagram createDiagram(int pNumberOfCalls)
+	{
+		Diagram diagram = new Diagram(DiagramType.SEQUENCE);
+		List<ImplicitParameterNode> objects = new ArrayList<>();
+		for( int i = 0; i < NUMBER_OF_OBJECTS; i++ )
+		{
+			ImplicitParameterNode object = new ImplicitParameterNode();
+			object.moveTo(new Point(i * 120, 0));
+			diagram.addRootNode(object);
+			objects.add(object);
+		}
+		CallNode root = new CallNode();
+		objects.get(0).addChild(root);
+		CallNode caller = root;
+		for( int i = 0; i < pNumberOfCalls; i++ )
+		{
+			if( i % CALL_DEPTH == 0 )
+			{
+				caller = root;
+			}
+			CallNode callee = new CallNode();
+			objects.get(i % (NUMBER_OF_OBJECTS - 1) + 1).addChild(callee);
+			Edge edge = new CallEdge();
+			edge.connect(caller, callee);
+			diagram.addEdge(edge);
+			caller = callee;
+		}
+		return diagram;
+	}
+}
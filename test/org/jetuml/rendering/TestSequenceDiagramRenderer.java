@@ -23,6 +23,7 @@ package org.jetuml.rendering;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
 
 import java.lang.reflect.Method;
 import java.util.Optional;
@@ -154,6 +155,40 @@ public class TestSequenceDiagramRenderer
 		assertSame(callNode2, aRenderer.nodeAt(new Point(42,105)).get());
 	}
 	
+	@Test
+	void testGetLayoutChanges()
+	{
+		ImplicitParameterNode node1 = new ImplicitParameterNode();
+		ImplicitParameterNode node2 = new ImplicitParameterNode();
+		node2.translate(100, 0);
+		aDiagram.addRootNode(node1);
+		aDiagram.addRootNode(node2);
+		CallNode callNode1 = new CallNode();
+		CallNode callNode2 = new CallNode();
+		node1.addChild(callNode1);
+		node2.addChild(callNode2);
+		CallEdge edge = new CallEdge();
+		edge.connect(callNode1, callNode2);
+		aDiagram.addEdge(edge);
+		RenderingContext context = mock(RenderingContext.class);
+		
+		aRenderer.draw(context);
+		assertTrue(aRenderer.getLayoutChanges().isPresent());
+		aRenderer.draw(context);
+		assertTrue(aRenderer.getLayoutChanges().isEmpty());
+		node2.translate(50, 0);
+		aRenderer.draw(context);
+		assertTrue(aRenderer.getLayoutChanges().isEmpty());
+		
+		CallNode callNode3 = new CallNode();
+		node1.addChild(callNode3);
+		CallEdge edge2 = new CallEdge();
+		edge2.connect(callNode2, callNode3);
+		aDiagram.addEdge(edge2);
+		aRenderer.draw(context);
+		assertTrue(aRenderer.getLayoutChanges().isPresent());
+	}
+	
 	@Test
 	void testFindRoot_Empty()
 	{
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
+import org.junit.jupiter.api.Test;
+
+public class TestSpatialIndex
+{
+	private final SpatialIndex<String> aIndex = new SpatialIndex<>(100);
+
+	@Test
+	void testElementsAt_Empty()
+	{
+		assertTrue(aIndex.elementsAt(new Point(0, 0)).isEmpty());
+	}
+
+	@Test
+	void testElementsAt_SingleCell()
+	{
+		aIndex.add("A", new Rectangle(10, 10, 20, 20));
+		assertEquals(List.of("A"), aIndex.elementsAt(new Point(10, 10)));
+		assertEquals(List.of("A"), aIndex.elementsAt(new Point(30, 30)));
+		assertTrue(aIndex.elementsAt(new Point(31, 30)).isEmpty());
+		assertTrue(aIndex.elementsAt(new Point(50, 50)).isEmpty());
+	}
+
+	@Test
+	void testElementsAt_SeveralCells()
+	{
+		aIndex.add("A", new Rectangle(-150, -50, 400, 100));
+		assertEquals(List.of("A"), aIndex.elementsAt(new Point(-150, -50)));
+		assertEquals(List.of("A"), aIndex.elementsAt(new Point(0, 0)));
+		assertEquals(List.of("A"), aIndex.elementsAt(new Point(250, 50)));
+		assertTrue(aIndex.elementsAt(new Point(251, 50)).isEmpty());
+	}
+
+	@Test
+	void testElementsAt_InsertionOrder()
+	{
+		aIndex.add("A", new Rectangle(0, 0, 300, 300));
+		aIndex.add("B", new Rectangle(150, 150, 10, 10));
+		aIndex.add("C", new Rectangle(100, 100, 100, 100));
+		assertEquals(List.of("A", "B", "C"), aIndex.elementsAt(new Point(155, 155)));
+		assertEquals(List.of("A", "C"), aIndex.elementsAt(new Point(190, 190)));
+	}
+
+	@Test
+	void testElementsAt_Unbounded()
+	{
+		aIndex.add("A", new Rectangle(0, 0, 10, 10));
+		aIndex.addUnbounded("B");
+		aIndex.add("C", new Rectangle(0, 0, 10, 10));
+		assertEquals(List.of("A", "B", "C"), aIndex.elementsAt(new Point(5, 5)));
+		assertEquals(List.of("B"), aIndex.elementsAt(new Point(-5000, 5000)));
+	}
+
+	@Test
+	void testElementsIntersecting()
+	{
+		aIndex.add("A", new Rectangle(0, 0, 50, 50));
+		aIndex.add("B", new Rectangle(500, 500, 50, 50));
+		aIndex.add("C", new Rectangle(40, 40, 500, 20));
+		assertEquals(List.of("A", "C"), aIndex.elementsIntersecting(new Rectangle(45, 45, 10, 10)));
+		assertEquals(List.of("B"), aIndex.elementsIntersecting(new Rectangle(520, 520, 300, 300)));
+		assertEquals(List.of("A", "B", "C"), aIndex.elementsIntersecting(new Rectangle(-10, -10, 1000, 1000)));
+		assertTrue(aIndex.elementsIntersecting(new Rectangle(200, 200, 100, 100)).isEmpty());
+	}
+
+	@Test
+	void testUpdate_KeepsInsertionOrder()
+	{
+		aIndex.add("A", new Rectangle(0, 0, 10, 10));
+		aIndex.add("B", new Rectangle(500, 500, 10, 10));
+		aIndex.add("C", new Rectangle(0, 0, 10, 10));
+		aIndex.update("A", new Rectangle(500, 500, 10, 10));
+		assertEquals(List.of("C"), aIndex.elementsAt(new Point(5, 5)));
+		assertEquals(List.of("A", "B"), aIndex.elementsAt(new Point(505, 505)));
+		aIndex.update("A", new Rectangle(0, 0, 10, 10));
+		assertEquals(List.of("A", "C"), aIndex.elementsAt(new Point(5, 5)));
+		assertEquals(List.of("B"), aIndex.elementsAt(new Point(505, 505)));
+	}
+
+	@Test
+	void testUpdate_Unbounded()
+	{
+		aIndex.add("A", new Rectangle(0, 0, 10, 10));
+		aIndex.add("B", new Rectangle(0, 0, 10, 10));
+		aIndex.updateUnbounded("B");
+		assertEquals(List.of("B"), aIndex.elementsIntersecting(new Rectangle(300, 300, 10, 10)));
+		aIndex.update("B", new Rectangle(300, 300, 10, 10));
+		assertEquals(List.of("B"), aIndex.elementsIntersecting(new Rectangle(300, 300, 10, 10)));
+		assertEquals(List.of("A"), aIndex.elementsAt(new Point(5, 5)));
+	}
+
+	@Test
+	void testContains()
+	{
+		aIndex.add("A", new Rectangle(0, 0, 10, 10));
+		aIndex.addUnbounded("B");
+		assertTrue(aIndex.contains("A"));
+		assertTrue(aIndex.contains("B"));
+		assertFalse(aIndex.contains("C"));
+	}
+}
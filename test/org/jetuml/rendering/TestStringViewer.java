@@ -21,6 +21,7 @@
 package org.jetuml.rendering;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -32,6 +33,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import javafx.scene.text.Font;
 import org.jetuml.application.UserPreferences;
 import org.jetuml.application.UserPreferences.IntegerPreference;
@@ -330,4 +332,42 @@ public class TestStringViewer
 		assertTrue(drawnFont.getStyle().contains("Bold"), "Font should be bold");
 	}
 
+	@Test
+	@DisplayName("Should measure each string only once")
+	void shouldCacheDimensions() {
+		Dimension dimension = topCenter.getDimension("Cached String");
+		assertSame(dimension, topCenter.getDimension("Cached String"));
+		assertSame(dimension, new StringRenderer(Alignment.LEFT).getDimension("Cached String"));
+		assertEquals(dimension.height(), topCenterBold.getDimension("Cached String").height());
+	}
+
+	@Test
+	@DisplayName("Should measure again when the font size changes")
+	void shouldInvalidateWhenFontSizeChanges() {
+		int lineHeight = topCenter.lineHeight();
+		int width = topCenter.getDimension("Display String").width();
+		UserPreferences.instance().setInteger(IntegerPreference.fontSize, UserPreferences.DEFAULT_FONT_SIZE * 2);
+		assertTrue(topCenter.lineHeight() > lineHeight);
+		assertTrue(topCenter.getDimension("Display String").width() > width);
+		UserPreferences.instance().setInteger(IntegerPreference.fontSize, UserPreferences.DEFAULT_FONT_SIZE);
+		assertEquals(lineHeight, topCenter.lineHeight());
+		assertEquals(width, topCenter.getDimension("Display String").width());
+	}
+
+	@Test
+	@DisplayName("Should measure strings with the text metrics in use")
+	void shouldUseTextMetrics() {
+		TextMetrics metrics = mock(TextMetrics.class);
+		when(metrics.getDimension(anyString(), any())).thenReturn(new Dimension(40, 10));
+		when(metrics.lineHeight(any())).thenReturn(10);
+		when(metrics.getBaselineOffset(any())).thenReturn(8);
+		try {
+			StringRenderer.setTextMetrics(metrics);
+			assertEquals(new Dimension(40, 10), topCenter.getDimension("Display String"));
+			assertEquals(new FontDimension(10, 2), topCenter.fontDimension());
+			verify(metrics).getDimension(eq("Display String"), any());
+		} finally {
+			StringRenderer.setTextMetrics(new JavaFXTextMetrics());
+		}
+	}
 }
@@ -12,9 +12,15 @@ import org.jetuml.geom.Rectangle;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestSvgRenderingContext {
@@ -355,4 +361,45 @@ public class TestSvgRenderingContext {
         assertTrue(svgOutput.contains(String.format("font-size=\"%.2fpx\"", expectedSize)),
                 "SVG should contain the correct font-size");
     }
+
+    @Test
+    @DisplayName("Should write the same image to an output as in memory")
+    void shouldStreamSameImageToOutput() {
+        Rectangle rectangle = new Rectangle(50, 50, 100, 100);
+        SvgRenderingContext inMemory = new SvgRenderingContext(rectangle);
+        StringWriter output = new StringWriter();
+        SvgRenderingContext streaming = new SvgRenderingContext(rectangle, output);
+        for (SvgRenderingContext context : List.of(inMemory, streaming)) {
+            context.strokeLine(1, 2, 3, 4, Color.BLACK, LineStyle.DOTTED);
+            context.drawRectangle(rectangle, Color.WHITE, Color.BLACK, Optional.of(new DropShadow()));
+            context.drawText("a<b>", rectangle, Alignment.LEFT, Color.BLACK, new Font("Arial", 12), new FontDimension(12, 12));
+        }
+        String expected = inMemory.create();
+        assertTrue(output.toString().endsWith("\"0.75\">\n<line x1=\"1\" y1=\"2\" x2=\"3\" y2=\"4\" stroke=\"black\" stroke-dasharray=\"3.0 3.0\"/>\n"
+                + "<rect width=\"100\" height=\"100\" x=\"52\" y=\"52\" stroke=\"none\" fill=\"lightgray\" style=\"filter:url(#shadow);\"/>\n"
+                + "<rect width=\"100\" height=\"100\" x=\"50\" y=\"50\" stroke=\"black\" fill=\"white\"/>\n"
+                + "<text x=\"50\" y=\"138\" font-size=\"11.75px\" font-family=\"Arial, Helvetica, sans-serif\" "
+                + "font-weight=\"normal\" font-style=\"normal\" text-anchor=\"start\">a&lt;b&gt;</text>"),
+                "Each element should be written as soon as it is drawn");
+        streaming.finish();
+        assertEquals(expected, output.toString());
+    }
+
+    @Test
+    @DisplayName("Should report errors writing to the output")
+    void shouldReportOutputErrors() {
+        Writer failing = new Writer() {
+            @Override
+            public void write(char[] pBuffer, int pOffset, int pLength) throws IOException {
+                throw new IOException();
+            }
+
+            @Override
+            public void flush() {}
+
+            @Override
+            public void close() {}
+        };
+        assertThrows(UncheckedIOException.class, () -> new SvgRenderingContext(new Rectangle(0, 0, 10, 10), failing));
+    }
 }
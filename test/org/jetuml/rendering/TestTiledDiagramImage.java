@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+
+import javax.imageio.ImageIO;
+
+import org.jetuml.JavaFXLoader;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.edges.DependencyEdge;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.geom.Point;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+public class TestTiledDiagramImage
+{
+	private static final int TILE_SIZE = 32;
+	private static final int WHITE = 0xffffffff;
+	
+	private int aWidth;
+	private int aHeight;
+	private int[] aExpected;
+	private int[] aActual;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@Test
+	public void testSamePixelsAsSingleImage() throws InterruptedException
+	{
+		runLater(() -> 
+		{
+			ExportPipeline pipeline = new ExportPipeline(createDiagram());
+			Image image = pipeline.export(new RasterExportSink(Color.WHITE));
+			TiledDiagramImage tiled = new TiledDiagramImage(pipeline, Color.WHITE, TILE_SIZE);
+			aWidth = tiled.getWidth();
+			aHeight = tiled.getHeight();
+			aExpected = opaque(image);
+			aActual = new int[aWidth * aHeight];
+			// Reads the image from the bottom up, one row at a time, like the BMP writer
+			for( int y = aHeight - 1; y >= 0; y-- )
+			{
+				System.arraycopy(rowOf(tiled, y), 0, aActual, y * aWidth, aWidth);
+			}
+		});
+		assertTrue(aWidth > TILE_SIZE && aHeight > TILE_SIZE);
+		assertEquals(aExpected.length, aWidth * aHeight);
+		assertTrue(Arrays.stream(aExpected).anyMatch(pixel -> pixel != WHITE));
+		assertArrayEquals(aExpected, aActual);
+	}
+	
+	@Test
+	public void testWrittenAsPng() throws InterruptedException
+	{
+		runLater(() -> 
+		{
+			ExportPipeline pipeline = new ExportPipeline(createDiagram());
+			aExpected = opaque(pipeline.export(new RasterExportSink(Color.WHITE)));
+			try
+			{
+				ByteArrayOutputStream output = new ByteArrayOutputStream();
+				ImageIO.write(new TiledDiagramImage(pipeline, Color.WHITE, TILE_SIZE), "png", output);
+				BufferedImage image = ImageIO.read(new ByteArrayInputStream(output.toByteArray()));
+				aActual = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+			}
+			catch(IOException exception)
+			{
+				aActual = new int[0];
+			}
+		});
+		assertTrue(Arrays.stream(aExpected).anyMatch(pixel -> pixel != WHITE));
+		assertArrayEquals(aExpected, aActual);
+	}
+	
+	private static DiagramRenderer createDiagram()
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		ClassNode node1 = new ClassNode();
+		node1.moveTo(new Point(20, 30));
+		ClassNode node2 = new ClassNode();
+		node2.moveTo(new Point(150, 130));
+		diagram.addRootNode(node1);
+		diagram.addRootNode(node2);
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(node1, node2);
+		diagram.addEdge(edge);
+		return DiagramType.newRendererInstanceFor(diagram);
+	}
+	
+	private static int[] rowOf(TiledDiagramImage pImage, int pY)
+	{
+		int[] row = new int[pImage.getWidth()];
+		pImage.getData(new java.awt.Rectangle(0, pY, pImage.getWidth(), 1))
+			.getDataElements(0, pY, pImage.getWidth(), 1, row);
+		for( int i = 0; i < row.length; i++ )
+		{
+			row[i] |= 0xff000000;
+		}
+		return row;
+	}
+	
+	private static int[] opaque(Image pImage)
+	{
+		int width = (int) pImage.getWidth();
+		int height = (int) pImage.getHeight();
+		int[] pixels = new int[width * height];
+		pImage.getPixelReader().getPixels(0, 0, width, height, 
+				javafx.scene.image.PixelFormat.getIntArgbInstance(), pixels, 0, width);
+		return pixels;
+	}
+	
+	/*
+	 * Runs pTest on the JavaFX application thread, which takes snapshots, 
+	 * and waits for it to complete.
+	 */
+	private static void runLater(Runnable pTest) throws InterruptedException
+	{
+		Semaphore semaphore = new Semaphore(0);
+		Platform.runLater(() -> 
+		{
+			try
+			{
+				pTest.run();
+			}
+			finally
+			{
+				semaphore.release();
+			}
+		});
+		semaphore.acquire();
+	}
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.jetuml.testutils.PerformanceTestUtils.addRowDependencies;
+import static org.jetuml.testutils.PerformanceTestUtils.createClassGrid;
+import static org.jetuml.testutils.PerformanceTestUtils.printAverageMillis;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.geom.Rectangle;
+
+import javafx.scene.canvas.Canvas;
+
+/**
+ * Compares the performance of drawing an entire large class diagram with 
+ * drawing only the part of it that fits in a typical viewport.
+ */
+public final class TestViewportCullingPerformance
+{
+	private static final int NUMBER_OF_NODES = 2000;
+	private static final int NUMBER_OF_COLUMNS = 40;
+	private static final Rectangle VIEWPORT = new Rectangle(1500, 1500, 1000, 700);
+
+	private TestViewportCullingPerformance() {}
+
+	/**
+	 * Test method.
+	 */
+	public static void main(String[] pArgs)
+	{
+		RenderingContext context = new GraphicsRenderingContext(new Canvas().getGraphicsContext2D());
+		Diagram diagram = createClassGrid(NUMBER_OF_NODES, NUMBER_OF_COLUMNS, 150, 100);
+		addRowDependencies(diagram, NUMBER_OF_COLUMNS);
+		ClassDiagramRenderer renderer = new ClassDiagramRenderer(diagram);
+		System.out.println("Test DiagramRenderer.draw for " + NUMBER_OF_NODES + " nodes : ");
+		printAverageMillis("drawing the entire diagram", () -> renderer.draw(context));
+		printAverageMillis("drawing the viewport " + VIEWPORT, () -> renderer.draw(context, VIEWPORT));
+	}
+}
@@ -20,6 +20,7 @@
  *******************************************************************************/
 package org.jetuml.rendering.edges;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -33,6 +34,7 @@ import org.jetuml.diagram.edges.DependencyEdge;
 import org.jetuml.diagram.edges.GeneralizationEdge;
 import org.jetuml.diagram.nodes.ClassNode;
 import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
 import org.jetuml.rendering.EdgePath;
 import org.junit.jupiter.api.Test;
 
@@ -155,5 +157,73 @@ public class TestEdgeStorage
 		assertFalse(aEdgeStorage.contains(edge1));
 		assertFalse(aEdgeStorage.contains(edge2));
 		assertFalse(aEdgeStorage.contains(edge3));
-	}	
+	}
+	
+	@Test
+	void testRemove()
+	{
+		edge1.connect(nodeB, nodeA);
+		edge3.connect(nodeB, nodeC);
+		aEdgeStorage.store(edge1, path1);
+		aEdgeStorage.store(edge3, path3);
+		aEdgeStorage.remove(edge1);
+		assertFalse(aEdgeStorage.contains(edge1));
+		assertEquals(List.of(edge3), aEdgeStorage.edgesConnectedTo(nodeB));
+		assertTrue(aEdgeStorage.edgesConnectedTo(nodeA).isEmpty());
+		assertTrue(aEdgeStorage.connectionPointIsAvailable(new Point(0,0)));
+		assertFalse(aEdgeStorage.connectionPointIsAvailable(new Point(100,100)));
+		assertEquals(List.of(edge3), aEdgeStorage.edgesCrossing(new Rectangle(90, 90, 20, 20)));
+	}
+	
+	@Test
+	void testStore_ReplacesIndexedPath()
+	{
+		edge1.connect(nodeB, nodeA);
+		aEdgeStorage.store(edge1, path1);
+		aEdgeStorage.store(edge1, path2);
+		assertEquals(List.of(edge1), aEdgeStorage.edgesConnectedTo(nodeA));
+		assertTrue(aEdgeStorage.connectionPointIsAvailable(new Point(0,0)));
+		assertFalse(aEdgeStorage.connectionPointIsAvailable(new Point(300,350)));
+		assertTrue(aEdgeStorage.edgesCrossing(new Rectangle(0, 0, 10, 10)).isEmpty());
+	}
+	
+	@Test
+	void testConnectionPointIsAvailable_SharedPoint()
+	{
+		aEdgeStorage.store(edge1, path1);
+		aEdgeStorage.store(edge3, path3);
+		aEdgeStorage.remove(edge1);
+		assertFalse(aEdgeStorage.connectionPointIsAvailable(new Point(100,100)));
+		aEdgeStorage.remove(edge3);
+		assertTrue(aEdgeStorage.connectionPointIsAvailable(new Point(100,100)));
+	}
+	
+	@Test
+	void testEdgesCrossing()
+	{
+		Edge diagonal = new DependencyEdge();
+		aEdgeStorage.store(edge1, path1);
+		aEdgeStorage.store(edge2, path2);
+		aEdgeStorage.store(edge3, path3);
+		aEdgeStorage.store(diagonal, new EdgePath(new Point(400,400), new Point(500,500)));
+		assertTrue(aEdgeStorage.edgesCrossing(new Rectangle(10, 10, 20, 20)).isEmpty());
+		assertEquals(List.of(edge1), aEdgeStorage.edgesCrossing(new Rectangle(-5, 40, 10, 10)));
+		assertEquals(List.of(edge3), aEdgeStorage.edgesCrossing(new Rectangle(190, 140, 20, 20)));
+		assertEquals(2, aEdgeStorage.edgesCrossing(new Rectangle(140, 90, 20, 20)).size());
+		assertEquals(List.of(edge2), aEdgeStorage.edgesCrossing(new Rectangle(290, 320, 20, 5)));
+		assertEquals(List.of(diagonal), aEdgeStorage.edgesCrossing(new Rectangle(440, 440, 5, 5)));
+	}
+	
+	@Test
+	void testEdgesWithSameNodes_SelfEdge()
+	{
+		Edge self = new AggregationEdge();
+		edge1.connect(nodeA, nodeB);
+		edge2.connect(nodeB, nodeB);
+		self.connect(nodeA, nodeA);
+		aEdgeStorage.store(edge2, path2);
+		aEdgeStorage.store(self, path3);
+		assertEquals(List.of(edge2, self), aEdgeStorage.getEdgesWithSameNodes(edge1).stream()
+				.sorted((e1, e2) -> e1 == edge2 ? -1 : 1).toList());
+	}
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.rendering.nodes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.jetuml.application.UserPreferences;
+import org.jetuml.application.UserPreferences.IntegerPreference;
+import org.jetuml.diagram.nodes.NoteNode;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the NodeLayoutCache.
+ */
+public class TestNodeLayoutCache
+{
+	private final NodeLayoutCache<Object> aCache = new NodeLayoutCache<>();
+	private int aComputations = 0;
+
+	@Test
+	public void testGetReturnsStoredLayoutWhenNodeIsUnchanged()
+	{
+		NoteNode node = new NoteNode();
+		Object layoutA = aCache.get(node, this::computeLayout);
+		Object layoutB = aCache.get(node, this::computeLayout);
+		assertSame(layoutA, layoutB);
+		assertEquals(1, aComputations);
+	}
+
+	@Test
+	public void testGetComputesLayoutAgainWhenNodeChanges()
+	{
+		NoteNode node = new NoteNode();
+		Object layoutA = aCache.get(node, this::computeLayout);
+		node.setName("B");
+		Object layoutB = aCache.get(node, this::computeLayout);
+		assertNotSame(layoutA, layoutB);
+		assertSame(layoutB, aCache.get(node, this::computeLayout));
+		assertEquals(2, aComputations);
+	}
+
+	@Test
+	public void testGetReturnsDifferentLayoutsForDifferentNodes()
+	{
+		Object layoutA = aCache.get(new NoteNode(), this::computeLayout);
+		Object layoutB = aCache.get(new NoteNode(), this::computeLayout);
+		assertNotSame(layoutA, layoutB);
+	}
+
+	@Test
+	public void testGetComputesLayoutAgainWhenFontChanges()
+	{
+		int fontSize = UserPreferences.instance().getInteger(IntegerPreference.fontSize);
+		try
+		{
+			NoteNode node = new NoteNode();
+			Object layoutA = aCache.get(node, this::computeLayout);
+			UserPreferences.instance().setInteger(IntegerPreference.fontSize, fontSize + 1);
+			Object layoutB = aCache.get(node, this::computeLayout);
+			assertNotSame(layoutA, layoutB);
+		}
+		finally
+		{
+			UserPreferences.instance().setInteger(IntegerPreference.fontSize, fontSize);
+		}
+	}
+
+	private Object computeLayout()
+	{
+		aComputations++;
+		return new Object();
+	}
+}
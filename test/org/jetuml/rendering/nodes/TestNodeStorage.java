@@ -20,13 +20,20 @@
  *******************************************************************************/
 package org.jetuml.rendering.nodes;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.util.function.Function;
 
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
 import org.jetuml.diagram.Node;
+import org.jetuml.diagram.PropertyName;
+import org.jetuml.diagram.nodes.ClassNode;
 import org.jetuml.diagram.nodes.NoteNode;
+import org.jetuml.diagram.nodes.PackageNode;
+import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,53 +43,146 @@ import org.junit.jupiter.api.Test;
  */
 public class TestNodeStorage 
 {	
+	private Diagram aDiagram;
 	private NodeStorage aNodeStorage;
 
 	@BeforeEach
 	public void setup()
 	{
-		aNodeStorage = new NodeStorage();
+		aDiagram = new Diagram(DiagramType.CLASS);
+		aNodeStorage = new NodeStorage(aDiagram);
 	}
 
 	@Test
-	public void testGetBoundsReturnsDifferentBoundsWhenNodeStorageIsNotActive()
+	public void testGetBoundsReturnsSameBoundsWhenNodeIsUnchanged()
 	{
 		Node node = new NoteNode();
-		Rectangle boundsA = aNodeStorage.getBounds(node, createDefaultBoundCalculator());
-		Rectangle boundsB = aNodeStorage.getBounds(node, createDefaultBoundCalculator());
-		assertNotSame(boundsA, boundsB);
+		aDiagram.addRootNode(node);
+		Rectangle boundsA = aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator());
+		Rectangle boundsB = aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator());
+		assertSame(boundsA, boundsB);
 	}
 
 	@Test
-	public void testGetBoundsReturnsSameBoundsWhenNodeStorageIsActive()
+	public void testGetBoundsReturnsDifferentBoundsForDifferentNodes()
+	{
+		Node node1 = new NoteNode();
+		Node node2 = new NoteNode();
+		aDiagram.addRootNode(node1);
+		aDiagram.addRootNode(node2);
+		Rectangle boundsA = aNodeStorage.getBounds(node1, 0, createDefaultBoundCalculator());
+		Rectangle boundsB = aNodeStorage.getBounds(node2, 0, createDefaultBoundCalculator());
+		assertNotSame(boundsA, boundsB);
+	}
+	
+	@Test
+	public void testGetBoundsReturnsDifferentBoundsAfterNodeIsMoved()
 	{
-		aNodeStorage.activate();
 		Node node = new NoteNode();
-		Rectangle boundsA = aNodeStorage.getBounds(node, createDefaultBoundCalculator());
-		Rectangle boundsB = aNodeStorage.getBounds(node, createDefaultBoundCalculator());
-		assertSame(boundsA, boundsB);
+		aDiagram.addRootNode(node);
+		Rectangle boundsBeforeMove = aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator());
+		node.translate(10, 10);
+		Rectangle boundsAfterMove = aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator());
+		assertNotSame(boundsBeforeMove, boundsAfterMove);
+		node.moveTo(new Point(0, 0));
+		assertNotSame(boundsAfterMove, aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator()));
 	}
-
+	
 	@Test
-	public void testGetBoundsReturnsDifferentBoundsForDifferentNodesWhenNodeStorageIsActive()
+	public void testGetBoundsReturnsDifferentBoundsAfterPropertyIsChanged()
 	{
-		aNodeStorage.activate();
-		Node node1 = new NoteNode();
-		Node node2 = new NoteNode();
-		Rectangle boundsA = aNodeStorage.getBounds(node1, createDefaultBoundCalculator());
-		Rectangle boundsB = aNodeStorage.getBounds(node2, createDefaultBoundCalculator());
+		ClassNode node = new ClassNode();
+		aDiagram.addRootNode(node);
+		Rectangle boundsA = aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator());
+		node.properties().get(PropertyName.NAME).set("Name");
+		Rectangle boundsB = aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator());
+		assertNotSame(boundsA, boundsB);
+		node.setAttributes("attribute");
+		assertNotSame(boundsB, aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator()));
+	}
+	
+	@Test
+	public void testGetBoundsReturnsDifferentBoundsOfParentAfterChildIsAddedOrRemoved()
+	{
+		PackageNode parent = new PackageNode();
+		ClassNode child = new ClassNode();
+		aDiagram.addRootNode(parent);
+		Rectangle boundsBeforeAdd = aNodeStorage.getBounds(parent, 0, createDefaultBoundCalculator());
+		parent.addChild(child);
+		Rectangle boundsAfterAdd = aNodeStorage.getBounds(parent, 0, createDefaultBoundCalculator());
+		assertNotSame(boundsBeforeAdd, boundsAfterAdd);
+		parent.removeChild(child);
+		assertNotSame(boundsAfterAdd, aNodeStorage.getBounds(parent, 0, createDefaultBoundCalculator()));
+	}
+	
+	@Test
+	public void testGetBoundsReturnsDifferentBoundsOfAncestorsAndSiblingsAfterDescendantIsChanged()
+	{
+		PackageNode parent = new PackageNode();
+		PackageNode child = new PackageNode();
+		ClassNode grandChild = new ClassNode();
+		ClassNode sibling = new ClassNode();
+		parent.addChild(child);
+		parent.addChild(sibling);
+		child.addChild(grandChild);
+		aDiagram.addRootNode(parent);
+		Rectangle parentBounds = aNodeStorage.getBounds(parent, 0, createDefaultBoundCalculator());
+		Rectangle childBounds = aNodeStorage.getBounds(child, 0, createDefaultBoundCalculator());
+		Rectangle siblingBounds = aNodeStorage.getBounds(sibling, 0, createDefaultBoundCalculator());
+		grandChild.setMethods("method()");
+		assertNotSame(parentBounds, aNodeStorage.getBounds(parent, 0, createDefaultBoundCalculator()));
+		assertNotSame(childBounds, aNodeStorage.getBounds(child, 0, createDefaultBoundCalculator()));
+		assertNotSame(siblingBounds, aNodeStorage.getBounds(sibling, 0, createDefaultBoundCalculator()));
+	}
+	
+	@Test
+	public void testGetBoundsReturnsDifferentBoundsAfterLayoutIsChanged()
+	{
+		Node node = new NoteNode();
+		aDiagram.addRootNode(node);
+		Rectangle boundsA = aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator());
+		Rectangle boundsB = aNodeStorage.getBounds(node, 1, createDefaultBoundCalculator());
 		assertNotSame(boundsA, boundsB);
+		assertSame(boundsB, aNodeStorage.getBounds(node, 1, createDefaultBoundCalculator()));
 	}
 	
 	@Test
-	public void testGetBoundsReturnsDifferentBoundsBeforeAndAfterDeactivationOfNodeStorage()
+	public void testGetBoundsDoesNotStoreBoundsOfNodesOutsideDiagram()
 	{
-		aNodeStorage.activate();
 		Node node = new NoteNode();
-		Rectangle boundsBeforeDeactivation = aNodeStorage.getBounds(node, createDefaultBoundCalculator());
-		aNodeStorage.deactivateAndClear();
-		Rectangle boundsAfterDeactivation = aNodeStorage.getBounds(node, createDefaultBoundCalculator());
-		assertNotSame(boundsBeforeDeactivation, boundsAfterDeactivation);
+		Rectangle boundsA = aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator());
+		assertNotSame(boundsA, aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator()));
+		aDiagram.addRootNode(node);
+		Rectangle boundsB = aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator());
+		assertSame(boundsB, aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator()));
+		aDiagram.removeRootNode(node);
+		assertNotSame(boundsB, aNodeStorage.getBounds(node, 0, createDefaultBoundCalculator()));
+	}
+	
+	@Test
+	public void testGetBoundsDuringAndAfterBatchOfChanges()
+	{
+		PackageNode parent = new PackageNode();
+		ClassNode child = new ClassNode();
+		parent.addChild(child);
+		aDiagram.addRootNode(parent);
+		Rectangle bounds = aNodeStorage.getBounds(parent, 0, createParentBoundCalculator());
+		aDiagram.batchChanges(() -> 
+		{
+			child.translate(10, 10);
+			assertEquals(new Rectangle(10, 10, 100, 100), aNodeStorage.getBounds(parent, 0, createParentBoundCalculator()));
+			parent.removeChild(child);
+		});
+		assertNotSame(bounds, aNodeStorage.getBounds(parent, 0, createParentBoundCalculator()));
+		assertEquals(new Rectangle(0, 0, 100, 100), aNodeStorage.getBounds(parent, 0, createParentBoundCalculator()));
+	}
+	
+	/*
+	 * The bounds of a node are the bounds of its first child, if it has one.
+	 */
+	private static Function<Node, Rectangle> createParentBoundCalculator()
+	{
+		return node -> createDefaultBoundCalculator().apply(node.getChildren().isEmpty() ? node : node.getChildren().get(0));
 	}
 
 	private static Function<Node, Rectangle> createDefaultBoundCalculator()
@@ -96,4 +196,4 @@ public class TestNodeStorage
 			}
 		};
 	}
-} 
\ No newline at end of file
+}
\ No newline at end of file
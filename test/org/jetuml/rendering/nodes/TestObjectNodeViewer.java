@@ -80,7 +80,7 @@ public class TestObjectNodeViewer
 	@Test
 	public void testGetSplitPosition_NoField()
 	{
-		assertEquals(5, ObjectNodeRenderer.getSplitPosition(aNode));
+		assertEquals(5, aViewer.getSplitPosition(aNode));
 	}
 	
 	@Test
@@ -88,7 +88,7 @@ public class TestObjectNodeViewer
 	public void testGetSplitPosition_OneField()
 	{
 		aNode.addChild(aField1);
-		assertEquals(12, ObjectNodeRenderer.getSplitPosition(aNode));
+		assertEquals(12, aViewer.getSplitPosition(aNode));
 	}
 	
 	@Test
@@ -98,14 +98,14 @@ public class TestObjectNodeViewer
 		aNode.addChild(aField1);
 		aNode.addChild(aField2);
 		aField2.setName("XXXXX");
-		assertEquals(47, ObjectNodeRenderer.getSplitPosition(aNode));
+		assertEquals(47, aViewer.getSplitPosition(aNode));
 	}
 	
 	@Test
 	public void testGetYPosition_OneField()
 	{
 		aNode.addChild(aField1);
-		assertEquals(70, ObjectNodeRenderer.getYPosition(aNode, aField1));
+		assertEquals(70, aViewer.getYPosition(aNode, aField1));
 	}
 	
 	@Test
@@ -114,8 +114,8 @@ public class TestObjectNodeViewer
 	{
 		aNode.addChild(aField1);
 		aNode.addChild(aField2);
-		assertEquals(70, ObjectNodeRenderer.getYPosition(aNode, aField1));
-		assertEquals(95, ObjectNodeRenderer.getYPosition(aNode, aField2));
+		assertEquals(70, aViewer.getYPosition(aNode, aField1));
+		assertEquals(95, aViewer.getYPosition(aNode, aField2));
 	}
 	
 	@Test
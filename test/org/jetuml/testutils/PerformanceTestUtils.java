@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2025 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package org.jetuml.testutils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.Node;
+import org.jetuml.diagram.edges.DependencyEdge;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.geom.Point;
+
+/**
+ * Utilities shared by the performance tests, which are run through their
+ * main method: timing a task over a number of trials, and generating large
+ * class diagrams.
+ */
+public final class PerformanceTestUtils
+{
+	/** The number of timed runs of a task, after a first run that is not timed. */
+	public static final int NUMBER_OF_TRIALS = 10;
+	
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+	
+	private PerformanceTestUtils() {}
+	
+	/**
+	 * Runs pTask once without timing it, so that the JIT compiler and the caches
+	 * are warmed up, then pTrials times.
+	 * 
+	 * @param pTrials The number of timed runs.
+	 * @param pTask The task to time.
+	 * @return The average duration of the timed runs, in nanoseconds.
+	 * @pre pTrials > 0 && pTask != null
+	 */
+	public static double averageNanos(int pTrials, Runnable pTask)
+	{
+		assert pTrials > 0 && pTask != null;
+		pTask.run();
+		long total = 0;
+		for( int i = 0; i < pTrials; i++ )
+		{
+			Instant start = Instant.now();
+			pTask.run();
+			total += Duration.between(start, Instant.now()).toNanos();
+		}
+		return (double) total / pTrials;
+	}
+	
+	/**
+	 * Times pTask over NUMBER_OF_TRIALS runs, after a first untimed run.
+	 * 
+	 * @param pTask The task to time.
+	 * @return The average duration of the timed runs, in nanoseconds.
+	 * @pre pTask != null
+	 */
+	public static double averageNanos(Runnable pTask)
+	{
+		return averageNanos(NUMBER_OF_TRIALS, pTask);
+	}
+	
+	/**
+	 * Times pTask over pTrials runs, after a first untimed run, and prints 
+	 * the average duration in milliseconds.
+	 * 
+	 * @param pTrials The number of timed runs.
+	 * @param pDescription What the runs of pTask do, completing the printed line.
+	 * @param pTask The task to time.
+	 * @pre pTrials > 0 && pDescription != null && pTask != null
+	 */
+	public static void printAverageMillis(int pTrials, String pDescription, Runnable pTask)
+	{
+		assert pDescription != null;
+		double average = averageNanos(pTrials, pTask) / NANOS_PER_MILLI;
+		System.out.println("Average Duration (ms) of " + pTrials + " trials " + pDescription + " : " + average);
+	}
+	
+	/**
+	 * Times pTask over NUMBER_OF_TRIALS runs, after a first untimed run, and 
+	 * prints the average duration in milliseconds.
+	 * 
+	 * @param pDescription What the runs of pTask do, completing the printed line.
+	 * @param pTask The task to time.
+	 * @pre pDescription != null && pTask != null
+	 */
+	public static void printAverageMillis(String pDescription, Runnable pTask)
+	{
+		printAverageMillis(NUMBER_OF_TRIALS, pDescription, pTask);
+	}
+	
+	/**
+	 * Creates a class diagram with pNumberOfNodes classes and no edges. The classes
+	 * are placed in rows of pNumberOfColumns, in cells of pCellWidth by pCellHeight 
+	 * pixels, and are added to the diagram row by row.
+	 * 
+	 * @param pNumberOfNodes The number of classes.
+	 * @param pNumberOfColumns The number of classes in each row.
+	 * @param pCellWidth The horizontal distance between two classes in a row.
+	 * @param pCellHeight The vertical distance between two rows.
+	 * @return A new class diagram.
+	 * @pre pNumberOfNodes >= 0 && pNumberOfColumns > 0
+	 */
+	public static Diagram createClassGrid(int pNumberOfNodes, int pNumberOfColumns, int pCellWidth, int pCellHeight)
+	{
+		assert pNumberOfNodes >= 0 && pNumberOfColumns > 0;
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		for( int i = 0; i < pNumberOfNodes; i++ )
+		{
+			Node node = new ClassNode();
+			node.moveTo(new Point((i % pNumberOfColumns) * pCellWidth, (i / pNumberOfColumns) * pCellHeight));
+			diagram.addRootNode(node);
+		}
+		return diagram;
+	}
+	
+	/**
+	 * Adds a dependency from each class of a diagram created by createClassGrid
+	 * to the next class in its row.
+	 * 
+	 * @param pDiagram A diagram created by createClassGrid.
+	 * @param pNumberOfColumns The number of classes in each row of pDiagram.
+	 * @pre pDiagram != null && pNumberOfColumns > 0
+	 */
+	public static void addRowDependencies(Diagram pDiagram, int pNumberOfColumns)
+	{
+		assert pDiagram != null && pNumberOfColumns > 0;
+		int size = pDiagram.rootNodes().size();
+		for( int i = 0; i + 1 < size; i++ )
+		{
+			if( (i + 1) % pNumberOfColumns != 0 )
+			{
+				connect(pDiagram, new DependencyEdge(), pDiagram.rootNodes().get(i), pDiagram.rootNodes().get(i + 1));
+			}
+		}
+	}
+	
+	/**
+	 * Connects pEdge from pStart to pEnd and adds it to pDiagram.
+	 * 
+	 * @param pDiagram The diagram to add the edge to.
+	 * @param pEdge The edge to add.
+	 * @param pStart The start node.
+	 * @param pEnd The end node.
+	 * @pre pDiagram != null && pEdge != null && pStart != null && pEnd != null
+	 */
+	public static void connect(Diagram pDiagram, Edge pEdge, Node pStart, Node pEnd)
+	{
+		assert pDiagram != null && pEdge != null && pStart != null && pEnd != null;
+		pEdge.connect(pStart, pEnd);
+		pDiagram.addEdge(pEdge);
+	}
+}